@@ -0,0 +1,276 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Stores generated forms in an embedded database in a temporary folder, then reads them back
+ * through every query the GUI makes.
+ */
+public class EmbeddedStoreIT {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private EmbeddedStore store;
+
+    @Before
+    public void setUp() throws SQLException {
+        store = new EmbeddedStore(database());
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        store.close();
+    }
+
+    // The database in the temporary folder, reopened by some tests
+    private String database() {
+        return new File(folder.getRoot(), "scouting").getPath();
+    }
+
+    private ArrayList<Form> storeMatchForms(int count) throws SQLException {
+        ArrayList<Form> forms = new TestForms().matchForms(count);
+        for (Form form : forms) store.storeForm(form);
+        return forms;
+    }
+
+    @Test
+    public void matchFormsAreReadBackAsStored() throws SQLException {
+        ArrayList<Form> stored = storeMatchForms(60);
+        ArrayList<Form> read = store.getAllMatchForms();
+        assertEquals(stored.size(), read.size());
+        for (int i = 0; i < stored.size(); i++) {
+            assertEquals(stored.get(i).getFormID(), read.get(i).getFormID());
+            assertEquals(stored.get(i).getTeamNum(), read.get(i).getTeamNum());
+            assertEquals(stored.get(i).getAllRecords().size(), read.get(i).getAllRecords().size());
+        }
+    }
+
+    @Test
+    public void aBundleIsStoredInOneBatch() throws SQLException {
+        TestForms testForms = new TestForms();
+        ArrayList<Form> bundle = testForms.matchForms(24);
+        bundle.add(testForms.prescoutingForm());
+        store.storeForms(bundle);
+
+        ArrayList<Form> read = store.getAllMatchForms();
+        assertEquals(24, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            assertEquals(bundle.get(i).getFormID(), read.get(i).getFormID());
+            assertEquals(bundle.get(i).getTeamNum(), read.get(i).getTeamNum());
+            assertEquals(bundle.get(i).getAllRecords().size(), read.get(i).getAllRecords().size());
+        }
+        assertEquals(bundle.get(24).getScoutName(), FileSystemWatcher.visualizePrescoutingForm(
+        		store.getPrescoutingForm(bundle.get(24).getTeamNum())).getScoutName());
+    }
+
+    @Test
+    public void averagesMatchTheInMemoryStats() throws SQLException {
+        ArrayList<Form> stored = storeMatchForms(120);
+        TeamStats stats = new TeamStats();
+        for (Form form : stored) stats.addForm(form);
+        int teamNum = stored.get(0).getTeamNum();
+
+        ResultSet[] resultSets = store.getAverageForm(teamNum);
+        assertTrue(resultSets[0].first());
+        while (!resultSets[0].isAfterLast()) {
+            TeamStats.ItemStats item = stats.get(teamNum, resultSets[0].getInt(1));
+            assertEquals(item.getMean(), resultSets[0].getDouble(2), 1e-9);
+            assertEquals(item.getSampleSize(), resultSets[0].getInt(4));
+            resultSets[0].next();
+        }
+        assertTrue(resultSets[1].first());
+        while (!resultSets[1].isAfterLast()) {
+            TeamStats.ItemStats item = stats.get(teamNum, resultSets[1].getInt(1));
+            assertEquals((int) item.getSum(), resultSets[1].getInt(2));
+            assertEquals(Math.round(100 * item.getMean()), resultSets[1].getInt(4));
+            resultSets[1].next();
+        }
+        // The rendered summary is the same one Ctrl-M shows
+        assertTrue(MatchForm.averageFormVisualizer(FileSystemWatcher.visualizeAverageForm(resultSets))
+        		.contains(MatchForm.Items.GEAR_MAKES.getName()));
+
+        for (TeamSummary summary : store.getAllTeamsSummary()) {
+            TeamSummary.ItemSummary gearMakes = null;
+            for (TeamSummary.ItemSummary item : summary.items) {
+                if (item.getItemID() == MatchForm.Items.GEAR_MAKES.getId()) gearMakes = item;
+                // The alliance score is about the alliance, not the team
+                assertTrue(item.getItemID() != MatchForm.Items.ALLIANCE_SCORE.getId());
+            }
+            assertEquals(stats.getMean(summary.getTeamNum(), MatchForm.Items.GEAR_MAKES.getId()),
+            		gearMakes.getMean(), 1e-9);
+        }
+    }
+
+    @Test
+    public void rebuiltSummaryMatchesTheOneKeptByStoreForm() throws SQLException {
+        storeMatchForms(120);
+        ArrayList<TeamSummary> kept = store.getAllTeamsSummary();
+        store.rebuildSummary();
+        ArrayList<TeamSummary> rebuilt = store.getAllTeamsSummary();
+        assertEquals(kept.size(), rebuilt.size());
+        for (int i = 0; i < kept.size(); i++) {
+            assertEquals(kept.get(i).getTeamNum(), rebuilt.get(i).getTeamNum());
+            assertEquals(kept.get(i).toCsv(), rebuilt.get(i).toCsv());
+        }
+    }
+
+    @Test
+    public void numbersAreFilledInWhenAnOldDatabaseIsOpened() throws SQLException {
+        ArrayList<Form> stored = storeMatchForms(60);
+        try (Connection conn = store.connect(); Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE scouting.record DROP COLUMN NumValue");
+            stmt.execute("DROP TABLE scouting.team_item_summary");
+        }
+        store.close();
+        store = new EmbeddedStore(database());
+
+        TeamStats stats = new TeamStats();
+        for (Form form : stored) stats.addForm(form);
+        for (TeamSummary summary : store.getAllTeamsSummary()) {
+            assertEquals(stats.toSummary(summary.getTeamNum()).items.size(), summary.items.size());
+            for (TeamSummary.ItemSummary item : summary.items)
+                assertEquals(stats.getMean(summary.getTeamNum(), item.getItemID()), item.getMean(), 1e-9);
+        }
+    }
+
+    // The mean and sample size Ctrl-M shows for a team's item
+    private double[] average(int teamNum, int itemID) throws SQLException {
+        ResultSet averages = store.getAverageForm(teamNum)[0];
+        assertTrue(averages.first());
+        while (averages.getInt(1) != itemID) assertTrue(averages.next());
+        return new double[] {averages.getDouble(2), averages.getInt(4)};
+    }
+
+    @Test
+    public void notApplicableChoicesAreLeftOutOfAverages() throws SQLException {
+        int itemID = MatchForm.Items.SHOOTING_SPEED.getId();
+        Form fast = new MatchForm(1, 9999, 1, "Scout 1");
+        fast.addRecord(new Record(MatchForm.SHOOTING_SPEED.FAST.toString(), itemID));
+        Form notApplicable = new MatchForm(2, 9999, 2, "Scout 2");
+        notApplicable.addRecord(new Record(MatchForm.SHOOTING_SPEED.NA.toString(), itemID));
+        store.storeForm(fast);
+        store.storeForm(notApplicable);
+        assertEquals(2, average(9999, itemID)[0], 1e-9);
+        assertEquals(1, average(9999, itemID)[1], 1e-9);
+
+        // N/A stored as a number, as it was before: opening the database sets it back to null
+        try (Connection conn = store.connect(); Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE scouting.record SET NumValue = -2 WHERE NumValue IS NULL AND ITEM_ID = " + itemID);
+        }
+        store.rebuildSummary();
+        assertEquals(2, average(9999, itemID)[1], 1e-9);
+        store.close();
+        store = new EmbeddedStore(database());
+        assertEquals(2, average(9999, itemID)[0], 1e-9);
+        assertEquals(1, average(9999, itemID)[1], 1e-9);
+    }
+
+    @Test
+    public void notApplicableChoicesAreLeftOutOfTheSummary() throws SQLException {
+        int itemID = MatchForm.Items.CLIMBING_SPEED.getId();
+        ArrayList<Form> forms = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Form form = new MatchForm(1, 9999, 1 + i, "Scout");
+            form.addRecord(new Record(((i % 3 == 0) ? MatchForm.CLIMBING_SPEED.NA
+            		: MatchForm.CLIMBING_SPEED.FAST).toString(), itemID));
+            forms.add(form);
+        }
+        store.storeForms(forms);
+        for (int rebuilt = 0; rebuilt < 2; rebuilt++) {
+            TeamSummary.ItemSummary climbingSpeed = null;
+            for (TeamSummary summary : store.getAllTeamsSummary())
+                if (summary.getTeamNum() == 9999)
+                    for (TeamSummary.ItemSummary item : summary.items)
+                        if (item.getItemID() == itemID) climbingSpeed = item;
+            assertEquals(4, climbingSpeed.getSampleSize());
+            assertEquals(2, climbingSpeed.getMean(), 1e-9);
+            assertEquals(0, climbingSpeed.getStdDev(), 1e-9);
+            store.rebuildSummary();
+        }
+    }
+
+    @Test
+    public void commentsAndPrescoutingFormsAreFoundByTeam() throws SQLException {
+        Form form = new TestForms().prescoutingForm();
+        form.addRecord(new Record("Fast, but tips over", PrescoutingForm.Items.COMMENTS.getId()));
+        store.storeForm(form);
+
+        PrescoutingForm read = FileSystemWatcher.visualizePrescoutingForm(
+        		store.getPrescoutingForm(form.getTeamNum()));
+        assertEquals(form.getScoutName(), read.getScoutName());
+        assertEquals(form.getAllRecords().size(), read.getAllRecords().size());
+        assertNull(store.getPrescoutingForm(form.getTeamNum() + 1));
+
+        ResultSet comments = store.getTeamComments(form.getTeamNum());
+        assertTrue(comments.last());
+        assertEquals("Fast, but tips over", comments.getString(1));
+    }
+
+    @Test
+    public void commentsAreStreamedAPageAtATimeWithoutNearDuplicates() throws SQLException {
+        TestForms testForms = new TestForms();
+        ArrayList<Form> forms = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Form form = testForms.prescoutingForm();
+            form.addRecord(new Record("Comment " + i, PrescoutingForm.Items.COMMENTS.getId()));
+            // The same comment again, as another scout might have typed it
+            if (i % 10 == 0) form.addRecord(new Record(" COMMENT  " + i + "!", PrescoutingForm.Items.COMMENTS.getId()));
+            forms.add(form);
+        }
+        store.storeForms(forms);
+        int teamNum = forms.get(0).getTeamNum();
+        ArrayList<String> all = new ArrayList<>();
+        store.readTeamComments(teamNum, all::add);
+
+        CommentPager first = new CommentPager(0);
+        store.readTeamComments(teamNum, first);
+        CommentPager last = new CommentPager(first.getPageCount() - 1);
+        store.readTeamComments(teamNum, last);
+        assertEquals(CommentPager.PAGE_SIZE, first.getComments().size());
+        assertEquals(all.size() - last.getDuplicateCount(), last.getUniqueCount());
+        assertTrue(last.getDuplicateCount() >= 5);
+        assertEquals("Comment 49", last.getComments().get(last.getComments().size() - 1));
+        assertTrue(last.render().startsWith("Comments (page " + last.getPageCount() + " of " + last.getPageCount()));
+    }
+
+    @Test
+    public void highWaterMarksOnlyGoUp() throws SQLException {
+        store.storeHighWater(3, 10);
+        store.storeHighWater(3, 4);
+        store.storeHighWater(4, 1);
+        HashMap<Integer, Long> highWaterMarks = store.loadHighWaterMarks();
+        assertEquals(Long.valueOf(10), highWaterMarks.get(3));
+        assertEquals(Long.valueOf(1), highWaterMarks.get(4));
+    }
+
+    @Test
+    public void textIsReadAsANumberTheWayMySqlDoes() {
+        assertEquals(Double.valueOf(3), EmbeddedStore.toNumber("3"));
+        assertEquals(Double.valueOf(-1.5), EmbeddedStore.toNumber(" -1.5 "));
+        assertEquals(Double.valueOf(12), EmbeddedStore.toNumber("12 gears"));
+        assertEquals(Double.valueOf(0), EmbeddedStore.toNumber("Fast, but tips over"));
+        assertNull(EmbeddedStore.toNumber(null));
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Appends generated forms to a form log in a temporary folder, then reads them back by team,
+ * before and after the log is reopened.
+ */
+public class FormLogIT {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File folder;
+    private FormLog log;
+    private TestForms testForms;
+
+    @Before
+    public void setUp() {
+        folder = temporaryFolder.getRoot();
+        testForms = new TestForms();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+    }
+
+    private ArrayList<Form> appendMatchForms(int count) throws IOException {
+        ArrayList<Form> forms = testForms.matchForms(count);
+        for (Form form : forms) log.append(form);
+        return forms;
+    }
+
+    private static ArrayList<String> teamForms(ArrayList<Form> forms, int teamNum) {
+        ArrayList<String> teamForms = new ArrayList<>();
+        for (Form form : forms) if (form.getTeamNum() == teamNum) teamForms.add(form.toString());
+        return teamForms;
+    }
+
+    private static ArrayList<String> toStrings(ArrayList<Form> forms) {
+        ArrayList<String> strings = new ArrayList<>();
+        for (Form form : forms) strings.add(form.toString());
+        return strings;
+    }
+
+    @Test
+    public void formsAreFoundByTeamBeforeAndAfterReopening() throws IOException {
+        // Small segments, so the forms span several of them
+        log = new FormLog(folder, 4096);
+        ArrayList<Form> appended = appendMatchForms(300);
+        int teamNum = appended.get(0).getTeamNum();
+        assertEquals(teamForms(appended, teamNum), toStrings(log.getForms(teamNum)));
+        assertTrue(folder.listFiles().length > 1);
+
+        log.close();
+        log = new FormLog(folder, 4096);
+        assertEquals(300, log.getFormCount());
+        assertEquals(teamForms(appended, teamNum), toStrings(log.getForms(teamNum)));
+        assertFalse(log.hasTeam(-1));
+    }
+
+    @Test
+    public void latestPrescoutingFormAndCommentsAreFoundByTeam() throws IOException {
+        log = new FormLog(folder);
+        Form first = testForms.prescoutingForm();
+        Form second = testForms.prescoutingForm();
+        second.addRecord(new Record("Fast, but tips over", PrescoutingForm.Items.COMMENTS.getId()));
+        log.append(first);
+        appendMatchForms(12);
+        log.append(second);
+
+        assertEquals(second.toString(),
+        		log.getLatest(second.getTeamNum(), Form.FormType.PRESCOUTING_FORM).toString());
+        assertNull(log.getLatest(second.getTeamNum() + 100000, Form.FormType.PRESCOUTING_FORM));
+        ArrayList<String> comments = log.getComments(second.getTeamNum());
+        assertEquals("Fast, but tips over", comments.get(comments.size() - 1));
+    }
+
+    @Test
+    public void formCutShortByACrashIsDropped() throws IOException {
+        log = new FormLog(folder);
+        ArrayList<Form> appended = appendMatchForms(10);
+        log.close();
+        File segment = folder.listFiles()[0];
+        RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.setLength(file.length() - 3);
+        file.close();
+
+        log = new FormLog(folder);
+        assertEquals(9, log.getFormCount());
+        log.append(appended.get(9));
+        log.close();
+        log = new FormLog(folder);
+        assertEquals(10, log.getFormCount());
+        int teamNum = appended.get(9).getTeamNum();
+        assertEquals(teamForms(appended, teamNum), toStrings(log.getForms(teamNum)));
+    }
+
+    @Test
+    public void aNewLogIsFilledFromTheDatabase() throws IOException, SQLException {
+        ArrayList<Form> stored = testForms.matchForms(30);
+        Form prescouting = testForms.prescoutingForm();
+        prescouting.addRecord(new Record("Stored before the log existed", PrescoutingForm.Items.COMMENTS.getId()));
+        stored.add(prescouting);
+        try (EmbeddedStore store = new EmbeddedStore(new File(folder, "scouting").getPath())) {
+            store.storeForms(stored);
+            log = FormLog.open(folder, store);
+            assertEquals(stored.size(), log.getFormCount());
+            assertEquals(prescouting.getScoutName(),
+            		log.getLatest(prescouting.getTeamNum(), Form.FormType.PRESCOUTING_FORM).getScoutName());
+            assertTrue(log.getComments(prescouting.getTeamNum()).contains("Stored before the log existed"));
+
+            // Once filled, the log is only added to
+            log.append(testForms.matchForm(1, 6));
+            log.close();
+            log = FormLog.open(folder, store);
+            assertEquals(stored.size() + 1, log.getFormCount());
+        }
+    }
+
+}
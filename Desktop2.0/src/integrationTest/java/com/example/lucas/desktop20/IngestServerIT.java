@@ -0,0 +1,138 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.TransferBundle;
+
+/**
+ * Sends bundles to an ingest server over a local socket, with a sink that keeps the forms in
+ * memory instead of the database.
+ */
+public class IngestServerIT {
+
+    private IngestServer server;
+    private CopyOnWriteArrayList<Form> stored;
+    // True to make the sink fail to store the next bundle
+    private volatile boolean failNext;
+    private Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+
+    @Before
+    public void setUp() throws IOException {
+        stored = new CopyOnWriteArrayList<>();
+        server = IngestServer.start(0, new IngestServer.Sink() {
+            @Override
+            public long ingest(TransferBundle bundle) throws SQLException {
+                if (failNext) {
+                    failNext = false;
+                    throw new SQLException("The database is down");
+                }
+                stored.addAll(bundle.getForms());
+                return bundle.getLastSequence();
+            }
+        });
+        socket = new Socket("localhost", server.getPort());
+        out = new DataOutputStream(socket.getOutputStream());
+        in = new DataInputStream(socket.getInputStream());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    private static byte[] bundle(int tabletNum, long firstSequence, int formCount) {
+        TestForms testForms = new TestForms(firstSequence);
+        ArrayList<Form> forms = new ArrayList<>();
+        for (int i = 0; i < formCount; i++) {
+            Form form = testForms.matchForm(tabletNum, i + 1);
+            form.setSequenceNum(firstSequence + i);
+            forms.add(form);
+        }
+        return TransferBundle.write(tabletNum, firstSequence, firstSequence + formCount - 1,
+                FormCodec.encode(forms), formCount);
+    }
+
+    @Test
+    public void onlyTheLoopbackAddressIsListenedOnByDefault() {
+        assertTrue(server.getAddress().isLoopbackAddress());
+    }
+
+    @Test
+    public void bundlesSentBackToBackAreAckedInOrder() throws IOException {
+        out.write(bundle(3, 0, 5));
+        out.write(bundle(3, 5, 5));
+        out.write(bundle(3, 10, 5));
+        out.flush();
+        for (long highWater : new long[] {4, 9, 14}) {
+            assertEquals(IngestServer.ACK_OK, in.readByte());
+            assertEquals(highWater, in.readLong());
+        }
+        assertEquals(15, stored.size());
+    }
+
+    @Test
+    public void corruptedBundleIsRejectedAndNotStored() throws IOException {
+        byte[] bundle = bundle(3, 0, 5);
+        bundle[bundle.length - 1] ^= 1;
+        out.write(bundle);
+        out.flush();
+        assertEquals(IngestServer.ACK_REJECTED, in.readByte());
+        assertEquals(TransferBundle.NO_SEQUENCE, in.readLong());
+        assertEquals(0, stored.size());
+
+        // The connection is still usable
+        out.write(bundle(3, 0, 5));
+        out.flush();
+        assertEquals(IngestServer.ACK_OK, in.readByte());
+        assertEquals(4, in.readLong());
+    }
+
+    @Test
+    public void bundleTheSinkCannotStoreIsRejected() throws IOException {
+        failNext = true;
+        out.write(bundle(3, 0, 5));
+        out.flush();
+        assertEquals(IngestServer.ACK_REJECTED, in.readByte());
+        assertEquals(TransferBundle.NO_SEQUENCE, in.readLong());
+        assertEquals(0, stored.size());
+
+        // The tablet sends it again
+        out.write(bundle(3, 0, 5));
+        out.flush();
+        assertEquals(IngestServer.ACK_OK, in.readByte());
+        assertEquals(4, in.readLong());
+        assertEquals(5, stored.size());
+    }
+
+    @Test
+    public void bundleArrivingInPiecesIsStoredWhole() throws IOException, InterruptedException {
+        byte[] bundle = bundle(3, 0, 2000);
+        for (int offset = 0; offset < bundle.length; offset += 1000) {
+            out.write(bundle, offset, Math.min(1000, bundle.length - offset));
+            out.flush();
+            Thread.sleep(1);
+        }
+        assertEquals(IngestServer.ACK_OK, in.readByte());
+        assertEquals(1999, in.readLong());
+        assertEquals(2000, stored.size());
+    }
+
+}
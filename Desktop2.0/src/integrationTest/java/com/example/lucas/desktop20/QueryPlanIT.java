@@ -0,0 +1,80 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+
+/**
+ * Explains the queries behind every team lookup on an embedded database holding two seasons of
+ * forms, and checks that reports and records are only ever reached through the composite indexes.
+ * A table scan of either would grow with every season kept in the database.
+ */
+public class QueryPlanIT {
+
+    static final int FORMS = 1200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private EmbeddedStore store;
+    private int teamNum;
+
+    @Before
+    public void setUp() throws SQLException {
+        store = new EmbeddedStore(new File(folder.getRoot(), "scouting").getPath());
+        for (Form form : new TestForms().matchForms(FORMS)) {
+            store.storeForm(form);
+            teamNum = form.getTeamNum();
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        store.close();
+    }
+
+    private static void assertIndexOnly(String plan, String... indexes) {
+        assertFalse(plan, plan.contains("scouting.report.tableScan"));
+        assertFalse(plan, plan.contains("scouting.record.tableScan"));
+        for (String index : indexes) assertTrue(plan, plan.contains("scouting." + index + ":"));
+    }
+
+    @Test
+    public void prescoutingFormIsFoundThroughTheIndexes() throws SQLException {
+        assertIndexOnly(store.explain(JdbcStore.TEAM_REPORTS_SQL, teamNum,
+        		Form.FormType.PRESCOUTING_FORM.ordinal()), JdbcStore.REPORT_TEAM_INDEX);
+        assertIndexOnly(store.explain(JdbcStore.REPORT_RECORDS_SQL, FORMS / 2),
+        		JdbcStore.RECORD_REPORT_ITEM_INDEX);
+    }
+
+    @Test
+    public void commentsAreFoundThroughTheIndexes() throws SQLException {
+        assertIndexOnly(store.explain(EmbeddedStore.TEAM_COMMENTS_SQL, teamNum, MatchForm.Items.COMMENTS.getId()),
+        		JdbcStore.REPORT_TEAM_INDEX);
+    }
+
+    @Test
+    public void averagesAreReadFromTheSummaryByTeam() throws SQLException {
+        int integer = JdbcStore.datatypeID(Item.Datatype.INTEGER);
+        int options = JdbcStore.datatypeID(Item.Datatype.OPTIONS);
+        int bool = JdbcStore.datatypeID(Item.Datatype.BOOLEAN);
+        for (String plan : new String[] {store.explain(JdbcStore.AVERAGES_SQL, teamNum, integer, options),
+        		store.explain(JdbcStore.PROPORTIONS_SQL, teamNum, bool)}) {
+            assertIndexOnly(plan);
+            assertFalse(plan, plan.contains("scouting.team_item_summary.tableScan"));
+            assertTrue(plan, plan.contains("teamnum = ?1"));
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.lucas.desktop20;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Inputs for the benchmarks built from the forms of TestForms, so they are the same every time.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param form - a form
+     * @return the records of the form, without its header
+     */
+    static String toRawRecords(Form form) {
+        StringBuilder raw = new StringBuilder();
+        for (Record record : form.getAllRecords()) {
+            if (raw.length() > 0) raw.append(Form.ITEM_DELIMITER);
+            raw.append(record);
+        } // End for
+        return raw.toString();
+    }
+
+    /**
+     * Builds the two result sets of procAverages and procProportions for a team, without a
+     * database, from the team's match forms.
+     * @param forms - match forms
+     * @return the averages of the integer and options items, then the proportions of the boolean
+     * 			items, over every form
+     * @throws SQLException if a result set could not be built
+     */
+    static CachedRowSet[] averageResultSets(ArrayList<Form> forms) throws SQLException {
+        TeamStats stats = new TeamStats();
+        for (Form form : forms) {
+            form.setTeamNum(1);
+            stats.addForm(form);
+        } // End for
+        CachedRowSet averages = resultSet(Types.DOUBLE);
+        CachedRowSet proportions = resultSet(Types.INTEGER);
+        for (Item item : MatchForm.matchItems) {
+            TeamStats.ItemStats itemStats = stats.get(1, item.getId());
+            if ((itemStats == null) || (itemStats.getSampleSize() == 0)) continue;
+            if (item.getDatatype() == Item.Datatype.BOOLEAN) {
+                proportions.moveToInsertRow();
+                proportions.updateInt(1, item.getId());
+                proportions.updateInt(2, (int) itemStats.getSum());
+                proportions.updateInt(3, itemStats.getSampleSize());
+                proportions.updateInt(4, (int) Math.round(100 * itemStats.getMean()));
+                proportions.insertRow();
+            } else {
+                averages.moveToInsertRow();
+                averages.updateInt(1, item.getId());
+                averages.updateDouble(2, itemStats.getMean());
+                averages.updateDouble(3, itemStats.getStdDev());
+                averages.updateInt(4, itemStats.getSampleSize());
+                averages.insertRow();
+            } // End if
+        } // End for
+        averages.moveToCurrentRow();
+        proportions.moveToCurrentRow();
+        return new CachedRowSet[] {averages, proportions};
+    }
+
+    // Four columns: the item id, a statistic of the type given, and two integers
+    private static CachedRowSet resultSet(int statisticType) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(4);
+        metaData.setColumnType(1, Types.INTEGER);
+        metaData.setColumnType(2, statisticType);
+        metaData.setColumnType(3, (statisticType == Types.DOUBLE) ? Types.DOUBLE : Types.INTEGER);
+        metaData.setColumnType(4, Types.INTEGER);
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        return rowSet;
+    }
+
+}
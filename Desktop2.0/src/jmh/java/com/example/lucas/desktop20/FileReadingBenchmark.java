@@ -0,0 +1,49 @@
+package com.example.lucas.desktop20;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.lucas.formcodec20.Form;
+
+/**
+ * Reading a text file of forms the way the folder watcher does, for files the size of one
+ * transfer, one tablet's day and one tablet's event.
+ */
+@State(Scope.Benchmark)
+public class FileReadingBenchmark {
+
+    @Param({"1", "60", "600"})
+    public int forms;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (Form form : new TestForms().matchForms(forms))
+            content.append(form.toString()).append(Form.FORM_DELIMITER);
+        file = File.createTempFile("forms", ".txt");
+        Files.write(file.toPath(), content.toString().getBytes(Charset.forName("UTF-8")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public String readFromFile() throws IOException {
+        return FileSystemWatcher.readFromFile(file);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Parsing and writing forms in the text format: what the master computer does for every form a
+ * tablet sends as text. Each operation handles one form, cycling through a day's worth of them.
+ */
+@State(Scope.Thread)
+public class FormParsingBenchmark {
+
+    static final int FORMS = 360;
+
+    private String[] rawMatchForms;
+    private String[] rawPrescoutingForms;
+    private String[] rawRecords;
+    private String[] rawRecord;
+    private Form[] forms;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayList<Form> matchForms = new TestForms().matchForms(FORMS);
+        ArrayList<Form> prescoutingForms = new TestForms().prescoutingForms(FORMS);
+        rawMatchForms = new String[FORMS];
+        rawPrescoutingForms = new String[FORMS];
+        rawRecords = new String[FORMS];
+        rawRecord = new String[FORMS];
+        forms = new Form[FORMS];
+        for (int i = 0; i < FORMS; i++) {
+            rawMatchForms[i] = matchForms.get(i).toString();
+            rawPrescoutingForms[i] = prescoutingForms.get(i).toString();
+            rawRecords[i] = BenchmarkData.toRawRecords(matchForms.get(i));
+            rawRecord[i] = matchForms.get(i).getAllRecords().get(i % matchForms.get(i).getAllRecords().size())
+            		.toString();
+            forms[i] = new Form(rawMatchForms[i]);
+        } // End for
+    }
+
+    private int next() {
+        next = (next + 1) % FORMS;
+        return next;
+    }
+
+    @Benchmark
+    public Form parseMatchForm() {
+        return new Form(rawMatchForms[next()]);
+    }
+
+    @Benchmark
+    public Form parsePrescoutingForm() {
+        return new PrescoutingForm(rawPrescoutingForms[next()]);
+    }
+
+    // Form.addRecords(String) is the public way into breakDownRecords
+    @Benchmark
+    public Form breakDownRecords() {
+        Form form = new Form(Form.FormType.MATCH_FORM, 1, 4048, 1, "Scout");
+        form.addRecords(rawRecords[next()]);
+        return form;
+    }
+
+    @Benchmark
+    public Record parseRecord() {
+        return new Record(rawRecord[next()]);
+    }
+
+    @Benchmark
+    public String writeForm() {
+        Form form = forms[next()];
+        // toString caches the text; clearing it makes every call write the form again
+        form.setRawForm(null);
+        return form.toString();
+    }
+
+}
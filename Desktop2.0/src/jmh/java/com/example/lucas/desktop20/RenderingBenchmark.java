@@ -0,0 +1,78 @@
+package com.example.lucas.desktop20;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.PrescoutingForm;
+
+/**
+ * Turning data into text for the console: the console itself, a team's averages (Ctrl-M) and a
+ * team's prescouting form (Ctrl-P). The result sets come from memory rather than the database,
+ * so only the rendering is measured.
+ */
+@State(Scope.Thread)
+public class RenderingBenchmark {
+
+    private ResultSet[] averageResultSets;
+    private String rawAverages;
+    private PrescoutingForm prescoutingForm;
+    private PrintStream systemOut;
+    private int line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        averageResultSets = BenchmarkData.averageResultSets(new TestForms().matchForms(60));
+        rawAverages = FileSystemWatcher.visualizeAverageForm(averageResultSets);
+        prescoutingForm = new PrescoutingForm(new TestForms().prescoutingForms(1).get(0).toString());
+        // output() also prints every line; the benchmark measures the console, not the terminal
+        systemOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        // Fill the console, so every line pushes the oldest one out as it does during an event
+        for (int i = 0; i < 200; i++) FileSystemWatcher.output("Form read successfully.");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public void output() {
+        FileSystemWatcher.output("Form read successfully. " + line++);
+    }
+
+    @Benchmark
+    public String visualizeAverageForm() {
+        return FileSystemWatcher.visualizeAverageForm(averageResultSets);
+    }
+
+    @Benchmark
+    public String averageFormVisualizer() {
+        return MatchForm.averageFormVisualizer(rawAverages);
+    }
+
+    @Benchmark
+    public String prescoutingFormVisualizer() {
+        return prescoutingForm.prescoutingFormVisualizer();
+    }
+
+}
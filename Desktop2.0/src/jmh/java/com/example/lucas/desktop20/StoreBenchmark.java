@@ -0,0 +1,88 @@
+package com.example.lucas.desktop20;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.junit.rules.TemporaryFolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.lucas.formcodec20.Form;
+
+/**
+ * Storing match forms in the embedded database and in MySQL, one at a time and a tablet's bundle
+ * at a time, as ingestForms does. Each operation of storeForm stores one form, so its score is the
+ * ingest throughput in forms per second; storeBundle stores BUNDLE forms.
+ *
+ * The embedded database is created in a temporary folder. MySQL is never benchmarked against the
+ * real scouting schema: it needs a copy of it, procedures included, at the url given by the
+ * mysqlUrl system property (by default the scouting_bench schema on the local server). Pass it
+ * with -jvmArgsAppend -DmysqlUrl=... When MySQL cannot be reached, only its benchmark fails.
+ *
+ * The two do not make the same promise: MySQL flushes every commit to disk, while H2 writes
+ * commits out within a second, so a power cut can lose the last second of forms it stored.
+ */
+@State(Scope.Thread)
+public class StoreBenchmark {
+
+    static final String MYSQL_URL_PROPERTY = "mysqlUrl";
+    static final String DEFAULT_MYSQL_URL = "jdbc:mysql://localhost:3306/scouting_bench?useSSL=false"
+    		+ "&rewriteBatchedStatements=true";
+    // The forms a tablet sends after a few matches
+    static final int BUNDLE = 24;
+
+    @Param({ScoutingStore.EMBEDDED, ScoutingStore.MYSQL})
+    public String store;
+
+    private ScoutingStore scoutingStore;
+    private TemporaryFolder folder;
+    private ArrayList<Form> forms;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        forms = new TestForms().matchForms(FormParsingBenchmark.FORMS);
+        if (store.equals(ScoutingStore.EMBEDDED)) {
+            folder = new TemporaryFolder();
+            folder.create();
+            scoutingStore = new EmbeddedStore(new File(folder.getRoot(), "scouting").getPath());
+        } else {
+            scoutingStore = new MySqlStore(System.getProperty(MYSQL_URL_PROPERTY, DEFAULT_MYSQL_URL));
+            // Fails the trial now, rather than on every operation
+            scoutingStore.loadHighWaterMarks();
+        } // End if
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        scoutingStore.close();
+        if (folder != null) folder.delete();
+    }
+
+    @Benchmark
+    public Form storeForm() throws SQLException {
+        next = (next + 1) % forms.size();
+        Form form = forms.get(next);
+        scoutingStore.storeForm(form);
+        return form;
+    }
+
+    @Benchmark
+    public ArrayList<Form> storeBundle() throws SQLException {
+        ArrayList<Form> bundle = new ArrayList<>();
+        for (int i = 0; i < BUNDLE; i++) {
+            next = (next + 1) % forms.size();
+            bundle.add(forms.get(next));
+        }
+        scoutingStore.storeForms(bundle);
+        return bundle;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.lucas.desktop20;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import org.junit.rules.TemporaryFolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.lucas.formcodec20.Form;
+
+/**
+ * Looking up one team's prescouting form (Ctrl-P) and comments (Ctrl-R) during an event, in the
+ * form log and in the embedded database, both holding the same day of match forms and a
+ * prescouting form for every team. The comments are read both whole and streamed into the page
+ * Ctrl-R outputs.
+ */
+@State(Scope.Thread)
+public class TeamLookupBenchmark {
+
+    static final int MATCH_FORMS = 600;
+    static final int PRESCOUTING_FORMS = 60;
+
+    private TemporaryFolder folder;
+    private FormLog formLog;
+    private EmbeddedStore embeddedStore;
+    private int[] teams;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        folder = new TemporaryFolder();
+        folder.create();
+        formLog = new FormLog(folder.newFolder("formLog"));
+        embeddedStore = new EmbeddedStore(new File(folder.getRoot(), "scouting").getPath());
+        ArrayList<Form> forms = new TestForms().matchForms(MATCH_FORMS);
+        forms.addAll(new TestForms().prescoutingForms(PRESCOUTING_FORMS));
+        for (Form form : forms) {
+            formLog.append(form);
+            embeddedStore.storeForm(form);
+        } // End for
+        formLog.sync();
+        ArrayList<Form> prescoutingForms = new TestForms().prescoutingForms(PRESCOUTING_FORMS);
+        teams = new int[prescoutingForms.size()];
+        for (int i = 0; i < teams.length; i++) teams[i] = prescoutingForms.get(i).getTeamNum();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        formLog.close();
+        embeddedStore.close();
+        folder.delete();
+    }
+
+    private int nextTeam() {
+        next = (next + 1) % teams.length;
+        return teams[next];
+    }
+
+    @Benchmark
+    public Form formLogPrescoutingForm() throws IOException {
+        return formLog.getLatest(nextTeam(), Form.FormType.PRESCOUTING_FORM);
+    }
+
+    @Benchmark
+    public ArrayList<String> formLogComments() throws IOException {
+        return formLog.getComments(nextTeam());
+    }
+
+    @Benchmark
+    public CommentPager formLogCommentPage() throws IOException {
+        CommentPager pager = new CommentPager(0);
+        formLog.readComments(nextTeam(), pager);
+        return pager;
+    }
+
+    @Benchmark
+    public ResultSet[] embeddedPrescoutingForm() throws SQLException {
+        return embeddedStore.getPrescoutingForm(nextTeam());
+    }
+
+    @Benchmark
+    public ResultSet embeddedComments() throws SQLException {
+        return embeddedStore.getTeamComments(nextTeam());
+    }
+
+    @Benchmark
+    public CommentPager embeddedCommentPage() throws SQLException {
+        CommentPager pager = new CommentPager(0);
+        embeddedStore.readTeamComments(nextTeam(), pager);
+        return pager;
+    }
+
+}
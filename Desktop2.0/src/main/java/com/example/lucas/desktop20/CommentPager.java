@@ -0,0 +1,119 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One page of a team's comments, read as they stream out of the form log or the database. Only
+ * the comments of the requested page are kept, so a request takes the same memory however many
+ * comments the team has.
+ *
+ * Comments that are near-duplicates of one read shortly before are skipped. Two comments are
+ * near-duplicates when they are the same once case, punctuation and spacing are ignored, which is
+ * what scouts copying each other's notes or a form sent twice leaves behind. Only the last
+ * DEDUPLICATION_WINDOW comments are remembered for this.
+ */
+public class CommentPager implements Consumer<String> {
+
+    // Comments output to the console at a time
+    public static final int PAGE_SIZE = 20;
+    // Comments remembered to spot near-duplicates
+    public static final int DEDUPLICATION_WINDOW = 256;
+
+    private final int page;
+    private final ArrayList<String> comments = new ArrayList<>();
+    // The normalized comments read last, oldest first
+    private final LinkedHashMap<String, Boolean> recent = new LinkedHashMap<String, Boolean>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > DEDUPLICATION_WINDOW;
+        }
+    };
+    private int unique;
+    private int duplicates;
+
+    /**
+     * @param page - the page to keep, starting at 0
+     */
+    public CommentPager(int page) {
+        this.page = page;
+    }
+
+    /**
+     * @param comment - a comment
+     * @return the comment in lower case, with only its letters and digits, words separated by a
+     * 			single space
+     */
+    static String normalize(String comment) {
+        StringBuilder normalized = new StringBuilder(comment.length());
+        boolean space = false;
+        for (int i = 0; i < comment.length(); i++) {
+            char c = comment.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && (normalized.length() > 0)) normalized.append(' ');
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            } // End if
+        } // End for
+        return normalized.toString();
+    }
+
+    /**
+     * Reads the next comment. Empty comments and near-duplicates are skipped.
+     * @param comment - the comment
+     */
+    @Override
+    public void accept(String comment) {
+        if (comment == null) return;
+        String normalized = normalize(comment);
+        if (normalized.isEmpty()) return;
+        if (recent.put(normalized, Boolean.TRUE) != null) {
+            duplicates++;
+            return;
+        } // End if
+        if (unique / PAGE_SIZE == page) comments.add(comment.trim());
+        unique++;
+    }
+
+    public ArrayList<String> getComments() {
+        return comments;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * @return the number of pages the comments read fill, at least 1
+     */
+    public int getPageCount() {
+        return Math.max(1, (unique + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    public int getUniqueCount() {
+        return unique;
+    }
+
+    public int getDuplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * @return the page, with a heading saying which page it is, ready to be output to the console
+     */
+    public String render() {
+        StringBuilder text = new StringBuilder("Comments (page ").append(page + 1).append(" of ")
+        		.append(getPageCount()).append(", ").append(unique).append(" comment(s)");
+        if (duplicates > 0) text.append(", ").append(duplicates).append(" near-duplicate(s) skipped");
+        text.append("):\n");
+        for (String comment : comments) text.append(comment).append('\n');
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.lucas.desktop20;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.PrescoutingForm;
+
+/**
+ * The scouting schema of Scouting.sql in an embedded H2 database file, for running without a
+ * MySQL install. The schema and the items of both forms are created the first time the file is
+ * opened. Every query is the one JdbcStore runs on MySQL.
+ *
+ * Other programs, such as the load generator, can open the same file while the master computer
+ * has it open: the first one to open it serves it to the others.
+ */
+public class EmbeddedStore extends JdbcStore {
+
+    // Where the database is kept, relative to the user's home folder. H2 adds the extension.
+    static final String DEFAULT_PATH = "scouting/scouting";
+
+    // Scouting.sql without its foreign keys. FormType is a TINYINT, which is what MySQL's BOOL is.
+    // H2 has no index prefixes, so the whole value is indexed.
+    private static final String[] SCHEMA = {
+    	"CREATE SCHEMA IF NOT EXISTS scouting",
+    	"CREATE TABLE IF NOT EXISTS scouting.datatype (ID INT NOT NULL, `Type` VARCHAR(45) NOT NULL, "
+    			+ "PRIMARY KEY (ID))",
+    	"CREATE TABLE IF NOT EXISTS scouting.item (ID INT NOT NULL, `Name` VARCHAR(45) NOT NULL, "
+    			+ "`Active` TINYINT NOT NULL DEFAULT 1, DATATYPE_ID INT NOT NULL, PRIMARY KEY (ID))",
+    	"CREATE TABLE IF NOT EXISTS scouting.report (ID INT NOT NULL AUTO_INCREMENT, MatchNum INT NULL, "
+    			+ "TeamNum INT NOT NULL, TabletNum INT NOT NULL, ScoutName VARCHAR(50) NOT NULL, "
+    			+ "FormType TINYINT NOT NULL DEFAULT 1, PRIMARY KEY (ID))",
+    	"CREATE TABLE IF NOT EXISTS scouting.record (ID INT NOT NULL AUTO_INCREMENT, `Value` VARCHAR(500) NULL, "
+    			+ "NumValue DOUBLE NULL, ITEM_ID INT NOT NULL, REPORT_ID INT NOT NULL, PRIMARY KEY (ID))",
+    	"CREATE INDEX IF NOT EXISTS fk_RECORD_ITEM1_idx ON scouting.record (ITEM_ID)",
+    	"CREATE INDEX IF NOT EXISTS fk_RECORD_REPORT1_idx ON scouting.record (REPORT_ID)",
+    	"CREATE INDEX IF NOT EXISTS " + REPORT_TEAM_INDEX + " ON scouting.report (TeamNum, FormType, ID)",
+    	"CREATE INDEX IF NOT EXISTS " + RECORD_REPORT_ITEM_INDEX + " ON scouting.record (REPORT_ID, ITEM_ID, `Value`)",
+    	"CREATE INDEX IF NOT EXISTS " + RECORD_ITEM_REPORT_INDEX + " ON scouting.record (ITEM_ID, REPORT_ID)",
+    	"CREATE TABLE IF NOT EXISTS scouting.tablet_sync (TabletNum INT NOT NULL, HighWater BIGINT NOT NULL, "
+    			+ "PRIMARY KEY (TabletNum))"
+    };
+
+    // Connections are handed back to the pool when closed, and the pool keeps the database open
+    private final JdbcConnectionPool pool;
+
+    /**
+     * Opens the database file, creating it if it does not exist.
+     * @param path - where the database is kept, without an extension
+     * @throws SQLException if the database could not be opened
+     */
+    public EmbeddedStore(String path) throws SQLException {
+        pool = JdbcConnectionPool.create("jdbc:h2:" + path
+        		+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;AUTO_SERVER=TRUE", "", "");
+        try (Connection conn = connect()) {
+            Statement stmt = conn.createStatement();
+            for (String sql : SCHEMA) stmt.execute(sql);
+            stmt.close();
+            boolean renumbered = addNumberColumn(conn);
+            loadItems(conn);
+            if (!addSummaryTable(conn) && renumbered) rebuildSummary(conn);
+        } // End try
+    }
+
+    private static void loadItems(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+        		"MERGE INTO scouting.datatype (ID, `Type`) KEY (ID) VALUES (?, ?)")) {
+            for (Item.Datatype datatype : Item.Datatype.values()) {
+                stmt.setInt(1, datatypeID(datatype));
+                stmt.setString(2, datatype.name().toLowerCase());
+                stmt.executeUpdate();
+            } // End for
+        } // End try
+        try (PreparedStatement stmt = conn.prepareStatement(
+        		"MERGE INTO scouting.item (ID, `Name`, `Active`, DATATYPE_ID) KEY (ID) VALUES (?, ?, 1, ?)")) {
+            for (Item[] items : new Item[][] {MatchForm.matchItems, MatchForm.allianceItems, PrescoutingForm.items}) {
+                for (Item item : items) {
+                    stmt.setInt(1, item.getId());
+                    stmt.setString(2, item.getName());
+                    stmt.setInt(3, datatypeID(item.getDatatype()));
+                    stmt.executeUpdate();
+                } // End for
+            } // End for
+        } // End try
+    }
+
+    @Override
+    Connection connect() throws SQLException {
+        return pool.getConnection();
+    }
+
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+
+}
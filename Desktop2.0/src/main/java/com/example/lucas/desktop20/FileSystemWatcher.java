@@ -0,0 +1,1347 @@
+/**************************************************************************************************
+ * Scouting 2.0 (2017)
+ * @Author Lucas Varella
+ * @Author Shreya Chowdhary
+ *
+ * This program is meant to handle input from dummy data collectors, and properly insert said info
+ * into the database. The GUI is very simple: it consists of a single text view. Its goal is to
+ * inform the user when an individual form has been processed, and when any critical error occurs.
+ * There are very few available interactions with the GUI, to maintain its simplicity. Keyboard
+ * combinations allow the user to pull up summary information from the database.
+ *
+ * The program utilizes a WatchService in order to monitor changes to the children of a specific
+ * folder. A single WatchKey waits for a change to a specified folder in an endless loop. This
+ * loop is meant to be terminated only by closing the program. Whenever the WatchKey registers an
+ * event or group of events (for our purposes, it will most likely be a single event), the event
+ * is expected to be the creation of a file. As soon as the event is registered, the file is
+ * located and its contents are broken down into constituent items for storage into the database.
+ * Items are stored in the database one at a time. The connection object to the database resets
+ * every time the program saves a form.
+ * 
+ * There are four key combinations meaningful to the GUI. Hitting Ctrl-P queries the database for
+ * a team's prescouting form. Ctrl-R queries the database for all comments made for a specific
+ * team. Ctrl-M creates a summary of averages and proportions for most form records, pertaining to
+ * a specific team. Ctrl-A summarizes every team at once and writes the result to a CSV report in
+ * the scouting folder of the user's home folder. The same report can be generated without the GUI by running the program with the argument
+ * "summarize". Ctrl-L shows the pick list, a ranking of teams by a weighted score of their
+ * averages, and Ctrl-W changes the weights used to rank them. The pick list is kept in memory and
+ * updated as soon as each form is read, so it never has to query the database. Ctrl-O shows the
+ * offensive power rating of every team, which is re-solved after every file that is read. Ctrl-D
+ * shows the distribution of a team's stats: medians, percentiles, extremes and recent matches.
+ * Ctrl-S shows how well scouts agree when two of them scout the same robot in the same match;
+ * scouts that stray from the others are also reported as soon as their forms are read.
+ * 
+ * Bundles can also be sent straight to the program over TCP, on IngestServer.DEFAULT_PORT. Each
+ * bundle is stored as soon as it arrives and acknowledged on the same connection, with no file to
+ * wait for. Files and sockets share the same ingest path, so a form is never stored twice. The
+ * port only accepts connections from this computer unless -Dscouting.ingest.bind names an
+ * address to listen on; see IngestServer.
+ * 
+ * Forms are stored in MySQL by default. Running the program with -Dscouting.store=embedded stores
+ * them in an embedded database file in the user's home folder instead, for events where MySQL is
+ * not installed. See ScoutingStore for more info. Every form is also appended to the form log, a
+ * set of files indexed by team in the user's home folder. Ctrl-P and Ctrl-R read a team's forms
+ * from the form log rather than the database, which stays where forms are summarized and from
+ * where they are exported.
+ * 
+ * Currently, the folder to watch cannot be set from outside the code. The app will
+ * automatically look for changes in the user's Desktop folder.
+ *
+ * The text file must follow a specific format dictated by the tablet software.
+ * This app is optmized for Windows.
+ *************************************************************************************************/
+
+package com.example.lucas.desktop20;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.IntStream;
+
+import javax.swing.AbstractAction;
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileSystemView;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+import com.example.lucas.formcodec20.TransferBundle;
+
+public class FileSystemWatcher {
+    
+    // The database forms are stored in, opened the first time it is needed
+    private static volatile ScoutingStore store;
+    // Every form read, indexed by team, opened the first time it is needed
+    private static volatile FormLog formLog;
+    // Guards opening the database and the form log. Not the class lock, which ingestForms holds
+    // for a whole batch: lookups of an open database or form log never wait for one.
+    private static final Object openLock = new Object();
+    // The team and page of the comments Ctrl-R output last, so asking for the same team again
+    // outputs its next page. Only used on the background thread.
+    private static int commentTeam = -1;
+    private static int commentPage;
+    // Runs the console's requests that read the database or the disk, one at a time, so the GUI
+    // stays responsive while they run. Like the ingest server's threads, it does not keep the
+    // program alive.
+    private static final ExecutorService background = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "Console requests");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
+    // Text file indexes
+    final int MATCH_NUM_INDEX = 4;
+    final int TEAM_NUM_INDEX = 2;
+    final int TABLET_NUM_INDEX = 0;
+    
+    // The current string to display in the JFrame
+    private static String dispString = "";
+    // The current output file number
+    private static int extFileNum = 0;
+    // The number of lines displayed in the JFrame
+    private static int lines;
+    // Guards dispString and lines, which are output to from every thread
+    private static final Object outputLock = new Object();
+    
+    private static JFrame frame;
+    private static JTextArea console;
+    private static FileSystemWatcher instance;
+    
+    // In-memory summary stats of every team, updated as forms are read
+    private static TeamStats teamStats = new TeamStats();
+    // Teams ranked by a weighted score of their stats
+    private static PickList pickList = new PickList(teamStats, PickList.DEFAULT_SIZE);
+    // Offensive power ratings, updated as forms are read
+    private static OprSolver oprSolver = new OprSolver();
+    // Agreement between scouts that scouted the same robot in the same match
+    private static ScoutAgreement scoutAgreement = new ScoutAgreement();
+    // Scouts already reported as outliers
+    private static ArrayList<String> outlierScouts = new ArrayList<>();
+    // The highest form sequence number stored from each tablet
+    private static HashMap<Integer, Long> highWaterMarks = new HashMap<>();
+    // Accepts bundles over TCP, alongside the Desktop folder and the USB
+    private static IngestServer ingestServer;
+    
+    // The folder of the form log, in the user's home folder
+    final static String FORM_LOG_FOLDER = "scouting/formLog";
+    // The all-teams summary report, in the user's home folder next to the form log. Not on the
+    // Desktop, where it would be read back in as a file of forms.
+    final static String SUMMARY_REPORT_FILE = "scouting/teamSummary.csv";
+    // The folder on the user's Desktop holding the tablets' config files, and their templates:
+    // every line of a config file but the tablet number, which comes first, and the
+    // acknowledgement, which comes last
+    final static String CONFIG_FOLDER = "tabletConfigs";
+    final static String MATCH_CONFIG_TEMPLATE_FILE = "matchConfigTemplate.txt";
+    final static String PRESCOUTING_CONFIG_TEMPLATE_FILE = "prescoutingConfigTemplate.txt";
+    
+    /**
+     * Initializes the program. Running it with the argument "summarize" writes the all-teams
+     * summary report and exits without opening the GUI. Running it with "rebuildSummary" rebuilds
+     * the summary table from every record stored, and exits.
+     * @param args - "summarize" to generate the summary report only, "rebuildSummary" to rebuild
+     * 			the summary table only
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if ((args.length > 0) && args[0].equals("summarize")) summarizeAllTeams();
+        else if ((args.length > 0) && args[0].equals("rebuildSummary")) rebuildSummary();
+        else instance = new FileSystemWatcher();
+    } // End main
+    
+    /**
+     * Once called, runs an endless loop looking for new files in the user's Desktop folder. Once
+     * a file is found (given that it is a text file), it will be broken down into forms and items,
+     * which will be stored in the database. In the case that the text file did not originate from
+     * one of the dummy collectors, an exception will be displayed on the JFrame, and the
+     * WatchService will continue to check for changes.
+     * Precondition: JFrame is initialized
+     * Postcondition: New forms will be stored in the database.
+     */
+    public static void checkFolderForFile() {
+        output("Checking folder for file...");
+        
+        // the WatchService will continue to check for File System events until the program is
+        // closed. Look up WatchService for more info.
+        while (true) {
+            WatchService watcher = null;
+            try {
+                watcher = FileSystems.getDefault().newWatchService();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } // End try
+            
+            // The main folder where changes will be monitored.
+            Path dir = new File(System.getProperty("user.home"), "Desktop").toPath();
+            WatchKey key = null;
+            try {
+                key = dir.register(watcher, ENTRY_CREATE);
+                key = watcher.take();
+                output("Found change...");
+            } catch (IOException | InterruptedException x) {
+                x.printStackTrace();
+            } // End try
+            
+            // This code will only be reached when the WatchService has found a change in the
+            // monitored folder. The WatchKey holds the main thread until it has found a change.
+            output("Reading a file...");
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // The filename is the context of the event.
+                @SuppressWarnings("unchecked")
+                WatchEvent<Path> ev = (WatchEvent<Path>) event;
+                Path filename = ev.context();
+                // Folders, like the tablets' config folder, hold no forms
+                if (Files.isDirectory(dir.resolve(filename))) continue;
+                // Verify that the new file is a text file.
+                try {
+                	// Resolve the filename against the directory. This will indicate whether the
+                	// new file found is a text file. Checks for extraneous new items in the
+                	// monitored folder. Look up resolving file names for more info.
+                	Path child = dir.resolve(filename);
+                	if (!Files.probeContentType(child).equals("text/plain")) {
+                		String message = String.format("New file '%s'" + " is not a plain text "
+                				+ "file.%n", filename);
+                		output(message);
+                	} // End if
+                } catch (IOException x) {
+                	System.err.println(x);
+                	continue;
+                } // End try
+                File inputFile = new File(new File(System.getProperty("user.home"), "Desktop"),
+                                          filename.getFileName().toString());
+                // Backup files
+                writeToUSB(inputFile);
+                processFile(inputFile);
+            } // End for
+            
+            // Reset the key to receive further watch events. If the key is no longer valid, the
+            // directory is inaccessible so exit the loop.
+            boolean valid = key.reset();
+            if (!valid) {
+                System.err.format("Directory inaccessible");
+                output("Directory inaccessible");
+                break;
+            } // End if
+        } // End while
+    } // End checkFolderForFile
+    
+    /**
+     * Checks for a USB flash drive with files to import. First looks for a valid USB, then looks for
+     * valid text files inside the USB. It will check for USBs on an infinite loop until it finds a
+     * valid USB. It then transfers all forms from all valid files in the USB.
+     */
+    public static void checkForUSBs() {
+        String outputFilePath = "";
+        // findMountedUSB will return "" if no valid USB is found
+        while (outputFilePath.equals("")) {
+            outputFilePath = findMountedUSB();
+        } // End while
+        File dir = new File(outputFilePath);
+        File[] filesInUSB = dir.listFiles();
+        for (File file : filesInUSB) {
+            output(file.getName());
+            processFile(file);
+        } // End for
+    } // End checkForUSBs
+    
+    /**
+     * Processes all the forms in a given file, then stores them in the database.
+     * If there is a USB flash drive mounted, it will write a copy of the file
+     * to the USB for backup.
+     * @param inputFile - the file to read forms from
+     */
+    public static void processFile(File inputFile) {
+        // We do not know how many forms will be present in the file.
+        ArrayList<Form> forms = new ArrayList<>();
+        try {
+            if (TransferBundle.isBundle(inputFile)) {
+                // Tablets send compressed, checksummed bundles. A bundle that fails its checks
+                // is rejected as a whole, before any of its forms reach the database.
+                InputStream in = new BufferedInputStream(new FileInputStream(inputFile));
+                try {
+                    TransferBundle bundle = TransferBundle.read(in);
+                    forms = bundle.getForms();
+                    output("Bundle from tablet " + bundle.getTabletNum() + ": " + forms.size() + " forms.");
+                } finally {
+                    in.close();
+                } // End try
+            } else if (FormCodec.isBinary(inputFile)) {
+                forms = FormCodec.decode(Files.readAllBytes(inputFile.toPath()));
+            } else {
+                // All text forms in a file will come in a single line.
+                forms = FormCodec.fromText(readFromFile(inputFile));
+            } // End if
+        } catch (IOException | IllegalArgumentException e) {
+            output("Rejected " + inputFile.getName() + ": " + e.getMessage());
+            return;
+        } // End try
+        ingestForms(forms);
+    } // End processFile
+    
+    /**
+     * Stores forms in the database and adds them to the in-memory stats, skipping forms already
+     * stored, then acknowledges them to their tablets. Files and the ingest server both read forms
+     * into here, from different threads, so forms are ingested one batch at a time.
+     * If for any reason storing the forms fails, the program will halt.
+     * @param forms - the forms to ingest
+     */
+    public static synchronized void ingestForms(ArrayList<Form> forms) {
+        try {
+            tryIngestForms(forms);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            output("broken");
+            System.exit(0);
+        } // End try
+    } // End ingestForms
+    
+    /**
+     * Ingests forms like ingestForms, but leaves a failure to store them to the caller. The ingest
+     * server uses it to reject the bundle, which its tablet then sends again.
+     * @param forms - the forms to ingest
+     * @throws SQLException if the forms could not be stored. None of them is then stored, added to
+     * 			the stats or acknowledged.
+     */
+    public static synchronized void tryIngestForms(ArrayList<Form> forms) throws SQLException {
+        // Now we will iterate through each item in each form
+        // The highest sequence number of the batch from each tablet, and the type of its forms.
+        // Neither is recorded until the batch is stored.
+        HashMap<Integer, Long> batchMarks = new HashMap<>();
+        HashMap<Integer, Form.FormType> acknowledged = new HashMap<>();
+        ArrayList<Form> toStore = new ArrayList<>();
+        int skipped = 0;
+        for (Form form : forms) {
+            // Tablets send every form the master computer has not acknowledged yet, so a form
+            // can arrive more than once. Its sequence number tells if it is already stored.
+            long sequenceNum = form.getSequenceNum();
+            if (sequenceNum >= 0) {
+                int tabletNum = form.getTabletNum();
+                if (sequenceNum <= Math.max(getHighWater(tabletNum), batchMarks.getOrDefault(tabletNum, -1L))) {
+                    skipped++;
+                    continue;
+                } // End if
+                batchMarks.put(tabletNum, sequenceNum);
+                acknowledged.put(tabletNum, form.getFormType());
+            } // End if
+            toStore.add(form);
+        } // End for
+        // The whole batch goes to the database at once, then each form gets the id of its report
+        getStore().storeForms(toStore);
+        // Stored: the tablets' forms up to the batch's highest sequence numbers can be acknowledged
+        highWaterMarks.putAll(batchMarks);
+        for (Form form : toStore) {
+            // Only forms the database holds go in the form log, which is built from it
+            appendToFormLog(form);
+            if (teamStats.addForm(form)) pickList.update(form.getTeamNum());
+            oprSolver.addForm(form);
+            scoutAgreement.addForm(form);
+            output("Form read successfully.");
+        } // End for
+        if (skipped > 0) output("Skipped " + skipped + " form(s) already stored.");
+        // Forms are only acknowledged once they are on disk
+        syncFormLog();
+        for (int tabletNum : acknowledged.keySet()) {
+            storeHighWater(tabletNum);
+            writeAckConfig(tabletNum, acknowledged.get(tabletNum));
+        } // End for
+        oprSolver.solve();
+        checkScoutAgreement();
+    } // End tryIngestForms
+    
+    /**
+     * @param tabletNum - the tablet number
+     * @return the highest sequence number stored from the tablet, or -1 if there is none
+     */
+    public static synchronized long getHighWater(int tabletNum) {
+        Long highWater = highWaterMarks.get(tabletNum);
+        return (highWater == null) ? TransferBundle.NO_SEQUENCE : highWater;
+    } // End getHighWater
+    
+    /**
+     * Loads the highest sequence number stored from every tablet.
+     */
+    public static void loadHighWaterMarks() {
+        try {
+            HashMap<Integer, Long> stored = getStore().loadHighWaterMarks();
+            synchronized (FileSystemWatcher.class) {
+                highWaterMarks.putAll(stored);
+            } // End synchronized
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+        } // End try
+    } // End loadHighWaterMarks
+    
+    /**
+     * Stores the highest sequence number stored from a tablet, so it survives a restart.
+     * @param tabletNum - the tablet number
+     */
+    public static void storeHighWater(int tabletNum) {
+        try {
+            getStore().storeHighWater(tabletNum, getHighWater(tabletNum));
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+        } // End try
+    } // End storeHighWater
+    
+    /**
+     * Writes the config file for a tablet, acknowledging every form stored from it so far, to a
+     * folder named after the tablet in the config folder. Sending it to the tablet means the
+     * tablet stops sending those forms. Nothing is written if there is no template for the
+     * tablet's app.
+     * @param tabletNum - the tablet number
+     * @param formType - the type of forms the tablet sends, which tells which app it runs
+     */
+    public static void writeAckConfig(int tabletNum, Form.FormType formType) {
+        File configs = new File(new File(System.getProperty("user.home"), "Desktop"), CONFIG_FOLDER);
+        File template = new File(configs, (formType == Form.FormType.MATCH_FORM)
+        		? MATCH_CONFIG_TEMPLATE_FILE : PRESCOUTING_CONFIG_TEMPLATE_FILE);
+        if (!template.exists()) {
+            output("Tablet " + tabletNum + " is acknowledged through form " + getHighWater(tabletNum)
+            		+ " (no config template to send it).");
+            return;
+        } // End if
+        File folder = new File(configs, "tablet" + tabletNum);
+        try {
+            String config = tabletNum + "\n";
+            for (String line : Files.readAllLines(template.toPath()))
+                if (!line.trim().isEmpty()) config += line + "\n";
+            config += getHighWater(tabletNum);
+            if (!folder.exists() && !folder.mkdirs()) throw new IOException("Could not create " + folder);
+            Files.write(new File(folder, "configFile.txt").toPath(), config.getBytes());
+            output("Send " + CONFIG_FOLDER + "/" + folder.getName() + "/configFile.txt to tablet " + tabletNum
+            		+ " to acknowledge forms through " + getHighWater(tabletNum) + ".");
+        } catch (IOException e) {
+            output("Failed to write the config file of tablet " + tabletNum + ": " + e.getMessage());
+        } // End try
+    } // End writeAckConfig
+    
+    /**
+     * initializes the UI and prompts the user. The user can either choose
+     * to look for files on a USB or to wait for forms from the dummy collectors.
+     * Hitting Ctrl-P queries the database for a specific team's prescouting form.
+     * Hitting Ctrl-M brings up summary statistics for a specific team.
+     * Hitting Ctrl-R queries the databse for a specific team's comments.
+     * Hitting Ctrl-A writes the summary stats of every team to a report.
+     * Hitting Ctrl-L shows the pick list, and Ctrl-W changes its weights.
+     * Hitting Ctrl-O shows the offensive power ratings.
+     * Hitting Ctrl-D shows the distribution of a specific team's stats.
+     * Hitting Ctrl-S shows how well scouts agree with each other.
+     */
+    public FileSystemWatcher() {
+        // Initiating the UI
+        frame = new JFrame();
+        // intiating the frame
+        frame.setTitle("Scouting File System Watcher");
+        frame.setLayout(null);
+        frame.setLocation(100, 100);
+        frame.setSize(980, 870);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setVisible(true);
+        // Initializing the text area
+        console = new JTextArea("");
+        console.setEditable(false);
+        console.setFocusable(true);
+        console.setLayout(null);
+        console.setLineWrap(true);
+        console.setSize(945, 805);
+        console.setLocation(10, 10);
+        console.setVisible(true);
+        // Setting keybindings
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_P, KeyEvent.CTRL_DOWN_MASK), "get prescouting form");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_M, KeyEvent.CTRL_DOWN_MASK), "get average form");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_R, KeyEvent.CTRL_DOWN_MASK), "get team comments");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_A, KeyEvent.CTRL_DOWN_MASK), "summarize all teams");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_L, KeyEvent.CTRL_DOWN_MASK), "get pick list");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_W, KeyEvent.CTRL_DOWN_MASK), "set pick list weights");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_O, KeyEvent.CTRL_DOWN_MASK), "get opr");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_D, KeyEvent.CTRL_DOWN_MASK), "get distribution");
+        console.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+        		.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.CTRL_DOWN_MASK), "get scout agreement");
+        console.getActionMap().put("get prescouting form",
+        		new PrescoutingAction("get prescouting form", null, "gets a prescouting form",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_P, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get average form",
+        		new AverageAction("get average form", null, "gets an average form",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_M, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get team comments",
+        		new CommentAction("get team comments", null, "gets all comments for a team",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_R, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("summarize all teams",
+        		new SummaryAction("summarize all teams", null, "summarizes every team into a report",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_A, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get pick list",
+        		new PickListAction("get pick list", null, "gets the ranking of all teams",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_L, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("set pick list weights",
+        		new WeightsAction("set pick list weights", null, "sets the weights used to rank teams",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_W, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get opr",
+        		new OprAction("get opr", null, "gets the offensive power rating of every team",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_O, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get distribution",
+        		new DistributionAction("get distribution", null, "gets the distribution of a team's stats",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_D, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        console.getActionMap().put("get scout agreement",
+        		new ScoutAction("get scout agreement", null, "gets how well scouts agree with each other",
+        		KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.CTRL_DOWN_MASK).getKeyCode()));
+        
+        JScrollPane scroll = new JScrollPane(console);
+        scroll.setFocusable(true);
+        scroll.setSize(945, 805);
+        scroll.setLocation(10, 10);
+        frame.add(scroll);
+        
+        // Initialize UI
+        String[] buttons = { "Read from Folder", "Read from USB" };
+        
+        // At the beginning, the user is presented with a choice. The program can either watch the Desktop for
+        // new files or read files from a USB
+        int response = JOptionPane.showOptionDialog(frame, "Do you want to transfer to or read from the USB?",
+        		"Confirmation", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE, null, buttons, buttons[1]);
+        loadTeamStats();
+        loadHighWaterMarks();
+        getFormLog();
+        startIngestServer();
+        output("Ready");
+        if (response == JOptionPane.YES_OPTION) {
+            output("Reading from a Folder");
+            checkFolderForFile();
+        } else if (response == JOptionPane.NO_OPTION) {
+            output("Reading from a USB");
+            checkForUSBs();
+        } else {
+            output("Error reading input");
+        } // End if
+    } // End constructor
+    
+    /**
+     * Starts accepting bundles over TCP on IngestServer.DEFAULT_PORT, from this computer only
+     * unless the scouting.ingest.bind system property says otherwise. The Desktop folder and the
+     * USB still work if the port is taken.
+     */
+    public static void startIngestServer() {
+        try {
+            IngestServer.Sink sink = new IngestServer.Sink() {
+                @Override
+                public long ingest(TransferBundle bundle) throws SQLException {
+                    output("Bundle from tablet " + bundle.getTabletNum() + " over TCP: "
+                    		+ bundle.getForms().size() + " forms.");
+                    // A bundle that cannot be stored is rejected rather than halting the program
+                    tryIngestForms(bundle.getForms());
+                    return getHighWater(bundle.getTabletNum());
+                }
+            };
+            ingestServer = IngestServer.start(IngestServer.bindAddress(), IngestServer.DEFAULT_PORT, sink);
+            output("Accepting bundles on " + ingestServer.getAddress().getHostAddress() + " port "
+            		+ ingestServer.getPort());
+        } catch (IOException e) {
+            output("Could not start the ingest server: " + e.getMessage());
+        } // End try
+    } // End startIngestServer
+    
+    /**
+     * Finds a mounted USB flash drive. Returns the path to the USB with the
+     * highest letter (last on the list). Throws an exception if no USB flash
+     * drive is found; when the program is running, it will halt execution.
+     * The program expects to have at least one USB mounted.
+     * @return the path to the mounted USB
+     */
+    public static String findMountedUSB() {
+        output("Finding mounted USBs...");
+        // Finds USBs mounted
+        File files[] = File.listRoots();
+        FileSystemView fsv = FileSystemView.getFileSystemView();
+        String outputFilePath = "";
+        try {
+            for (File file : files) {
+            	// Sets the return to the last USB on the list
+                if (fsv.getSystemTypeDescription(file).equals("USB Drive"))
+                    outputFilePath = file.getAbsolutePath();
+            } // End for
+        } catch (NullPointerException ex) {
+            ex.printStackTrace();
+            output("Failed to Find USB(s)");
+        } // End try
+        return outputFilePath;
+    } // End findMountedUSB
+    
+    /**
+     * Writes the contents of a file to a new text file in a USB flash drive. This
+     * is a backup measure. If there is no USB flash drive mounted, an exception
+     * will be thrown and the program will halt execution. It numbers the USB file
+     * names using class variable extFileNum.
+     * @param inputFile - the file to copy from
+     */
+    public static void writeToUSB(File inputFile) {
+        String outputToFile = "";
+        String outputFilePath = findMountedUSB();
+        // Creates file and checks if it is modifiable
+        File outputToUSB = new File(outputFilePath, "scoutingfile" + extFileNum + ".txt");
+        outputToUSB.setWritable(true);
+        try {
+            if (!outputToUSB.exists())
+                if (!outputToUSB.createNewFile())
+                    throw new IOException();
+            // Binary files are copied byte for byte; reading them as text would corrupt them.
+            if (FormCodec.isBinary(inputFile) || TransferBundle.isBundle(inputFile)) {
+                Files.copy(inputFile.toPath(), outputToUSB.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                output("Backed up " + inputFile.getName() + " (binary forms)");
+                extFileNum++;
+                return;
+            } // End if
+            outputToFile = readFromFile(inputFile);
+        } catch (IOException e) {
+            output("Failed to create/use usb file");
+            e.printStackTrace();
+        } // End try
+        
+        // Outputs the information to the file
+        output(outputToFile);
+        try {
+            FileWriter outputInfoToUSBFile = new FileWriter(outputToUSB, false);
+            outputInfoToUSBFile.write(outputToFile);
+            outputInfoToUSBFile.close();
+        } catch (FileNotFoundException ioe) {
+            System.err.println("FileNotFound: " + outputToUSB);
+        } catch (IOException ioe) {
+            System.err.println("IOException: " + ioe);
+        } // End try
+        extFileNum++;
+    } // End writeToUSB
+    
+    /**
+     * Writes the contents of a file to a new text file in the Desktop. This is
+     * a backup measure. Though it is implemented, it is currently not in use.
+     * It is meant to be used when there is no USB flash drive available.
+     * @param inputFile - the file to copy from
+     */
+    public static void writeToDesktop(File inputFile) {
+        String outputToFile = "";
+        try {
+            outputToFile = readFromFile(inputFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } // End try
+        // Outputs the information to the file
+        output(outputToFile);
+        try {
+            FileWriter outputInfoToUSBFile =
+            		new FileWriter(new File(System.getProperty("user.home"), "Desktop"), false);
+            outputInfoToUSBFile.write(outputToFile);
+            outputInfoToUSBFile.close();
+        } catch (FileNotFoundException ioe) {
+            System.err.println("FileNotFound: " + new File(System.getProperty("user.home"), "Desktop"));
+        } catch (IOException ioe) {
+            System.err.println("IOException: " + ioe);
+        } // End try
+    } // End writeToDesktop
+    
+    /**
+     * Reads all the contents from a file into the same String.
+     * @param inputFile - the file to read from
+     * @return the contents of the phone concatenated into a single String
+     * @throws IOException
+     */
+    public static String readFromFile(File inputFile) throws IOException {
+        Scanner in = new Scanner(inputFile);
+        String content = "";
+        while (in.hasNextLine()) content += in.nextLine();
+        in.close();
+        return content;
+    } // End readFromFile
+    
+    /**
+     * Takes in a string to append it to the "console". New strings are placed at the bottom
+     * of the console. The space on the JFrame allows for roughly 148 lines of text. Can be called
+     * from any thread: the console itself is only updated on the event dispatch thread.
+     * @param s - the string to append to the console
+     */
+    public static void output(String s) {
+        synchronized (outputLock) {
+            System.out.println(s);
+            dispString += s + "\n";
+            String[] array = dispString.split("\n");
+            lines = array.length;
+            if (lines < 148) lines++;
+            else {
+                lines = 0;
+                dispString = "";
+                for (int i = array.length-1; i >= array.length-148; i--) {
+                    dispString = array[i] + "\n" + dispString;
+                    lines++;
+                } // End for
+            } // End if
+        } // End synchronized
+        // The console does not exist when running from the command line
+        if (console == null) return;
+        if (SwingUtilities.isEventDispatchThread()) showOutput();
+        else SwingUtilities.invokeLater(FileSystemWatcher::showOutput);
+    } // End output
+    
+    // Shows the latest output, so output from other threads is never shown out of order
+    private static void showOutput() {
+        String text;
+        synchronized (outputLock) {
+            text = dispString;
+        } // End synchronized
+        console.setText(text);
+    } // End showOutput
+    
+    /**
+     * Appends a form to the form log, which serves Ctrl-P and Ctrl-R without the database.
+     * If for any reason appending the form fails, the program will halt.
+     * @param form - the form to append
+     */
+    public static void appendToFormLog(Form form) {
+        try {
+            getFormLog().append(form);
+        } catch (IOException e) {
+            e.printStackTrace();
+            output("broken");
+            System.exit(0);
+        } // End try
+    } // End appendToFormLog
+    
+    /**
+     * Forces the forms appended to the form log to disk. If it fails, the program will halt.
+     */
+    public static void syncFormLog() {
+        try {
+            getFormLog().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            output("broken");
+            System.exit(0);
+        } // End try
+    } // End syncFormLog
+    
+    /**
+     * Opens the form log the first time it is needed, indexing every form in it. The first time
+     * it is opened, it is filled with the forms already in the database. If it cannot be opened,
+     * the program halts.
+     * @return the form log
+     */
+    public static FormLog getFormLog() {
+        FormLog opened = formLog;
+        if (opened != null) return opened;
+        synchronized (openLock) {
+            if (formLog == null) {
+                try {
+                    formLog = FormLog.open(new File(System.getProperty("user.home"), FORM_LOG_FOLDER), getStore());
+                    output("Indexed " + formLog.getFormCount() + " form(s) in the form log.");
+                } catch (IOException | SQLException e) {
+                    e.printStackTrace();
+                    System.exit(0);
+                } // End try
+            } // End if
+            return formLog;
+        } // End synchronized
+    } // End getFormLog
+    
+    /**
+     * Finds a team's latest prescouting form in the form log, which holds every form stored since
+     * it was filled from the database. A team that is not in it, because a crash came between
+     * storing its form and logging it, is looked up in the database.
+     * @param teamNum - the team whose prescouting form was requested
+     * @return the team's prescouting form, or null if it has none
+     */
+    public static PrescoutingForm getLatestPrescoutingForm(int teamNum) {
+        if (!getFormLog().hasTeam(teamNum)) return visualizePrescoutingForm(getPrescoutingForm(teamNum));
+        try {
+            Form form = getFormLog().getLatest(teamNum, Form.FormType.PRESCOUTING_FORM);
+            return (form == null) ? null : new PrescoutingForm(form.toString());
+        } catch (IOException e) {
+            output(e.getMessage());
+            return null;
+        } // End try
+    } // End getLatestPrescoutingForm
+    
+    /**
+     * Outputs a page of the comments made about a team, from the form log. Teams that are not in
+     * the form log are looked up in the database, as for getLatestPrescoutingForm. Asking for the
+     * same team again outputs the next page, and the first one after the last. The comments are
+     * read on a background thread, so this returns right away.
+     * @param teamNum - the team whose comments were requested
+     */
+    public static void outputTeamComments(final int teamNum) {
+        // Read on the background thread; output shows the page on the event dispatch thread
+        background.execute(() -> {
+            int page = (teamNum == commentTeam) ? commentPage + 1 : 0;
+            CommentPager pager = readCommentPage(teamNum, page);
+            if ((pager != null) && (page >= pager.getPageCount())) pager = readCommentPage(teamNum, page = 0);
+            if (pager == null) return;
+            output(pager.render());
+            if (page + 1 < pager.getPageCount())
+                output("Ctrl-R with team " + teamNum + " again for page " + (page + 2) + ".");
+            commentTeam = teamNum;
+            commentPage = page;
+        });
+    } // End outputTeamComments
+    
+    /**
+     * Streams a team's comments, from the form log or the database, keeping only one page of them.
+     * @param teamNum - the team whose comments were requested
+     * @param page - the page to keep, starting at 0
+     * @return the page, or null if the comments could not be read
+     */
+    private static CommentPager readCommentPage(int teamNum, int page) {
+        CommentPager pager = new CommentPager(page);
+        try {
+            if (getFormLog().hasTeam(teamNum)) getFormLog().readComments(teamNum, pager);
+            else getStore().readTeamComments(teamNum, pager);
+        } catch (IOException e) {
+            output(e.getMessage());
+            return null;
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+        return pager;
+    } // End readCommentPage
+    
+    /**
+     * Opens the database chosen by the scouting.store system property the first time it is
+     * needed. See ScoutingStore for the choices. If it cannot be opened, the program halts.
+     * @return the database forms are stored in
+     */
+    public static ScoutingStore getStore() {
+        ScoutingStore opened = store;
+        if (opened != null) return opened;
+        synchronized (openLock) {
+            if (store == null) {
+                try {
+                    store = ScoutingStore.open();
+                    output("Connected to database");
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                    System.exit(0);
+                } // End try
+            } // End if
+            return store;
+        } // End synchronized
+    } // End getStore
+    
+    /**
+     * Queries the database for the info necessary to reconstruct a specific team's prescouting form. 
+     * @param teamNum - the team whose prescouting form was requested
+     * @return an array of ResultSets. The first ResultSet contains header info. The second contains
+     * 			all records pertaining to the prescouting form. The third constains info about the
+     * 			fields. This has to do with the way forms are stored in the database. Read the
+     * 			Scouting Project Summary and Help Guide for more info. Returns null if the team has
+     * 			no prescouting form.
+     */
+    public static ResultSet[] getPrescoutingForm(int teamNum) {
+        try {
+            return getStore().getPrescoutingForm(teamNum);
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+    } // End getPrescoutingForm
+    
+    public static ResultSet getTeamComments(int teamNum) {
+        try {
+            return getStore().getTeamComments(teamNum);
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+    } // End getTeamComments
+    
+    /**
+     * Compiles a group of ResultSets into a PrescoutingForm object. It rebuilds the prescouting form in
+     * its raw format, as if it was transfered from a dummy collector. See getPrescoutingForm for more
+     * info on the ResultSets. The third ResultSet is currently not used.
+     * @param resultSets - the information necessary to rebuild the prescouting form
+     * @return a PrescoutingForm object representing a team's prescouting form
+     */
+    public static PrescoutingForm visualizePrescoutingForm(ResultSet[] resultSets) {
+        if (resultSets == null) return null;
+        // Form header
+        String rawForm = String.valueOf(Form.FormType.PRESCOUTING_FORM.ordinal())+"|";
+        ResultSet identifyingInfo = resultSets[0];
+        try {
+            identifyingInfo.first();
+            try {
+                rawForm += (identifyingInfo.getString(2) + "|" + identifyingInfo.getString(3) + "|"
+                            + identifyingInfo.getString(4) + "|");
+                rawForm += "-1";
+                identifyingInfo.next();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            } // End try
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } // End try
+        // Form records
+        ResultSet itemsCollection = resultSets[1];
+        try {
+            itemsCollection.first();
+            while (!itemsCollection.isAfterLast()) {
+                try {
+                    rawForm += ("|" + itemsCollection.getInt(2) + "," + itemsCollection.getString(1));
+                    itemsCollection.next();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                } // End try
+            } // End while
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } // End try
+        PrescoutingForm form = new PrescoutingForm(rawForm);
+        return form;
+    } // End visualizePrescoutingForm
+    
+    /**
+     * Queries the database for the summary stats of a team across all matches.
+     * @param teamNum - the team whose summary stats was requested
+     * @return an array of ResultSets. The first result set contains averages of the numeric fields in
+     * 			the match form. The second contains proportions of the non-numeric fields in the form.
+     * 			Read the sql file comments and the Scouting Project Summary and Help Guide for more info.
+     */
+    public static ResultSet[] getAverageForm(int teamNum) {
+        try {
+            return getStore().getAverageForm(teamNum);
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+    } // End getAverageForm
+    
+    public static void visualizeTeamComments(ResultSet comments) {
+    	CommentPager pager = new CommentPager(0); 
+        try {
+        	comments.beforeFirst(); 
+        	while (comments.next()) pager.accept(comments.getString(1)); 
+        } catch(SQLException e) { 
+        	e.printStackTrace();
+        } // End try
+        output(pager.render());
+    } // End visualizeTeamComments
+    
+    /**
+     * Compiles a group of ResultSets into a PrescoutingForm object. It rebuilds the prescouting form in
+     * its raw format, as if it was transfered from a dummy collector. See getPrescoutingForm for more
+     * info on the ResultSets. The third ResultSet is currently not used.
+     * @param resultSets - the information necessary to rebuild the prescouting form
+     * @return a PrescoutingForm object representing a team's prescouting form
+     */
+    public static String visualizeAverageForm(ResultSet[] resultSets) {
+        ResultSet averages = resultSets[0];
+        try {
+			if (!averages.first()) return null;
+		} catch (SQLException e1) {
+			// TODO Auto-generated catch block
+			e1.printStackTrace();
+		} // End try
+        ArrayList<Integer> itemIDs = new ArrayList<Integer>();
+        ArrayList<Double> averageVals = new ArrayList<Double>();
+        ArrayList<Double> standardDevs = new ArrayList<Double>();
+        ArrayList<Integer> sampleSizes = new ArrayList<Integer>();
+        try {
+            averages.first();
+            while (!averages.isAfterLast()) {
+                itemIDs.add(averages.getInt(1));
+                averageVals.add(averages.getDouble(2));
+                standardDevs.add(averages.getDouble(3));
+                sampleSizes.add(averages.getInt(4));
+                averages.next();
+            } // End while
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } // End try
+        
+        ResultSet proportions = resultSets[1];
+        ArrayList<Integer> itemsIDs = new ArrayList<Integer>();
+        ArrayList<Integer> sums = new ArrayList<Integer>();
+        ArrayList<Integer> samplesSizes = new ArrayList<Integer>();
+        ArrayList<Integer> successRates = new ArrayList<Integer>();
+        try {
+            proportions.first();
+            while (!proportions.isAfterLast()) {
+                itemsIDs.add(proportions.getInt(1));
+                sums.add(proportions.getInt(2));
+                samplesSizes.add(proportions.getInt(3));
+                successRates.add(proportions.getInt(4));
+                proportions.next();
+            } // End while
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } // End try
+        
+        String rawData = "";
+        for (int i = 0; i < itemIDs.size(); i++) rawData += itemIDs.get(i) + "," + averageVals.get(i) + ","
+        		+ standardDevs.get(i) + "," + sampleSizes.get(i) + "|";
+        rawData += "##";
+        for (int i = 0; i < itemsIDs.size(); i++) rawData += itemsIDs.get(i) + "," + sums.get(i) + ","
+        		+ samplesSizes.get(i) + "," + successRates.get(i) + "|";
+        return rawData;
+    } // End visualizeAverageForm
+    
+    /**
+     * Rebuilds the summary table behind Ctrl-M and Ctrl-A from every record in the database.
+     * @return true if the table was rebuilt
+     */
+    public static boolean rebuildSummary() {
+        long start = System.currentTimeMillis();
+        try {
+            getStore().rebuildSummary();
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return false;
+        } // End try
+        output("Summary table rebuilt in " + (System.currentTimeMillis() - start) + " ms");
+        return true;
+    } // End rebuildSummary
+    
+    /**
+     * Queries the database for the summary stats of every team across all matches. A single
+     * read of the summary table replaces the two stored procedure calls Ctrl-M makes per team.
+     * @return the summary stats of every team that has match forms, ordered by team number.
+     * 			Returns null if the query failed.
+     */
+    public static ArrayList<TeamSummary> getAllTeamsSummary() {
+        try {
+            return getStore().getAllTeamsSummary();
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+    } // End getAllTeamsSummary
+    
+    /**
+     * Summarizes every team in one pass and writes the result to a single CSV report in the
+     * user's home folder, at SUMMARY_REPORT_FILE. Teams are rendered in parallel, then written in team number order.
+     * Ctrl-A runs it on the background thread, so the GUI stays responsive while it runs.
+     * @return the report file, or null if the report could not be generated
+     */
+    public static File summarizeAllTeams() {
+        long start = System.currentTimeMillis();
+        ArrayList<TeamSummary> summaries = getAllTeamsSummary();
+        if (summaries == null) return null;
+        String[] rendered = new String[summaries.size()];
+        IntStream.range(0, rendered.length).parallel()
+        		.forEach(i -> rendered[i] = summaries.get(i).toCsv());
+        File report = new File(System.getProperty("user.home"), SUMMARY_REPORT_FILE);
+        try {
+            if (!report.getParentFile().isDirectory() && !report.getParentFile().mkdirs())
+                throw new IOException("Could not create " + report.getParent());
+            BufferedWriter writer = new BufferedWriter(new FileWriter(report, false));
+            writer.write(TeamSummary.CSV_HEADER);
+            writer.newLine();
+            for (String team : rendered) writer.write(team);
+            writer.close();
+        } catch (IOException e) {
+            output("Failed to write " + report.getAbsolutePath());
+            e.printStackTrace();
+            return null;
+        } // End try
+        output(summaries.size() + " team(s) summarized in " + (System.currentTimeMillis() - start)
+        		+ " ms: " + report.getAbsolutePath());
+        return report;
+    } // End summarizeAllTeams
+    
+    /**
+     * Rebuilds every match form stored in the database, in match order.
+     * @return all match forms in the database, or null if the query failed
+     */
+    public static ArrayList<Form> getAllMatchForms() {
+        try {
+            return getStore().getAllMatchForms();
+        } catch (SQLException e) {
+            output(e.getMessage() + " error code:" + e.getErrorCode() + " sql state:" + e.getSQLState());
+            return null;
+        } // End try
+    } // End getAllMatchForms
+    
+    /**
+     * Seeds the in-memory team stats with every form already stored in the database, in match
+     * order, then ranks all teams for the pick list and solves their offensive power ratings.
+     * From then on, all of them are updated as forms are read.
+     */
+    public static void loadTeamStats() {
+        ArrayList<Form> forms = getAllMatchForms();
+        if (forms == null) {
+            output("Failed to load team stats.");
+            return;
+        } // End if
+        for (Form form : forms) {
+            teamStats.addForm(form);
+            oprSolver.addForm(form);
+            scoutAgreement.addForm(form);
+        } // End for
+        pickList.rebuild();
+        oprSolver.solve();
+        output("Loaded " + forms.size() + " match form(s) for " + teamStats.getTeams().size() + " team(s).");
+        checkScoutAgreement();
+    } // End loadTeamStats
+    
+    /**
+     * Warns about scouts that have just become outliers, so they can be corrected mid-event.
+     * Each scout is only reported once.
+     */
+    public static void checkScoutAgreement() {
+        for (String scoutName : scoutAgreement.getOutliers()) {
+            if (outlierScouts.contains(scoutName)) continue;
+            outlierScouts.add(scoutName);
+            output("WARNING: " + scoutName + " disagrees with other scouts. Hit Ctrl-S for more info.");
+        } // End for
+    } // End checkScoutAgreement
+    
+    /**
+     * @author Lucas Varella
+     * @author Shreya Chowdhary
+     * Represents the action triggered by hitting Ctrl-P, which brings up a team's prescouting form.
+     */
+    private class PrescoutingAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        // Standard constructor for AbstracActions meant to represent keyboard combos. Look up
+        // keybindings in Java for more info.
+        public PrescoutingAction (String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        /**
+         * Prompts the user for a team number, then grabs the prescouting form for that team on
+         * the background thread, so the GUI does not wait for it.
+         * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+         */
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            String teamNumber = JOptionPane.showInputDialog("Please input a team number.");
+            try {
+                final int teamNum = Integer.parseInt(teamNumber);
+                background.execute(() -> {
+                    PrescoutingForm form = getLatestPrescoutingForm(teamNum);
+                    if (form != null) output(form.prescoutingFormVisualizer());
+                    else output("Team/Form not found.");
+                });
+            } catch (NumberFormatException e1) {
+                output("Invalid team number.");
+            } // End try
+        } // End actionPerformed
+    } // End PrescoutingAction
+    
+    /**
+     * @author Lucas Varella
+     * @author Shreya Chowdhary
+     * Represents the action triggered by hitting Ctrl-M, which brings up summary stats
+     * on a specific team. Basically, numeric fields in the match scouting form are
+     * averaged across matches, and proportons are made out of categorical form data
+     * (checkboxes, dropdowns, etc). Read the Scouting Project Summary and Help Guide for
+     * more info.
+     */
+    private class AverageAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        // Standard constructor for AbstracActions meant to represent keyboard combos. Look up
+        // keybindings in Java for more info.
+        public AverageAction (String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        /**
+         * Prompts the user for a team number, then grabs the summary stats for that team.
+         * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+         */
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            String teamNumber = JOptionPane.showInputDialog("Please input a team number.");
+            int teamNum = 0;
+            try {
+                teamNum = Integer.parseInt(teamNumber);
+                String form =  visualizeAverageForm(getAverageForm(teamNum));
+                if (form != null) output(MatchForm.averageFormVisualizer(form));
+                else output("Team/Form not found.");
+            } catch (NumberFormatException e1) {
+                output("Invalid team number.");
+            } // End try
+        } // End actionPerformed
+    } // End AverageAction
+    
+    public class CommentAction extends AbstractAction { 
+    	private static final long serialVersionUID = 1L; 
+    	public CommentAction(String text, ImageIcon icon, String desc, Integer mnemonic) { 
+    		super(text, icon); 
+    		putValue(SHORT_DESCRIPTION, desc); 
+    		putValue(MNEMONIC_KEY, mnemonic); 
+    	} // End constructor
+    	@Override
+		public void actionPerformed(ActionEvent e) {
+    		String teamNumber = JOptionPane.showInputDialog("Please input a team number."); 
+    		int teamNum = 0; 
+    		try {
+    			teamNum = Integer.parseInt(teamNumber); 
+    			outputTeamComments(teamNum);
+            } catch (NumberFormatException e1) {
+                output("Invalid team number.");
+            } // End try
+    	} // End actionPerformed
+    } // End CommentAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-A, which writes the summary stats of every
+     * team to a single CSV report. See summarizeAllTeams for more info.
+     */
+    private class SummaryAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public SummaryAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            // The query and the file write run on the background thread
+            background.execute(() -> {
+                if (summarizeAllTeams() == null) output("Summary report failed.");
+            });
+        } // End actionPerformed
+    } // End SummaryAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-L, which brings up the pick list. See
+     * PickList for more info.
+     */
+    private class PickListAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public PickListAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            output(pickList.visualize());
+        } // End actionPerformed
+    } // End PickListAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-W, which prompts the user for the weights
+     * used to rank teams in the pick list, formatted as "itemID,weight|itemID,weight".
+     */
+    private class WeightsAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public WeightsAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            String weights = JOptionPane.showInputDialog("Please input the weights (itemID,weight|itemID,weight).",
+            		pickList.getWeights());
+            if (weights == null) return;
+            try {
+                pickList.setWeights(weights);
+                output(pickList.visualize());
+            } catch (IllegalArgumentException e1) {
+                output("Invalid weights: " + e1.getMessage());
+            } // End try
+        } // End actionPerformed
+    } // End WeightsAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-O, which brings up the offensive power
+     * rating and component ratings of every team. See OprSolver for more info.
+     */
+    private class OprAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public OprAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            output(oprSolver.visualize());
+        } // End actionPerformed
+    } // End OprAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-D, which brings up the median, 90th
+     * percentile, min, max and last few values of each numeric item for a specific team.
+     */
+    private class DistributionAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public DistributionAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            String teamNumber = JOptionPane.showInputDialog("Please input a team number.");
+            try {
+                String distribution = teamStats.visualizeDistribution(Integer.parseInt(teamNumber));
+                if (distribution != null) output(distribution);
+                else output("Team/Form not found.");
+            } catch (NumberFormatException e1) {
+                output("Invalid team number.");
+            } // End try
+        } // End actionPerformed
+    } // End DistributionAction
+    
+    /**
+     * Represents the action triggered by hitting Ctrl-S, which brings up the disagreement between
+     * scouts on each item, and the deviation and bias of each scout. See ScoutAgreement for more
+     * info.
+     */
+    private class ScoutAction extends AbstractAction {
+        private static final long serialVersionUID = 1L;
+        public ScoutAction(String text, ImageIcon icon, String desc, Integer mnemonic) {
+            super(text, icon);
+            putValue(SHORT_DESCRIPTION, desc);
+            putValue(MNEMONIC_KEY, mnemonic);
+        } // End constructor
+        @Override
+		public void actionPerformed(ActionEvent e) {
+            output(scoutAgreement.visualize());
+        } // End actionPerformed
+    } // End ScoutAction
+    
+} // End FileSystemWatcher
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.example.lucas.desktop20;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Every form the master computer has read, appended to segment files in the order they were
+ * read, with an index in memory of where each team's forms are. A team's forms, its comments and
+ * its latest prescouting form are read straight from the memory-mapped segments, without going
+ * through the database.
+ *
+ * A segment file starts with the FormCodec header. Each entry after it is the length of a form,
+ * the CRC-32 of the form and the form as FormCodec.encode(Form) writes it. A new segment is
+ * started when a form would make the current one longer than SEGMENT_LENGTH. Segments are never
+ * changed once written, except that a last entry cut short by a crash is cut off when the log is
+ * opened.
+ *
+ * The index is rebuilt by reading every segment when the log is opened. It holds, for every team,
+ * the position of each of its forms and of its latest form of each type. A position is the
+ * segment number in the high 32 bits and the offset of the entry in the low 32 bits.
+ */
+public class FormLog implements AutoCloseable {
+
+    // The size a segment grows to before the next one is started
+    static final int SEGMENT_LENGTH = 64 * 1024 * 1024;
+    // The length and the checksum before each form
+    static final int ENTRY_HEADER_LENGTH = 4 + 4;
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".log";
+    // Created once the log holds every form that was in the database when the log was created
+    static final String BACKFILLED_FILE = "backfilled";
+
+    private final File folder;
+    private final int segmentLength;
+    // Mapped segments; the last one is remapped as it grows
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final HashMap<Integer, TeamIndex> teams = new HashMap<>();
+    private RandomAccessFile current;
+    private FileChannel channel;
+    private int formCount;
+    private boolean unsynced;
+
+    // Where a team's forms are in the log
+    private static final class TeamIndex {
+        long[] positions = new long[16];
+        int size;
+        long[] latest = new long[Form.FormType.values().length];
+
+        TeamIndex() {
+            Arrays.fill(latest, -1);
+        }
+
+        void add(long position, Form.FormType formType) {
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+            latest[formType.ordinal()] = position;
+        }
+    }
+
+    /**
+     * Opens the log in a folder, creating it if needed, and indexes every form in it.
+     * @param folder - the folder holding the segments
+     * @throws IOException if the segments could not be read, or one other than the last is
+     * 			corrupted
+     */
+    public FormLog(File folder) throws IOException {
+        this(folder, SEGMENT_LENGTH);
+    }
+
+    /**
+     * Opens the log in a folder, first filling it with every form already in the database if that
+     * has not been done. A log only gets the forms read after it is created, so without this the
+     * teams read before then would be missing from it. A log whose filling was cut short, or that
+     * was created before logs were filled, is built again from the database.
+     * @param folder - the folder holding the segments
+     * @param store - the database the forms were stored in
+     * @return the log
+     * @throws IOException if the log could not be built or opened
+     * @throws SQLException if the forms could not be read from the database
+     */
+    public static FormLog open(File folder, ScoutingStore store) throws IOException, SQLException {
+        File backfilled = new File(folder, BACKFILLED_FILE);
+        if (!backfilled.exists()) {
+            File[] files = folder.listFiles();
+            if (files != null)
+                for (File file : files)
+                    if (file.getName().startsWith(SEGMENT_PREFIX) && !file.delete())
+                        throw new IOException("Could not delete " + file);
+            try (FormLog log = new FormLog(folder)) {
+                for (Form form : store.getAllForms()) log.append(form);
+            } // End try
+            if (!backfilled.createNewFile()) throw new IOException("Could not create " + backfilled);
+        } // End if
+        return new FormLog(folder);
+    }
+
+    FormLog(File folder, int segmentLength) throws IOException {
+        this.folder = folder;
+        this.segmentLength = segmentLength;
+        if (!folder.exists() && !folder.mkdirs()) throw new IOException("Could not create " + folder);
+        for (int segment = 0; segmentFile(segment).exists(); segment++) {
+            if (current != null) current.close();
+            openSegment(segment);
+            index(segment, !segmentFile(segment + 1).exists());
+        } // End for
+        if (current == null) {
+            openSegment(0);
+            channel.write(ByteBuffer.wrap(FormCodec.header()), 0);
+            segments.set(0, map());
+        } // End if
+    }
+
+    private File segmentFile(int segment) {
+        return new File(folder, SEGMENT_PREFIX + String.format("%06d", segment) + SEGMENT_SUFFIX);
+    }
+
+    private void openSegment(int segment) throws IOException {
+        current = new RandomAccessFile(segmentFile(segment), "rw");
+        channel = current.getChannel();
+        segments.add(null);
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    // Indexes every entry of a segment. The segment is read as a stream rather than mapped, since
+    // a torn entry at the end of the last segment is cut off, and Windows cannot cut a mapped file.
+    private void index(int segment, boolean last) throws IOException {
+        byte[] header = FormCodec.header();
+        long length = channel.size();
+        if ((length < header.length) && last) {
+            // The crash came as the segment was started
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(header), 0);
+            segments.set(segment, map());
+            return;
+        } // End if
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+        		new FileInputStream(segmentFile(segment))));
+        try {
+            if ((length < header.length) || (in.readByte() != header[0]))
+                throw new IOException(segmentFile(segment) + " is not a form log segment");
+            in.readByte();
+            long offset = header.length;
+            while (offset < length) {
+                byte[] encoded = null;
+                if (offset + ENTRY_HEADER_LENGTH <= length) {
+                    int formLength = in.readInt();
+                    int storedChecksum = in.readInt();
+                    if ((formLength >= 0) && (offset + ENTRY_HEADER_LENGTH + formLength <= length)) {
+                        encoded = new byte[formLength];
+                        in.readFully(encoded);
+                        if (checksum(encoded) != storedChecksum) encoded = null;
+                    } // End if
+                } // End if
+                if (encoded == null) {
+                    if (!last) throw new IOException(segmentFile(segment) + " is corrupted at " + offset);
+                    channel.truncate(offset);
+                    break;
+                } // End if
+                indexForm(((long) segment << 32) | offset, FormCodec.decodeForm(encoded));
+                offset += ENTRY_HEADER_LENGTH + encoded.length;
+            } // End while
+        } finally {
+            in.close();
+        } // End try
+        segments.set(segment, map());
+    }
+
+    private static int checksum(byte[] encoded) {
+        CRC32 crc = new CRC32();
+        crc.update(encoded, 0, encoded.length);
+        return (int) crc.getValue();
+    }
+
+    // The form of the entry at an offset, or null if the entry is cut short or corrupted
+    private static byte[] readEntry(ByteBuffer buffer, int offset) {
+        if (offset + ENTRY_HEADER_LENGTH > buffer.limit()) return null;
+        int length = buffer.getInt(offset);
+        int storedChecksum = buffer.getInt(offset + 4);
+        if ((length < 0) || (offset + ENTRY_HEADER_LENGTH + length > buffer.limit())) return null;
+        byte[] encoded = new byte[length];
+        ByteBuffer entry = buffer.duplicate();
+        entry.position(offset + ENTRY_HEADER_LENGTH);
+        entry.get(encoded);
+        return (checksum(encoded) == storedChecksum) ? encoded : null;
+    }
+
+    private void indexForm(long position, Form form) {
+        TeamIndex team = teams.get(form.getTeamNum());
+        if (team == null) {
+            team = new TeamIndex();
+            teams.put(form.getTeamNum(), team);
+        } // End if
+        team.add(position, form.getFormType());
+        formCount++;
+    }
+
+    /**
+     * Appends a form to the log. It is only sure to survive a crash once sync() returns.
+     * @param form - the form to append
+     * @throws IOException if the form could not be written
+     */
+    public synchronized void append(Form form) throws IOException {
+        byte[] encoded = FormCodec.encode(form);
+        if (channel.size() + ENTRY_HEADER_LENGTH + encoded.length > segmentLength) {
+            // The full segment is mapped whole, once, as it will not grow any more
+            sync();
+            segments.set(segments.size() - 1, map());
+            current.close();
+            int segment = segments.size();
+            openSegment(segment);
+            channel.write(ByteBuffer.wrap(FormCodec.header()), 0);
+            segments.set(segment, map());
+        } // End if
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_LENGTH + encoded.length);
+        entry.putInt(encoded.length).putInt(checksum(encoded)).put(encoded).flip();
+        long offset = channel.size();
+        while (entry.hasRemaining()) channel.write(entry, offset + entry.position());
+        unsynced = true;
+        indexForm(((long) (segments.size() - 1) << 32) | offset, form);
+    }
+
+    /**
+     * Forces every form appended so far to disk.
+     * @throws IOException if the segment could not be synced
+     */
+    public synchronized void sync() throws IOException {
+        if (!unsynced) return;
+        channel.force(false);
+        unsynced = false;
+    }
+
+    // Reads the form at a position, remapping the last segment if the form was appended after
+    // it was last mapped
+    private Form read(long position) throws IOException {
+        int segment = (int) (position >>> 32);
+        int offset = (int) position;
+        MappedByteBuffer buffer = segments.get(segment);
+        byte[] encoded = readEntry(buffer, offset);
+        if ((encoded == null) && (segment == segments.size() - 1)) {
+            buffer = map();
+            segments.set(segment, buffer);
+            encoded = readEntry(buffer, offset);
+        } // End if
+        if (encoded == null) throw new IOException(segmentFile(segment) + " is corrupted at " + offset);
+        return FormCodec.decodeForm(encoded);
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @return every form of the team, in the order they were read
+     * @throws IOException if the log could not be read
+     */
+    public synchronized ArrayList<Form> getForms(int teamNum) throws IOException {
+        ArrayList<Form> forms = new ArrayList<>();
+        TeamIndex team = teams.get(teamNum);
+        if (team == null) return forms;
+        for (int i = 0; i < team.size; i++) forms.add(read(team.positions[i]));
+        return forms;
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @param formType - the form type
+     * @return the team's form of that type read last, or null if there is none
+     * @throws IOException if the log could not be read
+     */
+    public synchronized Form getLatest(int teamNum, Form.FormType formType) throws IOException {
+        TeamIndex team = teams.get(teamNum);
+        if ((team == null) || (team.latest[formType.ordinal()] == -1)) return null;
+        return read(team.latest[formType.ordinal()]);
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @return every comment made about the team, on its match and prescouting forms, in the order
+     * 			they were read
+     * @throws IOException if the log could not be read
+     */
+    public synchronized ArrayList<String> getComments(int teamNum) throws IOException {
+        ArrayList<String> comments = new ArrayList<>();
+        readComments(teamNum, comments::add);
+        return comments;
+    }
+
+    /**
+     * Reads every comment made about a team one at a time, decoding one form at a time, without
+     * holding them all in memory.
+     * @param teamNum - the team number
+     * @param reader - given each comment, in the order they were read
+     * @throws IOException if the log could not be read
+     */
+    public synchronized void readComments(int teamNum, Consumer<String> reader) throws IOException {
+        TeamIndex team = teams.get(teamNum);
+        if (team == null) return;
+        for (int i = 0; i < team.size; i++)
+            for (Record record : read(team.positions[i]).getAllRecords())
+                if ((record.getItemID() == MatchForm.Items.COMMENTS.getId()) && (record.getValue() != null))
+                    reader.accept(record.getValue());
+    }
+
+    public synchronized boolean hasTeam(int teamNum) {
+        return teams.containsKey(teamNum);
+    }
+
+    public synchronized int getFormCount() {
+        return formCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        current.close();
+    }
+
+}
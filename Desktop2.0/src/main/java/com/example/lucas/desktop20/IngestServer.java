@@ -0,0 +1,297 @@
+package com.example.lucas.desktop20;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.example.lucas.formcodec20.TransferBundle;
+
+/**
+ * Accepts transfer bundles over TCP, as an alternative to dropping files on the Desktop. A tablet
+ * (or anything else that can open a socket) writes one or more bundles back to back on a
+ * connection, and gets an ack for each one as soon as its forms are stored.
+ *
+ * A single thread runs a non-blocking selector over every connection. A bundle's header tells
+ * how long it is, so bytes are buffered until the whole bundle has arrived; it is then handed to
+ * a single worker thread, which stores it and queues the ack back to the selector. Connections
+ * never wait on each other while their bundles are still arriving.
+ *
+ * An ack is ACK_LENGTH bytes: ACK_OK or ACK_REJECTED, then the highest sequence number stored
+ * from the bundle's tablet (-1 if the bundle was rejected or its forms are not numbered). A
+ * rejected bundle is not stored at all, so the tablet can simply send it again.
+ *
+ * Anyone who can connect can store forms, and nothing checks who they are, so the server only
+ * listens on the loopback address unless told otherwise with the scouting.ingest.bind system
+ * property: -Dscouting.ingest.bind=0.0.0.0 listens on every interface, or an address on one.
+ */
+public class IngestServer implements Runnable {
+
+    public static final int DEFAULT_PORT = 4048;
+    public static final byte ACK_OK = 0;
+    public static final byte ACK_REJECTED = 1;
+    public static final int ACK_LENGTH = 1 + 8;
+    // The address to listen on, the loopback address if not set
+    public static final String BIND_PROPERTY = "scouting.ingest.bind";
+
+    /**
+     * Where the server sends the bundles it receives.
+     */
+    public interface Sink {
+        /**
+         * Stores the forms of a bundle. Called from the worker thread only, one bundle at a time.
+         * @param bundle - a bundle that passed its checks
+         * @return the highest sequence number stored from the bundle's tablet
+         * @throws Exception if the forms could not be stored, which rejects the bundle
+         */
+        long ingest(TransferBundle bundle) throws Exception;
+    }
+
+    // Bytes received on a connection, and the ack waiting to be sent on it
+    private static final class Connection {
+        ByteBuffer in = ByteBuffer.allocate(8192);
+        ByteBuffer out;
+        // True from the moment a bundle is handed to the worker until its ack is sent
+        boolean busy;
+    }
+
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Sink sink;
+    private ExecutorService worker;
+    // Acks coming back from the worker, run on the selector thread
+    private ConcurrentLinkedQueue<Runnable> replies;
+    private volatile boolean running;
+
+    /**
+     * Binds the server to the loopback address. Nothing is accepted until it is run.
+     * @param port - the port to listen on, or 0 for any free port
+     * @param sink - where to send the bundles received
+     * @throws IOException if the port could not be bound
+     */
+    public IngestServer(int port, Sink sink) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, sink);
+    }
+
+    /**
+     * Binds the server. Nothing is accepted until it is run.
+     * @param address - the address to listen on
+     * @param port - the port to listen on, or 0 for any free port
+     * @param sink - where to send the bundles received
+     * @throws IOException if the port could not be bound
+     */
+    public IngestServer(InetAddress address, int port, Sink sink) throws IOException {
+        this.sink = sink;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(address, port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        // Like the selector thread, the worker does not keep the program alive
+        worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "Ingest worker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        replies = new ConcurrentLinkedQueue<>();
+        running = true;
+    }
+
+    /**
+     * @return the address the scouting.ingest.bind system property names, or the loopback address
+     * 			if it is not set
+     * @throws IOException if the address is not one of this computer's
+     */
+    public static InetAddress bindAddress() throws IOException {
+        String address = System.getProperty(BIND_PROPERTY);
+        if ((address == null) || address.trim().isEmpty()) return InetAddress.getLoopbackAddress();
+        return InetAddress.getByName(address.trim());
+    }
+
+    /**
+     * Binds a server to the loopback address and runs it on a background thread that does not keep
+     * the program alive.
+     * @param port - the port to listen on, or 0 for any free port
+     * @param sink - where to send the bundles received
+     * @return the running server
+     * @throws IOException if the port could not be bound
+     */
+    public static IngestServer start(int port, Sink sink) throws IOException {
+        return start(InetAddress.getLoopbackAddress(), port, sink);
+    }
+
+    /**
+     * Binds a server and runs it on a background thread that does not keep the program alive.
+     * @param address - the address to listen on
+     * @param port - the port to listen on, or 0 for any free port
+     * @param sink - where to send the bundles received
+     * @return the running server
+     * @throws IOException if the port could not be bound
+     */
+    public static IngestServer start(InetAddress address, int port, Sink sink) throws IOException {
+        IngestServer ingestServer = new IngestServer(address, port, sink);
+        Thread thread = new Thread(ingestServer, "Ingest server");
+        thread.setDaemon(true);
+        thread.start();
+        return ingestServer;
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public InetAddress getAddress() {
+        return server.socket().getInetAddress();
+    }
+
+    /**
+     * Stops accepting bundles and closes every connection. Bundles already handed to the worker
+     * are still stored.
+     */
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable reply;
+                while ((reply = replies.poll()) != null) reply.run();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) accept();
+                        else if (key.isReadable()) read(key);
+                        else if (key.isWritable()) write(key);
+                    } catch (IOException e) {
+                        // One broken connection does not stop the others
+                        closeConnection(key);
+                    } // End try
+                } // End while
+            } // End while
+        } catch (IOException e) {
+            FileSystemWatcher.output("Ingest server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) closeConnection(key);
+            try {
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } // End try
+            worker.shutdown();
+        } // End try
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (!connection.in.hasRemaining()) connection.in = grow(connection.in, connection.in.capacity() * 2);
+        if (((SocketChannel) key.channel()).read(connection.in) == -1) {
+            closeConnection(key);
+            return;
+        } // End if
+        dispatch(key);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ((SocketChannel) key.channel()).write(connection.out);
+        if (connection.out.hasRemaining()) return;
+        connection.out = null;
+        connection.busy = false;
+        key.interestOps(SelectionKey.OP_READ);
+        // The next bundle may have arrived with the last one
+        dispatch(key);
+    }
+
+    // Hands the connection's next bundle to the worker, if all of it has arrived
+    private void dispatch(final SelectionKey key) throws IOException {
+        final Connection connection = (Connection) key.attachment();
+        ByteBuffer in = connection.in;
+        if (connection.busy || (in.position() < TransferBundle.HEADER_LENGTH)) return;
+        if (in.get(0) != TransferBundle.MAGIC) throw new IOException("Not a transfer bundle");
+        int bodyLength = in.getInt(TransferBundle.HEADER_LENGTH - 4);
+        if ((bodyLength < 0) || (bodyLength > TransferBundle.MAX_BODY_LENGTH))
+            throw new IOException("Bundle header is corrupted");
+        // The header, the body and the checksum
+        int length = TransferBundle.HEADER_LENGTH + bodyLength + 4;
+        if (in.position() < length) {
+            if (in.capacity() < length) connection.in = grow(in, length);
+            return;
+        } // End if
+        final byte[] bundle = new byte[length];
+        in.flip();
+        in.get(bundle);
+        in.compact();
+        connection.busy = true;
+        key.interestOps(0);
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                final ByteBuffer ack = ByteBuffer.allocate(ACK_LENGTH);
+                try {
+                    long highWater = sink.ingest(TransferBundle.read(new ByteArrayInputStream(bundle)));
+                    ack.put(ACK_OK).putLong(highWater);
+                } catch (Exception e) {
+                    FileSystemWatcher.output("Rejected a bundle from "
+                    		+ ((SocketChannel) key.channel()).socket().getRemoteSocketAddress() + ": " + e.getMessage());
+                    ack.clear();
+                    ack.put(ACK_REJECTED).putLong(TransferBundle.NO_SEQUENCE);
+                } // End try
+                ack.flip();
+                replies.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!key.isValid()) return;
+                        connection.out = ack;
+                        key.interestOps(SelectionKey.OP_WRITE);
+                    }
+                });
+                selector.wakeup();
+            }
+        });
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private static void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } // End try
+    }
+
+}
@@ -1,8 +1,12 @@
+package com.example.lucas.desktop20;
+
 import java.util.ArrayList;
 import java.util.Scanner;
 import java.io.File;
 import java.io.IOException;
 
+import com.example.lucas.formcodec20.Item;
+
 public class ItemLoader {
 
 	public static void main(String[] args) throws IOException {
@@ -0,0 +1,605 @@
+package com.example.lucas.desktop20;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * The queries MySQL and the embedded database run the same way. Every operation opens its own
+ * connection and closes it when done, so forms can be stored from the ingest server's thread
+ * while the GUI reads from another.
+ */
+abstract class JdbcStore implements ScoutingStore {
+
+    // The composite indexes every team lookup goes through, added to Scouting.sql for the 2017
+    // season. Reports are found by team and form type, their records by report and item, and the
+    // records of an item across all reports by item.
+    static final String REPORT_TEAM_INDEX = "report_team_idx";
+    static final String RECORD_REPORT_ITEM_INDEX = "record_report_item_idx";
+    static final String RECORD_ITEM_REPORT_INDEX = "record_item_report_idx";
+
+    // The header of a team's forms of one type (Ctrl-P)
+    static final String TEAM_REPORTS_SQL = "SELECT ID, TabletNum, ScoutName, TeamNum FROM scouting.report "
+    		+ "WHERE (TeamNum = ?) AND (FormType = ?)";
+    // The records of a report (Ctrl-P)
+    static final String REPORT_RECORDS_SQL = "SELECT `Value`, ITEM_ID FROM scouting.record WHERE (REPORT_ID = ?)";
+
+    // Every comment about a team, from its match and prescouting forms, in the order they were
+    // stored. Replaces procComments.
+    static final String TEAM_COMMENTS_SQL = "SELECT r.`Value` FROM scouting.record r "
+    		+ "JOIN scouting.report rpt ON rpt.ID = r.REPORT_ID WHERE (rpt.TeamNum = ?) AND (r.ITEM_ID = ?) "
+    		+ "ORDER BY rpt.ID, r.ID";
+    // Comments read from the database at a time when they are streamed
+    static final int COMMENT_FETCH_SIZE = 64;
+
+    // The running totals of every numeric item of every team's match forms: the number of values,
+    // their sum, the sum of their squares and the number that are not 0. Kept up to date by
+    // storeForm in the transaction that stores the form, so Ctrl-M and Ctrl-A never aggregate RECORD.
+    static final String SUMMARY_SCHEMA = "CREATE TABLE scouting.team_item_summary (TeamNum INT NOT NULL, "
+    		+ "ITEM_ID INT NOT NULL, N INT NOT NULL, `Sum` DOUBLE NOT NULL, SumSq DOUBLE NOT NULL, "
+    		+ "Successes INT NOT NULL, PRIMARY KEY (TeamNum, ITEM_ID))";
+    // The mean and population standard deviation of a summary row. Rounding can leave the variance
+    // of equal values a hair below 0.
+    private static final String SUMMARY_STATS = "s.`Sum` / s.N, "
+    		+ "SQRT(GREATEST(s.SumSq / s.N - (s.`Sum` / s.N) * (s.`Sum` / s.N), 0))";
+    // The averages (Ctrl-M) of a team's items of two datatypes
+    static final String AVERAGES_SQL = "SELECT s.ITEM_ID, " + SUMMARY_STATS + ", s.N "
+    		+ "FROM scouting.team_item_summary s JOIN scouting.item i ON i.ID = s.ITEM_ID "
+    		+ "WHERE (s.TeamNum = ?) AND (i.DATATYPE_ID IN (?, ?)) ORDER BY s.ITEM_ID";
+    // The proportions (Ctrl-M) of a team's items of one datatype
+    static final String PROPORTIONS_SQL = "SELECT s.ITEM_ID, s.Successes, s.N, "
+    		+ "CAST(ROUND(100 * s.`Sum` / s.N) AS SIGNED) "
+    		+ "FROM scouting.team_item_summary s JOIN scouting.item i ON i.ID = s.ITEM_ID "
+    		+ "WHERE (s.TeamNum = ?) AND (i.DATATYPE_ID = ?) ORDER BY s.ITEM_ID";
+
+    /**
+     * @return a new connection to the database
+     * @throws SQLException if the database could not be reached
+     */
+    abstract Connection connect() throws SQLException;
+
+    // The datatype of every per-team item of both forms, by item id. Alliance items are left out,
+    // so they get no number and stay out of the team summaries.
+    private static final HashMap<Integer, Item.Datatype> DATATYPES = new HashMap<>();
+    static {
+        for (Item[] items : new Item[][] {MatchForm.matchItems, PrescoutingForm.items})
+            for (Item item : items) DATATYPES.put(item.getId(), item.getDatatype());
+    }
+
+    /**
+     * Reads a text value as a number the way MySQL does: the number it starts with, or 0 if it
+     * does not start with one.
+     * @param value - a record's value
+     * @return the value as a number, or null if there is no value
+     */
+    public static Double toNumber(String value) {
+        if (value == null) return null;
+        int start = 0;
+        while ((start < value.length()) && Character.isWhitespace(value.charAt(start))) start++;
+        int end = start;
+        if ((end < value.length()) && ((value.charAt(end) == '-') || (value.charAt(end) == '+'))) end++;
+        int digits = 0;
+        while ((end < value.length()) && Character.isDigit(value.charAt(end))) {
+            end++;
+            digits++;
+        } // End while
+        if ((end < value.length()) && (value.charAt(end) == '.')) {
+            end++;
+            while ((end < value.length()) && Character.isDigit(value.charAt(end))) {
+                end++;
+                digits++;
+            } // End while
+        } // End if
+        if (digits == 0) return 0.0;
+        return Double.parseDouble(value.substring(start, end));
+    }
+
+    // The value of the N/A choice of every options item
+    static final double NOT_APPLICABLE = MatchForm.SHOOTING_SPEED.NA.getValue();
+
+    /**
+     * @param itemID - an item id
+     * @param value - a record's value
+     * @return what is stored in the record's NumValue column: the value as a number for integer,
+     * 			boolean and options items, or null for text items, unknown items, missing values
+     * 			and the N/A choice of options items, so that N/A is left out of every average
+     */
+    static Double numberValue(int itemID, String value) {
+        Item.Datatype datatype = DATATYPES.get(itemID);
+        if ((datatype == null) || (datatype == Item.Datatype.STRING)) return null;
+        Double number = toNumber(value);
+        if ((datatype == Item.Datatype.OPTIONS) && (number != null) && (number == NOT_APPLICABLE))
+            return null;
+        return number;
+    }
+
+    // The ids of the items of the given datatypes, separated by commas
+    private static String itemIDs(Item.Datatype... datatypes) {
+        StringBuilder ids = new StringBuilder();
+        for (Map.Entry<Integer, Item.Datatype> item : DATATYPES.entrySet()) {
+            for (Item.Datatype datatype : datatypes) {
+                if (item.getValue() != datatype) continue;
+                if (ids.length() > 0) ids.append(", ");
+                ids.append(item.getKey());
+            } // End for
+        } // End for
+        return ids.toString();
+    }
+
+    // The datatype ids are the ones ItemLoader reads: the Item.Datatype ordinal plus one
+    static int datatypeID(Item.Datatype datatype) {
+        return datatype.ordinal() + 1;
+    }
+
+    static void setNumber(PreparedStatement stmt, int index, Double number) throws SQLException {
+        if (number == null) stmt.setNull(index, Types.DOUBLE);
+        else stmt.setDouble(index, number);
+    }
+
+    /**
+     * Adds the numeric records of match forms to the running totals of their teams. Runs in the
+     * transaction that stores the forms. The totals that exist are updated in one batch, then the
+     * ones that did not are inserted in another. H2 runs INSERT ... ON DUPLICATE KEY UPDATE by
+     * catching the duplicate key error of the insert, which cost more than storing the form.
+     * @param conn - the connection the forms are being stored through
+     * @param forms - the forms being stored
+     * @throws SQLException if the totals could not be updated
+     */
+    static void addToSummary(Connection conn, ArrayList<Form> forms) throws SQLException {
+        // A team's item can appear in several forms of a batch, so the totals of the batch are
+        // added up first
+        LinkedHashMap<Long, double[]> totals = new LinkedHashMap<>();
+        for (Form form : forms) {
+            if (form.getFormType() != Form.FormType.MATCH_FORM) continue;
+            for (Record record : form.getAllRecords()) {
+                Double number = numberValue(record.getItemID(), record.getValue());
+                // Text, missing values and N/A choices, which the rebuild leaves out as well
+                if (number == null) continue;
+                long key = ((long) form.getTeamNum() << 32) | (record.getItemID() & 0xffffffffL);
+                double[] total = totals.get(key);
+                if (total == null) {
+                    total = new double[4];
+                    totals.put(key, total);
+                } // End if
+                total[0]++;
+                total[1] += number;
+                total[2] += number * number;
+                if (number != 0) total[3]++;
+            } // End for
+        } // End for
+        if (totals.isEmpty()) return;
+        int[] updated;
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE scouting.team_item_summary "
+        		+ "SET N = N + ?, `Sum` = `Sum` + ?, SumSq = SumSq + ?, Successes = Successes + ? "
+        		+ "WHERE (TeamNum = ?) AND (ITEM_ID = ?)")) {
+            for (Map.Entry<Long, double[]> entry : totals.entrySet()) {
+                setTotals(stmt, 1, entry.getValue());
+                stmt.setInt(5, (int) (entry.getKey() >> 32));
+                stmt.setInt(6, (int) (long) entry.getKey());
+                stmt.addBatch();
+            } // End for
+            updated = stmt.executeBatch();
+        } // End try
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO scouting.team_item_summary "
+        		+ "(TeamNum, ITEM_ID, N, `Sum`, SumSq, Successes) VALUES (?, ?, ?, ?, ?, ?)")) {
+            boolean inserting = false;
+            int i = 0;
+            for (Map.Entry<Long, double[]> entry : totals.entrySet()) {
+                if (updated[i++] != 0) continue;
+                stmt.setInt(1, (int) (entry.getKey() >> 32));
+                stmt.setInt(2, (int) (long) entry.getKey());
+                setTotals(stmt, 3, entry.getValue());
+                stmt.addBatch();
+                inserting = true;
+            } // End for
+            if (inserting) stmt.executeBatch();
+        } // End try
+    }
+
+    // Sets N, Sum, SumSq and Successes from the totals of a batch
+    private static void setTotals(PreparedStatement stmt, int index, double[] total) throws SQLException {
+        stmt.setInt(index, (int) total[0]);
+        stmt.setDouble(index + 1, total[1]);
+        stmt.setDouble(index + 2, total[2]);
+        stmt.setInt(index + 3, (int) total[3]);
+    }
+
+    /**
+     * Rebuilds the running totals of every team from RECORD, in one grouped pass over the match
+     * forms, in a single transaction. Like addToSummary, it only counts the records that have a
+     * number, which leaves out text, missing values and N/A choices.
+     * @param conn - a connection to the database
+     * @throws SQLException if the totals could not be rebuilt
+     */
+    static void rebuildSummary(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO scouting.team_item_summary "
+        		+ "(TeamNum, ITEM_ID, N, `Sum`, SumSq, Successes) "
+        		+ "SELECT rpt.TeamNum, r.ITEM_ID, COUNT(*), SUM(r.NumValue), SUM(r.NumValue * r.NumValue), "
+        		+ "SUM(CASE WHEN r.NumValue <> 0 THEN 1 ELSE 0 END) FROM scouting.record r "
+        		+ "JOIN scouting.report rpt ON rpt.ID = r.REPORT_ID "
+        		+ "WHERE (rpt.FormType = ?) AND (r.NumValue IS NOT NULL) GROUP BY rpt.TeamNum, r.ITEM_ID");
+        		Statement delete = conn.createStatement()) {
+            delete.executeUpdate("DELETE FROM scouting.team_item_summary");
+            stmt.setInt(1, Form.FormType.MATCH_FORM.ordinal());
+            stmt.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        } // End try
+    }
+
+    /**
+     * Creates the team_item_summary table in a database created before it existed, and builds it
+     * from the records already stored.
+     * @param conn - a connection to the database
+     * @return true if the table was created, false if it was already there
+     * @throws SQLException if the table could not be created or built
+     */
+    static boolean addSummaryTable(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM information_schema.TABLES "
+        		+ "WHERE (LOWER(TABLE_SCHEMA) = 'scouting') AND (LOWER(TABLE_NAME) = 'team_item_summary')")) {
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            boolean exists = rs.getInt(1) > 0;
+            rs.close();
+            if (exists) return false;
+        } // End try
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(SUMMARY_SCHEMA);
+        } // End try
+        rebuildSummary(conn);
+        return true;
+    }
+
+    @Override
+    public void rebuildSummary() throws SQLException {
+        try (Connection conn = connect()) {
+            rebuildSummary(conn);
+        } // End try
+    }
+
+    /**
+     * Adds the NumValue column to a RECORD table created before it existed, and fills it in for
+     * the records that are missing their number: the ones stored before the column existed, or
+     * while a migration was cut short. The N/A choices that an earlier version stored as numbers
+     * are set back to null, and so are the numbers of items that are no longer per-team items,
+     * such as the alliance score. Safe to run every time the database is opened; once every record has
+     * its number, it only reads the records left null on purpose.
+     * @param conn - a connection to the database
+     * @return true if a record's number was filled in or changed, in which case the running totals
+     * 			of the summary table need to be rebuilt
+     * @throws SQLException if the column could not be added or filled in
+     */
+    static boolean addNumberColumn(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM information_schema.COLUMNS "
+        		+ "WHERE (LOWER(TABLE_SCHEMA) = 'scouting') AND (LOWER(TABLE_NAME) = 'record') "
+        		+ "AND (LOWER(COLUMN_NAME) = 'numvalue')")) {
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            boolean exists = rs.getInt(1) > 0;
+            rs.close();
+            if (!exists) {
+                try (Statement alter = conn.createStatement()) {
+                    alter.execute("ALTER TABLE scouting.record ADD COLUMN NumValue DOUBLE NULL AFTER `Value`");
+                } // End try
+            } // End if
+        } // End try
+        // Converted here rather than in SQL, where MySQL refuses to update with text that is not a
+        // number
+        String numeric = itemIDs(Item.Datatype.INTEGER, Item.Datatype.BOOLEAN, Item.Datatype.OPTIONS);
+        boolean changed = false;
+        conn.setAutoCommit(false);
+        try (Statement select = conn.createStatement(); PreparedStatement update = conn.prepareStatement(
+        		"UPDATE scouting.record SET NumValue = ? WHERE ID = ?")) {
+            ResultSet rs = select.executeQuery("SELECT ID, ITEM_ID, `Value`, NumValue FROM scouting.record "
+            		+ "WHERE (`Value` IS NOT NULL) AND (((NumValue IS NULL) AND (ITEM_ID IN (" + numeric + "))) "
+            		+ "OR ((NumValue IS NOT NULL) AND (ITEM_ID NOT IN (" + numeric + "))) "
+            		+ "OR ((NumValue = " + NOT_APPLICABLE + ") AND (ITEM_ID IN ("
+            		+ itemIDs(Item.Datatype.OPTIONS) + "))))");
+            int batched = 0;
+            while (rs.next()) {
+                Double number = numberValue(rs.getInt(2), rs.getString(3));
+                rs.getDouble(4);
+                // An N/A choice that is already null
+                if ((number == null) && rs.wasNull()) continue;
+                setNumber(update, 1, number);
+                update.setInt(2, rs.getInt(1));
+                update.addBatch();
+                changed = true;
+                if (++batched % 1000 == 0) update.executeBatch();
+            } // End while
+            rs.close();
+            update.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        } // End try
+        return changed;
+    }
+
+    /**
+     * @param rs - a result set
+     * @return a copy of the result set that can be scrolled after its connection is closed
+     * @throws SQLException if the result set could not be read
+     */
+    static CachedRowSet disconnect(ResultSet rs) throws SQLException {
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.populate(rs);
+        rs.close();
+        return rowSet;
+    }
+
+    /**
+     * @param sql - a query
+     * @param parameters - the values of its parameters
+     * @return the plan the database chose for the query, one row per line, columns separated by
+     * 			tabs
+     * @throws SQLException if the query could not be explained
+     */
+    String explain(String sql, Object... parameters) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) stmt.setObject(i + 1, parameters[i]);
+            ResultSet rs = stmt.executeQuery();
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) plan.append(rs.getString(i)).append((i < columns) ? "\t" : "\n");
+            } // End while
+            rs.close();
+        } // End try
+        return plan.toString();
+    }
+
+    /**
+     * Inserts the reports of all the forms in one batch, which gives back their generated ids,
+     * then all of their records in a second batch and their summary totals in a third, in one
+     * transaction. Storing a tablet's bundle takes three round trips to the database, however
+     * many forms it holds.
+     */
+    @Override
+    public void storeForms(ArrayList<Form> forms) throws SQLException {
+        if (forms.isEmpty()) return;
+        int[] reportIDs = new int[forms.size()];
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement stmt = conn.prepareStatement("INSERT INTO scouting.report "
+                		+ "(FormType, TabletNum, ScoutName, TeamNum, MatchNum) VALUES (?, ?, ?, ?, ?)",
+                		Statement.RETURN_GENERATED_KEYS);
+                for (Form form : forms) {
+                    stmt.setInt(1, form.getFormType().ordinal());
+                    stmt.setInt(2, form.getTabletNum());
+                    stmt.setString(3, form.getScoutName());
+                    stmt.setInt(4, form.getTeamNum());
+                    stmt.setInt(5, form.getMatchNum());
+                    stmt.addBatch();
+                } // End for
+                stmt.executeBatch();
+                ResultSet keys = stmt.getGeneratedKeys();
+                for (int i = 0; i < reportIDs.length; i++) {
+                    if (!keys.next()) throw new SQLException("Only " + i + " of " + reportIDs.length
+                    		+ " report ids were generated");
+                    reportIDs[i] = keys.getInt(1);
+                } // End for
+                keys.close();
+                stmt.close();
+
+                stmt = conn.prepareStatement("INSERT INTO scouting.record (`Value`, NumValue, REPORT_ID, ITEM_ID) "
+                		+ "VALUES (?, ?, ?, ?)");
+                for (int i = 0; i < reportIDs.length; i++) {
+                    for (Record record : forms.get(i).getAllRecords()) {
+                        stmt.setString(1, record.getValue());
+                        setNumber(stmt, 2, numberValue(record.getItemID(), record.getValue()));
+                        stmt.setInt(3, reportIDs[i]);
+                        stmt.setInt(4, record.getItemID());
+                        stmt.addBatch();
+                    } // End for
+                } // End for
+                stmt.executeBatch();
+                stmt.close();
+                addToSummary(conn, forms);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            } // End try
+        } // End try
+        for (int i = 0; i < reportIDs.length; i++) forms.get(i).setFormID(reportIDs[i]);
+    }
+
+    @Override
+    public HashMap<Integer, Long> loadHighWaterMarks() throws SQLException {
+        HashMap<Integer, Long> highWaterMarks = new HashMap<>();
+        try (Connection conn = connect(); Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT TabletNum, HighWater FROM scouting.tablet_sync");
+            while (rs.next()) highWaterMarks.put(rs.getInt(1), rs.getLong(2));
+            rs.close();
+        } // End try
+        return highWaterMarks;
+    }
+
+    @Override
+    public void storeHighWater(int tabletNum, long highWater) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(
+        		"INSERT INTO scouting.tablet_sync (TabletNum, HighWater) VALUES (?, ?) ON DUPLICATE KEY "
+        		+ "UPDATE HighWater = GREATEST(HighWater, VALUES(HighWater))")) {
+            stmt.setInt(1, tabletNum);
+            stmt.setLong(2, highWater);
+            stmt.executeUpdate();
+        } // End try
+    }
+
+    @Override
+    public ResultSet[] getPrescoutingForm(int teamNum) throws SQLException {
+        ResultSet[] resultSets = new ResultSet[3];
+        try (Connection conn = connect()) {
+            PreparedStatement stmt = conn.prepareStatement(TEAM_REPORTS_SQL);
+            stmt.setInt(1, teamNum);
+            stmt.setInt(2, Form.FormType.PRESCOUTING_FORM.ordinal());
+            resultSets[0] = disconnect(stmt.executeQuery());
+            stmt.close();
+            if (!resultSets[0].first()) return null;
+            int reportID = resultSets[0].getInt(1);
+
+            stmt = conn.prepareStatement(REPORT_RECORDS_SQL);
+            stmt.setInt(1, reportID);
+            resultSets[1] = disconnect(stmt.executeQuery());
+            stmt.close();
+
+            stmt = conn.prepareStatement("SELECT ID, `Name`, DATATYPE_ID FROM scouting.item "
+            		+ "WHERE (scouting.item.`Active` = 1)");
+            resultSets[2] = disconnect(stmt.executeQuery());
+            stmt.close();
+        } // End try
+        return resultSets;
+    }
+
+    @Override
+    public ResultSet getTeamComments(int teamNum) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(TEAM_COMMENTS_SQL)) {
+            stmt.setInt(1, teamNum);
+            stmt.setInt(2, MatchForm.Items.COMMENTS.getId());
+            return disconnect(stmt.executeQuery());
+        } // End try
+    }
+
+    // A forward-only cursor, read COMMENT_FETCH_SIZE rows at a time
+    @Override
+    public void readTeamComments(int teamNum, Consumer<String> reader) throws SQLException {
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(TEAM_COMMENTS_SQL,
+        		ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(COMMENT_FETCH_SIZE);
+            stmt.setInt(1, teamNum);
+            stmt.setInt(2, MatchForm.Items.COMMENTS.getId());
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) reader.accept(rs.getString(1));
+            rs.close();
+        } // End try
+    }
+
+    // The team's rows of the summary table, in place of procAverages and procProportions
+    @Override
+    public ResultSet[] getAverageForm(int teamNum) throws SQLException {
+        ResultSet[] resultSets = new ResultSet[2];
+        try (Connection conn = connect()) {
+            PreparedStatement stmt = conn.prepareStatement(AVERAGES_SQL);
+            stmt.setInt(1, teamNum);
+            stmt.setInt(2, datatypeID(Item.Datatype.INTEGER));
+            stmt.setInt(3, datatypeID(Item.Datatype.OPTIONS));
+            resultSets[0] = disconnect(stmt.executeQuery());
+            stmt.close();
+
+            stmt = conn.prepareStatement(PROPORTIONS_SQL);
+            stmt.setInt(1, teamNum);
+            stmt.setInt(2, datatypeID(Item.Datatype.BOOLEAN));
+            resultSets[1] = disconnect(stmt.executeQuery());
+            stmt.close();
+        } // End try
+        return resultSets;
+    }
+
+    // The whole summary table, which holds every team's numeric items. Text items have no number,
+    // and are left out as TeamStats leaves them out.
+    @Override
+    public ArrayList<TeamSummary> getAllTeamsSummary() throws SQLException {
+        ArrayList<TeamSummary> summaries = new ArrayList<>();
+        String sql = "SELECT s.TeamNum, s.ITEM_ID, " + SUMMARY_STATS + ", s.N, s.`Sum` "
+        		+ "FROM scouting.team_item_summary s WHERE (s.TeamNum > 0) ORDER BY s.TeamNum, s.ITEM_ID";
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(sql,
+        		ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ResultSet rs = stmt.executeQuery();
+            TeamSummary current = null;
+            while (rs.next()) {
+                int teamNum = rs.getInt(1);
+                if ((current == null) || (current.getTeamNum() != teamNum)) {
+                    current = new TeamSummary(teamNum);
+                    summaries.add(current);
+                } // End if
+                current.addItem(new TeamSummary.ItemSummary(rs.getInt(2), rs.getDouble(3), rs.getDouble(4),
+                		rs.getInt(5), rs.getDouble(6)));
+            } // End while
+            rs.close();
+        } // End try
+        return summaries;
+    }
+
+    // Records of a form are read in a single forward pass over the joined report and record tables
+    @Override
+    public ArrayList<Form> getAllMatchForms() throws SQLException {
+        ArrayList<Form> forms = new ArrayList<>();
+        String sql = "SELECT rpt.ID, rpt.TabletNum, rpt.TeamNum, rpt.MatchNum, rpt.ScoutName, r.ITEM_ID, "
+        		+ "r.`Value` FROM scouting.report rpt JOIN scouting.record r ON r.REPORT_ID = rpt.ID "
+        		+ "WHERE (rpt.FormType = ?) ORDER BY rpt.MatchNum, rpt.ID";
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(sql,
+        		ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setInt(1, Form.FormType.MATCH_FORM.ordinal());
+            ResultSet rs = stmt.executeQuery();
+            Form current = null;
+            while (rs.next()) {
+                int reportID = rs.getInt(1);
+                if ((current == null) || (current.getFormID() != reportID)) {
+                    current = new MatchForm(reportID, rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getString(5));
+                    forms.add(current);
+                } // End if
+                current.addRecord(new Record(rs.getString(7), rs.getInt(6)));
+            } // End while
+            rs.close();
+        } // End try
+        return forms;
+    }
+
+    // Forms without records are kept, and each form is built as the type it was stored as
+    @Override
+    public ArrayList<Form> getAllForms() throws SQLException {
+        ArrayList<Form> forms = new ArrayList<>();
+        String sql = "SELECT rpt.ID, rpt.FormType, rpt.TabletNum, rpt.TeamNum, rpt.MatchNum, rpt.ScoutName, "
+        		+ "r.ITEM_ID, r.`Value` FROM scouting.report rpt LEFT JOIN scouting.record r ON r.REPORT_ID = rpt.ID "
+        		+ "ORDER BY rpt.ID, r.ID";
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(sql,
+        		ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ResultSet rs = stmt.executeQuery();
+            Form current = null;
+            while (rs.next()) {
+                int reportID = rs.getInt(1);
+                if ((current == null) || (current.getFormID() != reportID)) {
+                    if (rs.getInt(2) == Form.FormType.PRESCOUTING_FORM.ordinal())
+                        current = new PrescoutingForm(reportID, rs.getInt(3), rs.getInt(4), rs.getString(6));
+                    else
+                        current = new MatchForm(reportID, rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getString(6));
+                    forms.add(current);
+                } // End if
+                int itemID = rs.getInt(7);
+                if (!rs.wasNull()) current.addRecord(new Record(rs.getString(8), itemID));
+            } // End while
+            rs.close();
+        } // End try
+        return forms;
+    }
+
+}
@@ -0,0 +1,410 @@
+package com.example.lucas.desktop20;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Option;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+import com.example.lucas.formcodec20.TransferBundle;
+
+/**
+ * Simulates a room full of tablets, to see how the master computer copes at event scale. Each
+ * tablet runs on its own thread and fills in forms from MatchForm.Items or PrescoutingForm.Items,
+ * then sends them the way a real tablet does: as transfer bundles, either dropped on the Desktop
+ * for the folder watcher or sent straight to the ingest server.
+ *
+ * Values look like real scouting data. Every team gets a skill for every item, drawn once from its
+ * team number, so its forms resemble each other: booleans come true as often as the team's skill,
+ * integers and options are spread around it, and gear makes never exceed gear attempts. Match
+ * tablets follow a shared schedule of six robots per match; with more than six tablets, some
+ * robots are scouted twice, as happens at events.
+ *
+ * Forms are sent in bursts: each tablet sends "burst" forms at once, at random intervals averaging
+ * "rate" forms per second. The latency of a form runs from the moment it was due to be created to
+ * the moment it is committed to the database. Over the socket that is when its ack comes back;
+ * for dropped files it is when the tablet's high-water mark in TABLET_SYNC reaches it, read from
+ * the database chosen by the scouting.store system property, as in FileSystemWatcher. Because
+ * latency is measured from when a form was due rather than when it was actually sent, a backed
+ * up master computer shows up in the numbers instead of quietly slowing the tablets down.
+ *
+ * Usage: java com.example.lucas.desktop20.LoadGenerator [key=value ...]
+ * - mode: socket (default) or files
+ * - tablets: the number of tablets (default 6), the first "prescouting" of which send
+ * 	 prescouting forms (default 0)
+ * - forms: forms per tablet (default 100)
+ * - rate: forms per second per tablet (default 1; 0 sends as fast as possible)
+ * - burst: forms per bundle (default 1)
+ * - teams: a file of team numbers, one per line (default 40 made up teams)
+ * - firstTablet: the number of the first tablet (default 101, clear of the real tablets)
+ * - host, port: the ingest server (default localhost, IngestServer.DEFAULT_PORT)
+ * - seed: the seed of the team skills and the schedule (default 2017)
+ */
+public class LoadGenerator {
+
+    // How often the database is checked for committed forms when dropping files
+    static final int POLL_MILLIS = 20;
+    // How long to wait for dropped files with no progress before giving up on them
+    static final int COMMIT_TIMEOUT_MILLIS = 60000;
+    // The folder on the Desktop where bundles are written before being dropped; the watcher does
+    // not look inside folders, so it never sees a bundle half written
+    static final String STAGING_FOLDER = "loadGenerator";
+    static final int ROBOTS_PER_MATCH = 6;
+
+    private static final String[] COMMENTS = {"Fast and consistent", "Played defense most of the match",
+    		"Dropped a gear at the peg", "Great driver", "Lost communication for a while",
+    		"Climbed at the last second", "Shooter jammed", "Good partner, easy to work with"};
+    // The lowest and highest values of integer items; other integer items run from 0 to 10
+    private static final HashMap<Integer, int[]> INTEGER_RANGES = new HashMap<>();
+    static {
+        INTEGER_RANGES.put(MatchForm.Items.RATE_DRIVING.getId(), new int[] {1, 5});
+        INTEGER_RANGES.put(MatchForm.Items.AUTO_SHOT_MAKES.getId(), new int[] {0, 10});
+        INTEGER_RANGES.put(MatchForm.Items.GEAR_ATTEMPTS.getId(), new int[] {0, 8});
+        INTEGER_RANGES.put(MatchForm.Items.GEAR_MAKES.getId(), new int[] {0, 8});
+        INTEGER_RANGES.put(MatchForm.Items.ROTORS_SPINNING.getId(), new int[] {0, 4});
+        INTEGER_RANGES.put(MatchForm.Items.ALLIANCE_SCORE.getId(), new int[] {20, 400});
+        INTEGER_RANGES.put(PrescoutingForm.Items.FRIENDLINESS.getId(), new int[] {1, 5});
+        INTEGER_RANGES.put(PrescoutingForm.Items.MAX_FUEL_STORAGE.getId(), new int[] {0, 100});
+        INTEGER_RANGES.put(PrescoutingForm.Items.TIME_TO_EMPTY_STORAGE.getId(), new int[] {0, 30});
+        INTEGER_RANGES.put(PrescoutingForm.Items.TIME_TO_CLIMB.getId(), new int[] {0, 30});
+        INTEGER_RANGES.put(PrescoutingForm.Items.AUTO_TIME_TO_SHOOT.getId(), new int[] {0, 15});
+    }
+
+    private HashMap<String, String> settings;
+    private int[] teams;
+    // Each team's skill at each item, indexed by item id
+    private HashMap<Integer, double[]> skills;
+    // The options of each options item, lowest value first
+    private HashMap<Integer, ArrayList<Option>> options;
+    private Item[] matchItems;
+    private Item[] prescoutingItems;
+
+    private QuantileSketch latencies = new QuantileSketch(1024);
+    private AtomicInteger stored = new AtomicInteger();
+    private AtomicInteger rejected = new AtomicInteger();
+    // Bundles dropped as files and not yet seen in the database, by tablet
+    private ConcurrentHashMap<Integer, ConcurrentLinkedQueue<long[]>> uncommitted = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        HashMap<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals == -1) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+        } // End for
+        new LoadGenerator(settings).run();
+    } // End main
+
+    public LoadGenerator(HashMap<String, String> settings) throws IOException {
+        this.settings = settings;
+        if (settings.containsKey("teams")) {
+            ArrayList<Integer> teamList = new ArrayList<>();
+            for (String line : Files.readAllLines(new File(settings.get("teams")).toPath()))
+                if (!line.trim().isEmpty()) teamList.add(Integer.parseInt(line.trim()));
+            teams = new int[teamList.size()];
+            for (int i = 0; i < teams.length; i++) teams[i] = teamList.get(i);
+        } else {
+            teams = new int[40];
+            for (int i = 0; i < teams.length; i++) teams[i] = 1000 + 97 * i;
+        } // End if
+        if (teams.length == 0) throw new IllegalArgumentException("No teams to scout");
+
+        matchItems = distinct(MatchForm.matchItems);
+        prescoutingItems = distinct(PrescoutingForm.items);
+        options = new HashMap<>();
+        collectOptions(MatchForm.class);
+        collectOptions(PrescoutingForm.class);
+        long seed = getLong("seed", 2017);
+        skills = new HashMap<>();
+        for (int team : teams) {
+            Random random = new Random(seed * 31 + team);
+            double[] teamSkills = new double[128];
+            for (int i = 0; i < teamSkills.length; i++) teamSkills[i] = random.nextDouble();
+            skills.put(team, teamSkills);
+        } // End for
+    } // End constructor
+
+    /**
+     * Runs every tablet to the end, waits for their forms to be committed and prints the report.
+     * @throws Exception if a tablet could not send its forms
+     */
+    public void run() throws Exception {
+        final boolean overSocket = !settings.getOrDefault("mode", "socket").equals("files");
+        int tabletCount = (int) getLong("tablets", 6);
+        int prescouting = (int) getLong("prescouting", 0);
+        int firstTablet = (int) getLong("firstTablet", 101);
+        final CountDownLatch done = new CountDownLatch(tabletCount);
+        final ArrayList<Exception> failures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < tabletCount; i++) {
+            final int index = i;
+            final int tabletNum = firstTablet + i;
+            final boolean match = i >= prescouting;
+            if (!overSocket) uncommitted.put(tabletNum, new ConcurrentLinkedQueue<long[]>());
+            Thread tablet = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runTablet(index, tabletNum, match, overSocket);
+                    } catch (Exception e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        } // End synchronized
+                    } finally {
+                        done.countDown();
+                    } // End try
+                }
+            }, "Tablet " + tabletNum);
+            tablet.start();
+        } // End for
+        if (overSocket) done.await();
+        else awaitCommits(done);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (Exception e : failures) System.out.println("Tablet failed: " + e);
+        System.out.println(String.format("%d tablets, %d forms stored, %d rejected, %d uncommitted in %.1f s "
+        		+ "(%.1f forms/s)", tabletCount, stored.get(), rejected.get(), countUncommitted(), seconds,
+        		stored.get() / seconds));
+        if (latencies.getCount() > 0)
+            System.out.println(String.format("Latency (ms): p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+            		latencies.getQuantile(0.5), latencies.getQuantile(0.9), latencies.getQuantile(0.99),
+            		latencies.getQuantile(0.999), latencies.getMax()));
+    } // End run
+
+    // Fills in and sends one tablet's forms
+    private void runTablet(int index, int tabletNum, boolean match, boolean overSocket) throws Exception {
+        long formCount = getLong("forms", 100);
+        int burst = Math.max(1, (int) getLong("burst", 1));
+        double rate = Double.parseDouble(settings.getOrDefault("rate", "1"));
+        Random random = new Random(getLong("seed", 2017) * 7 + tabletNum);
+        // Starting from the clock keeps every run above the high-water marks of the runs before it
+        long sequence = System.currentTimeMillis() * 1000;
+        Socket socket = null;
+        DataOutputStream out = null;
+        DataInputStream in = null;
+        if (overSocket) {
+            socket = new Socket(settings.getOrDefault("host", "localhost"),
+            		(int) getLong("port", IngestServer.DEFAULT_PORT));
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(socket.getOutputStream());
+            in = new DataInputStream(socket.getInputStream());
+        } // End if
+        try {
+            long due = System.nanoTime();
+            int matchNum = 1;
+            for (long sent = 0; sent < formCount; ) {
+                if (rate > 0) {
+                    // Exponential gaps between bursts, averaging burst / rate seconds
+                    due += (long) (-Math.log(1 - random.nextDouble()) * burst / rate * 1e9);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                } else {
+                    due = System.nanoTime();
+                } // End if
+                int count = (int) Math.min(burst, formCount - sent);
+                ArrayList<Form> forms = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    Form form = match ? makeMatchForm(tabletNum, index, matchNum++, random)
+                    		: makePrescoutingForm(tabletNum, (int) (index + sent + i), random);
+                    form.setSequenceNum(sequence++);
+                    forms.add(form);
+                } // End for
+                long first = forms.get(0).getSequenceNum();
+                long last = forms.get(count - 1).getSequenceNum();
+                byte[] bundle = TransferBundle.write(tabletNum, first, last, FormCodec.encode(forms), count);
+                if (overSocket) {
+                    out.write(bundle);
+                    out.flush();
+                    byte status = in.readByte();
+                    in.readLong();
+                    if (status == IngestServer.ACK_OK) recordLatency(due, count);
+                    else rejected.addAndGet(count);
+                } else {
+                    drop(tabletNum, first, bundle);
+                    uncommitted.get(tabletNum).add(new long[] {last, due, count});
+                } // End if
+                sent += count;
+            } // End for
+        } finally {
+            if (socket != null) socket.close();
+        } // End try
+    } // End runTablet
+
+    // Writes a bundle next to the Desktop and moves it in whole, as a tablet's file would appear
+    private void drop(int tabletNum, long first, byte[] bundle) throws IOException {
+        File desktop = new File(System.getProperty("user.home"), "Desktop");
+        File staging = new File(desktop, STAGING_FOLDER);
+        if (!staging.exists() && !staging.mkdirs()) throw new IOException("Could not create " + staging);
+        String name = "loadTablet" + tabletNum + "_" + first + ".txt";
+        File part = new File(staging, name);
+        Files.write(part.toPath(), bundle);
+        Files.move(part.toPath(), new File(desktop, name).toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } // End drop
+
+    // Watches the tablets' high-water marks until every dropped bundle is committed
+    private void awaitCommits(CountDownLatch done) throws SQLException, InterruptedException {
+        try (ScoutingStore store = ScoutingStore.open()) {
+            long lastProgress = System.currentTimeMillis();
+            while ((done.getCount() > 0) || (countUncommitted() > 0)) {
+                Thread.sleep(POLL_MILLIS);
+                HashMap<Integer, Long> highWaterMarks = store.loadHighWaterMarks();
+                for (int tabletNum : uncommitted.keySet()) {
+                    ConcurrentLinkedQueue<long[]> queue = uncommitted.get(tabletNum);
+                    Long highWater = highWaterMarks.get(tabletNum);
+                    if (queue.isEmpty() || (highWater == null)) continue;
+                    long[] bundle;
+                    while (((bundle = queue.peek()) != null) && (bundle[0] <= highWater)) {
+                        queue.poll();
+                        recordLatency(bundle[1], (int) bundle[2]);
+                        lastProgress = System.currentTimeMillis();
+                    } // End while
+                } // End for
+                if ((done.getCount() == 0) && (System.currentTimeMillis() - lastProgress > COMMIT_TIMEOUT_MILLIS))
+                    break;
+            } // End while
+        } // End try
+    } // End awaitCommits
+
+    private synchronized void recordLatency(long due, int count) {
+        double millis = (System.nanoTime() - due) / 1e6;
+        for (int i = 0; i < count; i++) latencies.add(millis);
+        stored.addAndGet(count);
+    } // End recordLatency
+
+    private int countUncommitted() {
+        int count = 0;
+        for (ConcurrentLinkedQueue<long[]> queue : uncommitted.values())
+            for (long[] bundle : queue) count += (int) bundle[2];
+        return count;
+    } // End countUncommitted
+
+    /**
+     * Fills in the match form of the robot a tablet scouts in a match.
+     * @param tabletNum - the tablet number
+     * @param index - the tablet's place among the tablets, which picks its robot
+     * @param matchNum - the match number
+     * @param random - the tablet's random numbers
+     * @return the form, with a record for every match form item and alliance item
+     */
+    Form makeMatchForm(int tabletNum, int index, int matchNum, Random random) {
+        int teamNum = schedule(matchNum)[index % ROBOTS_PER_MATCH];
+        Form form = new Form(Form.FormType.MATCH_FORM, tabletNum, teamNum, matchNum, "Scout " + tabletNum);
+        fillIn(form, matchItems, random);
+        fillIn(form, MatchForm.allianceItems, random);
+        return form;
+    } // End makeMatchForm
+
+    /**
+     * Fills in the prescouting form of a team.
+     * @param tabletNum - the tablet number
+     * @param formIndex - which team to scout, wrapping around the team list
+     * @param random - the tablet's random numbers
+     * @return the form, with a record for every prescouting form item
+     */
+    Form makePrescoutingForm(int tabletNum, int formIndex, Random random) {
+        int teamNum = teams[formIndex % teams.length];
+        Form form = new Form(Form.FormType.PRESCOUTING_FORM, tabletNum, teamNum, "Scouts " + tabletNum);
+        fillIn(form, prescoutingItems, random);
+        return form;
+    } // End makePrescoutingForm
+
+    // The teams playing in a match, the same on every tablet
+    private int[] schedule(int matchNum) {
+        ArrayList<Integer> order = new ArrayList<>();
+        for (int team : teams) order.add(team);
+        Collections.shuffle(order, new Random(getLong("seed", 2017) * 7919 + matchNum));
+        int[] robots = new int[ROBOTS_PER_MATCH];
+        for (int i = 0; i < robots.length; i++) robots[i] = order.get(i % order.size());
+        return robots;
+    } // End schedule
+
+    private void fillIn(Form form, Item[] items, Random random) {
+        double[] teamSkills = skills.get(form.getTeamNum());
+        HashMap<Integer, Integer> integers = new HashMap<>();
+        for (Item item : items) {
+            double skill = teamSkills[item.getId() % teamSkills.length];
+            String value;
+            switch (item.getDatatype()) {
+                case BOOLEAN:
+                    value = (random.nextDouble() < skill) ? "1" : "0";
+                    break;
+                case INTEGER:
+                    int[] range = INTEGER_RANGES.getOrDefault(item.getId(), new int[] {0, 10});
+                    double spread = range[1] - range[0];
+                    long number = Math.round(range[0] + skill * spread + random.nextGaussian() * spread * 0.15);
+                    number = Math.max(range[0], Math.min(range[1], number));
+                    integers.put(item.getId(), (int) number);
+                    value = String.valueOf(number);
+                    break;
+                case OPTIONS:
+                    ArrayList<Option> choices = options.get(item.getId());
+                    long choice = Math.round(skill * (choices.size() - 1) + random.nextGaussian() * 0.7);
+                    value = choices.get((int) Math.max(0, Math.min(choices.size() - 1, choice))).toString();
+                    break;
+                default:
+                    value = COMMENTS[random.nextInt(COMMENTS.length)];
+                    break;
+            } // End switch
+            form.addRecord(new Record(value, item.getId()));
+        } // End for
+        // A robot cannot make more gears than it tries
+        Integer attempts = integers.get(MatchForm.Items.GEAR_ATTEMPTS.getId());
+        Integer makes = integers.get(MatchForm.Items.GEAR_MAKES.getId());
+        if ((attempts != null) && (makes != null) && (makes > attempts))
+            for (Record record : form.getAllRecords())
+                if (record.getItemID() == MatchForm.Items.GEAR_MAKES.getId()) record.setValue(String.valueOf(attempts));
+    } // End fillIn
+
+    // The item lists repeat a few items; a form holds each item once
+    private static Item[] distinct(Item[] items) {
+        LinkedHashMap<Integer, Item> byID = new LinkedHashMap<>();
+        for (Item item : items) byID.put(item.getId(), item);
+        return byID.values().toArray(new Item[0]);
+    } // End distinct
+
+    // Finds the options of a form's items in its nested classes, which hold one Option per field
+    private void collectOptions(Class<?> formClass) {
+        for (Class<?> nested : formClass.getClasses())
+            for (Field field : nested.getFields()) {
+                if (field.getType() != Option.class) continue;
+                try {
+                    Option option = (Option) field.get(null);
+                    ArrayList<Option> choices = options.get(option.getItemID());
+                    if (choices == null) {
+                        choices = new ArrayList<>();
+                        options.put(option.getItemID(), choices);
+                    } // End if
+                    choices.add(option);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } // End try
+            } // End for
+        for (ArrayList<Option> choices : options.values())
+            choices.sort((a, b) -> Integer.compare(a.getValue(), b.getValue()));
+    } // End collectOptions
+
+    private long getLong(String key, long defaultValue) {
+        return settings.containsKey(key) ? Long.parseLong(settings.get(key)) : defaultValue;
+    } // End getLong
+
+}
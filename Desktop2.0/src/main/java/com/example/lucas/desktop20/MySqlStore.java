@@ -0,0 +1,144 @@
+package com.example.lucas.desktop20;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+
+/**
+ * The scouting schema on the master computer's MySQL server, built by Scouting.sql. Forms are
+ * inserted by JdbcStore in batches, without the procInsertReport and procInsertRecord procedures
+ * of the schema, which take one round trip per report and per record.
+ */
+public class MySqlStore extends JdbcStore {
+
+    // The database forms are stored in. Batches of inserts are sent as multi-row inserts, and
+    // queries with a fetch size read their rows through a cursor.
+    static final String DB_URL = "jdbc:mysql://localhost:3306/scouting?useSSL=false&rewriteBatchedStatements=true"
+    		+ "&useCursorFetch=true";
+    static final String DB_USER = "lucas";
+    static final String DB_PASSWORD = "lucas";
+
+    // The indexes added to Scouting.sql since it was first run at an event: table, index, columns.
+    // Only the first 255 characters of a value are indexed, the most an index of utf8 text can
+    // hold before MySQL 5.7.
+    private static final String[][] INDEXES = {
+    	{"report", REPORT_TEAM_INDEX, "(TeamNum ASC, FormType ASC, ID ASC)"},
+    	{"record", RECORD_REPORT_ITEM_INDEX, "(REPORT_ID ASC, ITEM_ID ASC, `Value`(255) ASC)"},
+    	{"record", RECORD_ITEM_REPORT_INDEX, "(ITEM_ID ASC, REPORT_ID ASC)"}
+    };
+
+    // The table of Scouting.sql keeping each tablet's high-water mark
+    private static final String TABLET_SYNC = "CREATE TABLE IF NOT EXISTS scouting.TABLET_SYNC ("
+    		+ "TabletNum INT(11) NOT NULL, HighWater BIGINT NOT NULL, PRIMARY KEY (TabletNum)) ENGINE = InnoDB";
+
+    // procAverages and procProportions, aggregating the NumValue column rather than the text of
+    // the values. Replaced by migrate() every time it runs, so a migration cut short between
+    // adding the column and replacing them is finished the next time.
+    private static final String[] PROCEDURES = {
+    	"DROP PROCEDURE IF EXISTS scouting.procAverages",
+    	"CREATE PROCEDURE scouting.procAverages(IN teamNum INT)\n"
+    			+ "BEGIN\n"
+    			+ "SELECT r.ITEM_ID, AVG(r.NumValue), STDDEV_POP(r.NumValue), COUNT(r.NumValue)\n"
+    			+ "FROM scouting.RECORD r\n"
+    			+ "JOIN scouting.REPORT rpt ON rpt.ID = r.REPORT_ID\n"
+    			+ "JOIN scouting.ITEM i ON i.ID = r.ITEM_ID\n"
+    			+ "WHERE rpt.TeamNum = teamNum AND rpt.FormType = 1 AND i.DATATYPE_ID IN (1, 4)\n"
+    			+ "AND r.NumValue IS NOT NULL\n"
+    			+ "GROUP BY r.ITEM_ID ORDER BY r.ITEM_ID;\n"
+    			+ "END",
+    	"DROP PROCEDURE IF EXISTS scouting.procProportions",
+    	"CREATE PROCEDURE scouting.procProportions(IN teamNum INT)\n"
+    			+ "BEGIN\n"
+    			+ "SELECT r.ITEM_ID, CAST(SUM(r.NumValue) AS SIGNED), COUNT(r.NumValue),\n"
+    			+ "CAST(ROUND(100 * AVG(r.NumValue)) AS SIGNED)\n"
+    			+ "FROM scouting.RECORD r\n"
+    			+ "JOIN scouting.REPORT rpt ON rpt.ID = r.REPORT_ID\n"
+    			+ "JOIN scouting.ITEM i ON i.ID = r.ITEM_ID\n"
+    			+ "WHERE rpt.TeamNum = teamNum AND rpt.FormType = 1 AND i.DATATYPE_ID = 2\n"
+    			+ "AND r.NumValue IS NOT NULL\n"
+    			+ "GROUP BY r.ITEM_ID ORDER BY r.ITEM_ID;\n"
+    			+ "END"
+    };
+
+    private final String url;
+
+    public MySqlStore() {
+        this(DB_URL);
+    }
+
+    /**
+     * @param url - the JDBC url of a copy of the scouting schema, procedures included
+     */
+    public MySqlStore(String url) {
+        this.url = url;
+    }
+
+    @Override
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, DB_USER, DB_PASSWORD);
+    }
+
+    /**
+     * Adds the alliance items, the indexes, the NumValue column and the team_item_summary and
+     * TABLET_SYNC tables of Scouting.sql that a schema created by an older copy of it is missing,
+     * and replaces its procedures with ones that read the column. Every step checks what is
+     * already done, so running it again finishes a migration that was cut short. Building an index
+     * or filling in the column or the summary table over a season of records takes a while, but
+     * only the first time.
+     * @throws SQLException if the schema could not be read or changed
+     */
+    public void migrate() throws SQLException {
+        try (Connection conn = connect()) {
+            addAllianceItems(conn);
+            boolean renumbered = addNumberColumn(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(TABLET_SYNC);
+                for (String sql : PROCEDURES) stmt.execute(sql);
+            } // End try
+            if (!addSummaryTable(conn) && renumbered) rebuildSummary(conn);
+        } // End try
+        try (Connection conn = connect(); PreparedStatement stmt = conn.prepareStatement(
+        		"SELECT COUNT(*) FROM information_schema.STATISTICS WHERE (TABLE_SCHEMA = 'scouting') "
+        		+ "AND (LOWER(TABLE_NAME) = ?) AND (INDEX_NAME = ?)")) {
+            for (String[] index : INDEXES) {
+                stmt.setString(1, index[0]);
+                stmt.setString(2, index[1]);
+                ResultSet rs = stmt.executeQuery();
+                rs.next();
+                boolean exists = rs.getInt(1) > 0;
+                rs.close();
+                if (exists) continue;
+                try (Statement create = conn.createStatement()) {
+                    create.execute("CREATE INDEX `" + index[1] + "` ON `scouting`.`" + index[0].toUpperCase()
+                    		+ "` " + index[2]);
+                } // End try
+            } // End for
+        } // End try
+    }
+
+    // Every match form has a record of each alliance item, which the foreign key of the record
+    // table rejects until the item is in the item table
+    private static void addAllianceItems(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+        		"INSERT IGNORE INTO scouting.ITEM (ID, Name, DATATYPE_ID) VALUES (?, ?, ?)")) {
+            for (Item item : MatchForm.allianceItems) {
+                stmt.setInt(1, item.getId());
+                stmt.setString(2, item.getName());
+                stmt.setInt(3, datatypeID(item.getDatatype()));
+                stmt.executeUpdate();
+            } // End for
+        } // End try
+    }
+
+    @Override
+    public void close() {
+        // Every operation closes its own connection
+    }
+
+}
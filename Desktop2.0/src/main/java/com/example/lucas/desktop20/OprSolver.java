@@ -0,0 +1,254 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Computes offensive power ratings (OPR) from match forms. A team's OPR is its estimated
+ * contribution to its alliance's score, found by least squares over every alliance it played in:
+ * each alliance is one equation, the sum of the OPRs of its teams equals its score. Component
+ * OPRs do the same for single match form items, using the alliance's total for that item.
+ *
+ * Reports carry no alliance color, so teams are grouped into alliances by the match number and
+ * the alliance score their scouts reported. An alliance only becomes an equation once all three of
+ * its teams are scouted: with a team missing, its share of the score would be credited to the
+ * other two. Two alliances tying in the same match cannot be told apart, so once a fourth team
+ * claims an alliance, the match and score are dropped, taking back the equation if it was added.
+ *
+ * The normal equations (A^T A) x = A^T b are kept up to date as forms come in: when an alliance's
+ * third team is scouted, its equation is added, which only touches the entries of its teams.
+ * Solving uses conjugate gradient, started from the previous solution, so re-solving after every
+ * match converges in a few iterations.
+ */
+public class OprSolver {
+
+    // The items that get a component OPR, in addition to the alliance score
+    public static final Item[] COMPONENTS = {
+    MatchForm.Items.AUTO_CROSS_BASELINE, MatchForm.Items.AUTO_GEAR_SUCCESS,
+    MatchForm.Items.AUTO_SHOT_MAKES, MatchForm.Items.GEAR_MAKES, MatchForm.Items.ROTORS_SPINNING,
+    MatchForm.Items.SHOTS_MADE, MatchForm.Items.CLIMB_SUCCESS
+    };
+
+    static final int ALLIANCE_SIZE = 3;
+    static final int MAX_ITERATIONS = 500;
+    static final double TOLERANCE = 1e-9;
+
+    private ArrayList<Integer> teams;
+    private HashMap<Integer, Integer> teamIndexes;
+    private HashMap<String, Alliance> alliances;
+    // A^T A, one row and column per team
+    private double[][] normal;
+    // A^T b, one row per rating: the alliance score first, then each component
+    private double[][] rhs;
+    private double[][] ratings;
+    private boolean solved;
+
+    private static final class Alliance {
+        // Team numbers
+        ArrayList<Integer> teams = new ArrayList<>();
+        double[] totals = new double[COMPONENTS.length + 1];
+        // Both alliances of the match reported the same score
+        boolean tied;
+    }
+
+    public OprSolver() {
+        teams = new ArrayList<>();
+        teamIndexes = new HashMap<>();
+        alliances = new HashMap<>();
+        normal = new double[0][0];
+        rhs = new double[COMPONENTS.length + 1][0];
+        ratings = new double[COMPONENTS.length + 1][0];
+        solved = true;
+    }
+
+    /**
+     * Adds a match form's team to its alliance. Forms without a numeric alliance score, second
+     * forms for the same team and match, and forms for a tied match and score are ignored.
+     * @param form - the form to add
+     * @return true if the form changed the equations: it completed its alliance, adding the
+     * 			alliance's equation, or it showed the alliance was tied, taking the equation back
+     */
+    public synchronized boolean addForm(Form form) {
+        if (form.getFormType() != Form.FormType.MATCH_FORM) return false;
+        double score = Double.NaN;
+        double[] values = new double[COMPONENTS.length + 1];
+        for (Record record : form.getAllRecords()) {
+            // Not a per-team item, so not one TeamStats reads
+            if (record.getItemID() == MatchForm.Items.ALLIANCE_SCORE.getId()) {
+                score = allianceScore(record.getValue());
+                continue;
+            } // End if
+            double value = TeamStats.numericValue(record);
+            if (Double.isNaN(value)) continue;
+            for (int c = 0; c < COMPONENTS.length; c++)
+                if (record.getItemID() == COMPONENTS[c].getId()) values[c + 1] = value;
+        } // End for
+        if (Double.isNaN(score)) return false;
+
+        String key = form.getMatchNum() + Form.ID_DELIMITER + score;
+        Alliance alliance = alliances.get(key);
+        if (alliance == null) {
+            alliance = new Alliance();
+            alliance.totals[0] = score;
+            alliances.put(key, alliance);
+        } // End if
+        if (alliance.tied || alliance.teams.contains(form.getTeamNum())) return false;
+        if (alliance.teams.size() >= ALLIANCE_SIZE) {
+            // A fourth team: the three before it may be from both alliances
+            alliance.tied = true;
+            apply(alliance, -1);
+            solved = false;
+            return true;
+        } // End if
+
+        alliance.teams.add(form.getTeamNum());
+        for (int c = 1; c < values.length; c++) alliance.totals[c] += values[c];
+        if (alliance.teams.size() < ALLIANCE_SIZE) return false;
+        apply(alliance, 1);
+        solved = false;
+        return true;
+    }
+
+    /**
+     * @param value - the value of an alliance score record
+     * @return the score, or NaN if the value is blank or not a number. Unlike the way MySQL reads
+     * 			numbers, a blank score is not 0, which would group every form without a score into
+     * 			one alliance.
+     */
+    static double allianceScore(String value) {
+        if ((value == null) || value.trim().isEmpty()) return Double.NaN;
+        try {
+            double score = Double.parseDouble(value.trim());
+            return Double.isInfinite(score) ? Double.NaN : score;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        } // End try
+    }
+
+    /**
+     * Re-solves every rating, starting from the last solution. Does nothing if no form was added
+     * since the last time.
+     * @return the number of conjugate gradient iterations it took
+     */
+    public synchronized int solve() {
+        if (solved) return 0;
+        int iterations = 0;
+        for (int c = 0; c < ratings.length; c++) iterations += conjugateGradient(rhs[c], ratings[c]);
+        solved = true;
+        return iterations;
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @param rating - 0 for the OPR, or 1 + the index of an item in COMPONENTS
+     * @return the team's rating, or 0 if the team has not played
+     */
+    public synchronized double getRating(int teamNum, int rating) {
+        solve();
+        Integer index = teamIndexes.get(teamNum);
+        return (index == null) ? 0 : ratings[rating][index];
+    }
+
+    /**
+     * @return every team's OPR and component OPRs, best OPR first, ready to be output to the console
+     */
+    public synchronized String visualize() {
+        solve();
+        ArrayList<Integer> order = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) order.add(i);
+        order.sort((a, b) -> Double.compare(ratings[0][b], ratings[0][a]));
+        StringBuilder table = new StringBuilder("OPR:\n");
+        for (int i : order) {
+            table.append("Team ").append(teams.get(i)).append(": ")
+            		.append(String.format("%.2f", ratings[0][i]));
+            for (int c = 0; c < COMPONENTS.length; c++)
+                table.append(" | ").append(COMPONENTS[c].getName()).append(' ')
+                		.append(String.format("%.2f", ratings[c + 1][i]));
+            table.append('\n');
+        } // End for
+        return table.toString();
+    }
+
+    // Adds (sign 1) or takes back (sign -1) a full alliance's equation in the normal equations
+    private void apply(Alliance alliance, int sign) {
+        int[] indexes = new int[alliance.teams.size()];
+        for (int t = 0; t < indexes.length; t++) indexes[t] = indexOf(alliance.teams.get(t));
+        for (int i : indexes) {
+            for (int j : indexes) normal[i][j] += sign;
+            for (int c = 0; c < rhs.length; c++) rhs[c][i] += sign * alliance.totals[c];
+        } // End for
+    }
+
+    private int indexOf(int teamNum) {
+        Integer index = teamIndexes.get(teamNum);
+        if (index != null) return index;
+        int size = teams.size() + 1;
+        double[][] grown = new double[size][size];
+        for (int i = 0; i < normal.length; i++) System.arraycopy(normal[i], 0, grown[i], 0, normal.length);
+        normal = grown;
+        for (int c = 0; c < rhs.length; c++) {
+            double[] grownRhs = new double[size];
+            System.arraycopy(rhs[c], 0, grownRhs, 0, rhs[c].length);
+            rhs[c] = grownRhs;
+            double[] grownRatings = new double[size];
+            System.arraycopy(ratings[c], 0, grownRatings, 0, ratings[c].length);
+            ratings[c] = grownRatings;
+        } // End for
+        teams.add(teamNum);
+        teamIndexes.put(teamNum, size - 1);
+        return size - 1;
+    }
+
+    // Solves normal * x = b in place, starting from the current x
+    private int conjugateGradient(double[] b, double[] x) {
+        int n = x.length;
+        double[] r = new double[n];
+        double[] p = new double[n];
+        double[] ap = new double[n];
+        multiply(x, ap);
+        double bNorm = 0;
+        double rr = 0;
+        for (int i = 0; i < n; i++) {
+            r[i] = b[i] - ap[i];
+            p[i] = r[i];
+            rr += r[i] * r[i];
+            bNorm += b[i] * b[i];
+        } // End for
+        double threshold = TOLERANCE * TOLERANCE * Math.max(1, bNorm);
+        int k = 0;
+        while ((k < MAX_ITERATIONS) && (rr > threshold)) {
+            multiply(p, ap);
+            double pap = 0;
+            for (int i = 0; i < n; i++) pap += p[i] * ap[i];
+            // The normal equations are only semi-definite until every team has played enough
+            if (pap <= 0) break;
+            double alpha = rr / pap;
+            double rrNext = 0;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * ap[i];
+                rrNext += r[i] * r[i];
+            } // End for
+            double beta = rrNext / rr;
+            for (int i = 0; i < n; i++) p[i] = r[i] + beta * p[i];
+            rr = rrNext;
+            k++;
+        } // End while
+        return k;
+    }
+
+    private void multiply(double[] v, double[] result) {
+        for (int i = 0; i < v.length; i++) {
+            double sum = 0;
+            double[] row = normal[i];
+            for (int j = 0; j < v.length; j++) sum += row[j] * v[j];
+            result[i] = sum;
+        } // End for
+    }
+
+}
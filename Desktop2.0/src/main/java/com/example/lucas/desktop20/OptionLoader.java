@@ -1,3 +1,5 @@
+package com.example.lucas.desktop20;
+
 import java.util.ArrayList;
 import java.util.Scanner;
 import java.io.File;
@@ -0,0 +1,143 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+
+/**
+ * Ranks teams by a weighted score of their match form averages. A team's score is the sum of
+ * the weight of each item times the team's average for that item (for checkboxes, the average is
+ * the proportion of matches in which it was checked).
+ *
+ * The best teams are kept in a min-heap of fixed size, ordered by score. Whenever a form is
+ * ingested only the team it pertains to is rescored, and the heap is updated in place. The
+ * whole heap is rebuilt only when a team that was already on the list loses score, since a team
+ * off the list may now belong on it.
+ *
+ * Weights are written in the same format as form records: "itemID,weight|itemID,weight".
+ */
+public class PickList {
+
+    // Rough STEAMWORKS point values of the items that matter the most in a match
+    public static final String DEFAULT_WEIGHTS =
+    		MatchForm.Items.AUTO_CROSS_BASELINE.getId() + ",5|"
+    		+ MatchForm.Items.AUTO_GEAR_SUCCESS.getId() + ",20|"
+    		+ MatchForm.Items.GEAR_MAKES.getId() + ",10|"
+    		+ MatchForm.Items.ROTORS_SPINNING.getId() + ",10|"
+    		+ MatchForm.Items.SHOTS_MADE.getId() + ",10|"
+    		+ MatchForm.Items.CLIMB_SUCCESS.getId() + ",50|"
+    		+ MatchForm.Items.DID_THEY_BREAK_DOWN.getId() + ",-20";
+
+    public static final int DEFAULT_SIZE = 24;
+
+    private TeamStats stats;
+    private int size;
+    private String rawWeights;
+    private double[] weights;
+    private HashMap<Integer, Double> scores;
+    private PriorityQueue<Integer> top;
+
+    public PickList(TeamStats stats, int size) {
+        this.stats = stats;
+        this.size = size;
+        scores = new HashMap<>();
+        top = new PriorityQueue<>(size + 1, (a, b) -> Double.compare(scores.get(a), scores.get(b)));
+        setWeights(DEFAULT_WEIGHTS);
+    }
+
+    public synchronized String getWeights() {
+        return rawWeights;
+    }
+
+    /**
+     * Replaces the weights and rescores every team.
+     * @param rawWeights - the weights, formatted as "itemID,weight|itemID,weight"
+     * @throws NumberFormatException if the weights are not formatted correctly
+     * @throws IllegalArgumentException if an item id does not belong to the match form
+     */
+    public synchronized void setWeights(String rawWeights) {
+        double[] newWeights = new double[TeamStats.ITEM_SLOTS];
+        for (String rawWeight : rawWeights.split("\\" + Form.ITEM_DELIMITER)) {
+            if (rawWeight.trim().isEmpty()) continue;
+            String[] elements = rawWeight.split(Form.ID_DELIMITER);
+            if (elements.length != 2) throw new NumberFormatException(rawWeight);
+            int itemID = Integer.parseInt(elements[0].trim());
+            if (MatchForm.getItem(itemID) == null)
+                throw new IllegalArgumentException("Item " + itemID + " is not a match form item");
+            newWeights[itemID] = Double.parseDouble(elements[1].trim());
+        } // End for
+        this.weights = newWeights;
+        this.rawWeights = rawWeights;
+        rebuild();
+    }
+
+    /**
+     * Rescores every team in the stats and ranks them all again, for when the stats changed
+     * without update being called, such as after they are loaded from the database.
+     */
+    public synchronized void rebuild() {
+        for (int teamNum : stats.getTeams()) scores.put(teamNum, score(teamNum));
+        rebuildHeap();
+    }
+
+    /**
+     * Rescores a team after one of its forms was ingested, and updates the list.
+     * @param teamNum - the team whose stats changed
+     */
+    public synchronized void update(int teamNum) {
+        // The team has to leave the heap before its score changes, or the heap breaks.
+        boolean listed = top.remove(teamNum);
+        Double oldScore = scores.get(teamNum);
+        double newScore = score(teamNum);
+        scores.put(teamNum, newScore);
+        if (listed && (newScore < oldScore)) rebuildHeap();
+        else offer(teamNum);
+    }
+
+    public synchronized double getScore(int teamNum) {
+        Double score = scores.get(teamNum);
+        return (score == null) ? 0 : score;
+    }
+
+    /**
+     * @return the listed teams, best first
+     */
+    public synchronized ArrayList<Integer> getRanking() {
+        ArrayList<Integer> ranking = new ArrayList<>(top);
+        ranking.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return ranking;
+    }
+
+    /**
+     * @return the pick list, one team per line, ready to be output to the console
+     */
+    public synchronized String visualize() {
+        StringBuilder list = new StringBuilder("Pick List (" + rawWeights + "):\n");
+        ArrayList<Integer> ranking = getRanking();
+        for (int i = 0; i < ranking.size(); i++)
+            list.append(i + 1).append(". Team ").append(ranking.get(i)).append(": ")
+            		.append(String.format("%.2f", scores.get(ranking.get(i)))).append('\n');
+        return list.toString();
+    }
+
+    private double score(int teamNum) {
+        double score = 0;
+        for (int i = 0; i < weights.length; i++)
+            if (weights[i] != 0) score += weights[i] * stats.getMean(teamNum, i);
+        return score;
+    }
+
+    private void offer(int teamNum) {
+        top.offer(teamNum);
+        if (top.size() > size) top.poll();
+    }
+
+    private void rebuildHeap() {
+        top.clear();
+        for (int teamNum : scores.keySet()) offer(teamNum);
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.example.lucas.desktop20;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A mergeable quantile sketch in the style of KLL. Values are kept in levels of fixed capacity;
+ * every value in level h stands for 2^h original values. When a level fills up it is sorted and
+ * every other value (starting at a random offset) is promoted to the next level, halving its size.
+ * Memory grows only with the logarithm of the number of values, and two sketches can be merged by
+ * merging their levels, so sketches from several events can be combined.
+ *
+ * Small samples (up to the level capacity) are answered exactly. Min and max are always exact.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private int capacity;
+    private double[][] levels;
+    private int[] sizes;
+    private long count;
+    private double min;
+    private double max;
+    // Picks the values compactions keep, or null for the thread's own random numbers
+    private Random random;
+
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QuantileSketch(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity - the number of values a level holds
+     * @param random - the random numbers that pick which values compactions keep, so that the
+     * 			sketch gives the same estimates every time; null for the thread's own
+     */
+    QuantileSketch(int capacity, Random random) {
+        this.random = random;
+        this.capacity = capacity;
+        levels = new double[1][capacity];
+        sizes = new int[1];
+        count = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    public void add(double value) {
+        if (count == 0 || value < min) min = value;
+        if (count == 0 || value > max) max = value;
+        count++;
+        insert(0, value);
+    }
+
+    /**
+     * Adds every value summarized by another sketch to this one.
+     * @param other - the sketch to merge; it is not modified
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        if (count == 0 || other.min < min) min = other.min;
+        if (count == 0 || other.max > max) max = other.max;
+        count += other.count;
+        for (int h = 0; h < other.levels.length; h++)
+            for (int i = 0; i < other.sizes[h]; i++) insert(h, other.levels[h][i]);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @param q - the rank to look up, between 0 and 1 (0.5 is the median)
+     * @return the estimated value at that rank, or NaN if the sketch is empty
+     */
+    public double getQuantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        int total = 0;
+        for (int size : sizes) total += size;
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++)
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n] = 1L << h;
+                n++;
+            } // End for
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long totalWeight = 0;
+        for (long weight : weights) totalWeight += weight;
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) return values[i];
+        } // End for
+        return max;
+    }
+
+    private void insert(int level, double value) {
+        if (level >= levels.length) grow();
+        levels[level][sizes[level]++] = value;
+        if (sizes[level] == capacity) compact(level);
+    }
+
+    // Sorts a full level and promotes every other value to the level above it
+    private void compact(int level) {
+        double[] values = levels[level];
+        int size = sizes[level];
+        Arrays.sort(values, 0, size);
+        sizes[level] = 0;
+        int offset = (random == null) ? ThreadLocalRandom.current().nextInt(2) : random.nextInt(2);
+        for (int i = offset; i < size; i += 2) insert(level + 1, values[i]);
+    }
+
+    private void grow() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new double[capacity];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+    }
+
+}
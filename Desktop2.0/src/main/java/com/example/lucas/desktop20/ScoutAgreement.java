@@ -0,0 +1,191 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Measures how well scouts agree with each other. When two or more scouts fill in a match form
+ * for the same team in the same match, their numeric records are compared pair by pair as soon as
+ * the second form is read. Every comparison updates, in a single pass:
+ * - the disagreement of each item (the mean absolute difference between scouts),
+ * - the bias of each scout on each item (the mean signed difference from the other scouts),
+ * - the overall deviation of each scout (the mean absolute difference from the other scouts).
+ *
+ * Scouts whose overall deviation is well above the typical scout's are flagged as outliers, so
+ * they can be corrected during the event.
+ */
+public class ScoutAgreement {
+
+    // Comparisons a scout needs before it can be flagged
+    public static final int MIN_COMPARISONS = 3;
+    // How many times the median deviation a scout needs to be flagged
+    public static final double OUTLIER_FACTOR = 2;
+
+    // Forms read so far, grouped by match and team number
+    private HashMap<String, ArrayList<Observation>> groups;
+    private HashMap<String, ScoutStats> scouts;
+    private double[] itemDisagreement;
+    private int[] itemComparisons;
+
+    private static final class Observation {
+        String scoutName;
+        double[] values;
+    }
+
+    public static final class ScoutStats {
+        private double[] bias = new double[TeamStats.ITEM_SLOTS];
+        private int[] biasCount = new int[TeamStats.ITEM_SLOTS];
+        private double deviation;
+        private int comparisons;
+
+        public int getComparisons() {
+            return comparisons;
+        }
+
+        public double getDeviation() {
+            return (comparisons == 0) ? 0 : deviation / comparisons;
+        }
+
+        public double getBias(int itemID) {
+            return (biasCount[itemID] == 0) ? 0 : bias[itemID] / biasCount[itemID];
+        }
+    }
+
+    public ScoutAgreement() {
+        groups = new HashMap<>();
+        scouts = new HashMap<>();
+        itemDisagreement = new double[TeamStats.ITEM_SLOTS];
+        itemComparisons = new int[TeamStats.ITEM_SLOTS];
+    }
+
+    /**
+     * Compares a match form against every form already read for the same team and match.
+     * @param form - the form to add
+     * @return true if the form was compared against at least one other form
+     */
+    public synchronized boolean addForm(Form form) {
+        if (form.getFormType() != Form.FormType.MATCH_FORM) return false;
+        Observation observation = new Observation();
+        observation.scoutName = form.getScoutName();
+        observation.values = new double[TeamStats.ITEM_SLOTS];
+        Arrays.fill(observation.values, Double.NaN);
+        for (Record record : form.getAllRecords()) {
+            // The alliance score is shared by the whole alliance, not observed per robot
+            if (record.getItemID() == MatchForm.Items.ALLIANCE_SCORE.getId()) continue;
+            double value = TeamStats.numericValue(record);
+            if (!Double.isNaN(value)) observation.values[record.getItemID()] = value;
+        } // End for
+
+        String key = form.getMatchNum() + Form.ID_DELIMITER + form.getTeamNum();
+        ArrayList<Observation> group = groups.get(key);
+        if (group == null) {
+            group = new ArrayList<>();
+            groups.put(key, group);
+        } // End if
+        ScoutStats current = getOrCreate(observation.scoutName);
+        for (Observation other : group) {
+            ScoutStats otherStats = getOrCreate(other.scoutName);
+            double difference = 0;
+            int items = 0;
+            for (int i = 0; i < TeamStats.ITEM_SLOTS; i++) {
+                if (Double.isNaN(observation.values[i]) || Double.isNaN(other.values[i])) continue;
+                double d = observation.values[i] - other.values[i];
+                itemDisagreement[i] += Math.abs(d);
+                itemComparisons[i]++;
+                current.bias[i] += d;
+                current.biasCount[i]++;
+                otherStats.bias[i] -= d;
+                otherStats.biasCount[i]++;
+                difference += Math.abs(d);
+                items++;
+            } // End for
+            if (items == 0) continue;
+            current.deviation += difference / items;
+            current.comparisons++;
+            otherStats.deviation += difference / items;
+            otherStats.comparisons++;
+        } // End for
+        group.add(observation);
+        return group.size() > 1;
+    }
+
+    public synchronized ScoutStats getScout(String scoutName) {
+        return scouts.get(scoutName);
+    }
+
+    /**
+     * @param itemID - the database id of a match form item
+     * @return the mean absolute difference between scouts on that item
+     */
+    public synchronized double getItemDisagreement(int itemID) {
+        return (itemComparisons[itemID] == 0) ? 0 : itemDisagreement[itemID] / itemComparisons[itemID];
+    }
+
+    /**
+     * @return the names of the scouts whose deviation is at least OUTLIER_FACTOR times the
+     * 			median deviation, among scouts with at least MIN_COMPARISONS comparisons
+     */
+    public synchronized ArrayList<String> getOutliers() {
+        ArrayList<String> outliers = new ArrayList<>();
+        ArrayList<Double> deviations = new ArrayList<>();
+        for (ScoutStats stats : scouts.values())
+            if (stats.getComparisons() >= MIN_COMPARISONS) deviations.add(stats.getDeviation());
+        if (deviations.size() < 2) return outliers;
+        deviations.sort(null);
+        double median = deviations.get(deviations.size() / 2);
+        for (String scoutName : new TreeMap<>(scouts).keySet()) {
+            ScoutStats stats = scouts.get(scoutName);
+            if ((stats.getComparisons() >= MIN_COMPARISONS)
+            		&& (stats.getDeviation() > 0) && (stats.getDeviation() >= OUTLIER_FACTOR * median))
+                outliers.add(scoutName);
+        } // End for
+        return outliers;
+    }
+
+    /**
+     * @return the agreement report: item disagreement, then each scout's deviation and strongest
+     * 			bias, ready to be output to the console
+     */
+    public synchronized String visualize() {
+        StringBuilder report = new StringBuilder("Item disagreement:\n");
+        for (int i = 0; i < TeamStats.ITEM_SLOTS; i++)
+            if (itemComparisons[i] > 0)
+                report.append(MatchForm.getItem(i).getName()).append(": ")
+                		.append(String.format("%.2f", getItemDisagreement(i)))
+                		.append(" (").append(itemComparisons[i]).append(" comparisons)\n");
+        report.append("\nScouts:\n");
+        ArrayList<String> outliers = getOutliers();
+        for (String scoutName : new TreeMap<>(scouts).keySet()) {
+            ScoutStats stats = scouts.get(scoutName);
+            if (stats.getComparisons() == 0) continue;
+            int biased = -1;
+            for (int i = 0; i < TeamStats.ITEM_SLOTS; i++)
+                if ((stats.biasCount[i] > 0) && ((biased == -1)
+                		|| (Math.abs(stats.getBias(i)) > Math.abs(stats.getBias(biased))))) biased = i;
+            report.append(scoutName).append(": deviation ").append(String.format("%.2f", stats.getDeviation()))
+            		.append(" (").append(stats.getComparisons()).append(" comparisons)");
+            if (biased != -1)
+                report.append(", most biased on ").append(MatchForm.getItem(biased).getName())
+                		.append(String.format(" (%+.2f)", stats.getBias(biased)));
+            if (outliers.contains(scoutName)) report.append(" OUTLIER");
+            report.append('\n');
+        } // End for
+        return report.toString();
+    }
+
+    private ScoutStats getOrCreate(String scoutName) {
+        ScoutStats stats = scouts.get(scoutName);
+        if (stats == null) {
+            stats = new ScoutStats();
+            scouts.put(scoutName, stats);
+        } // End if
+        return stats;
+    }
+
+}
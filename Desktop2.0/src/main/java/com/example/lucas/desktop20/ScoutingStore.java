@@ -0,0 +1,146 @@
+package com.example.lucas.desktop20;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import com.example.lucas.formcodec20.Form;
+
+/**
+ * Where forms are stored and read back from. The master computer stores forms in MySQL; at an
+ * event without a MySQL install, or in a test, they can be stored in an embedded database file
+ * instead. Which one is used is chosen with the scouting.store system property:
+ *
+ *   -Dscouting.store=mysql       the scouting schema on the local MySQL server (the default)
+ *   -Dscouting.store=embedded    an embedded database in the user's home folder, created on first
+ *                                use. -Dscouting.embeddedPath changes where it is kept.
+ *
+ * Result sets returned by a store are disconnected from the database, so they can be read after
+ * the store is done with them.
+ */
+public interface ScoutingStore extends AutoCloseable {
+
+    String STORE_PROPERTY = "scouting.store";
+    String EMBEDDED_PATH_PROPERTY = "scouting.embeddedPath";
+    String MYSQL = "mysql";
+    String EMBEDDED = "embedded";
+
+    /**
+     * Opens the store chosen by the scouting.store system property. A MySQL schema is given any
+     * indexes it is missing first.
+     * @return the store
+     * @throws SQLException if the store could not be opened
+     */
+    static ScoutingStore open() throws SQLException {
+        String store = System.getProperty(STORE_PROPERTY, MYSQL);
+        if (store.equals(EMBEDDED)) {
+            String path = System.getProperty(EMBEDDED_PATH_PROPERTY,
+            		new File(System.getProperty("user.home"), EmbeddedStore.DEFAULT_PATH).getPath());
+            return new EmbeddedStore(path);
+        } // End if
+        if (store.equals(MYSQL)) {
+            MySqlStore mySqlStore = new MySqlStore();
+            mySqlStore.migrate();
+            return mySqlStore;
+        } // End if
+        throw new SQLException("Unknown store: " + store);
+    }
+
+    /**
+     * Stores a form, then sets its form id to the id of the report created for it.
+     * @param form - the form to store
+     * @throws SQLException if the form could not be stored
+     */
+    default void storeForm(Form form) throws SQLException {
+        ArrayList<Form> forms = new ArrayList<>();
+        forms.add(form);
+        storeForms(forms);
+    }
+
+    /**
+     * Stores forms in a single transaction, then sets the form id of each to the id of the report
+     * created for it. Either every form is stored or none is.
+     * @param forms - the forms to store
+     * @throws SQLException if the forms could not be stored
+     */
+    void storeForms(ArrayList<Form> forms) throws SQLException;
+
+    /**
+     * @return the highest sequence number stored from every tablet
+     * @throws SQLException if the query failed
+     */
+    HashMap<Integer, Long> loadHighWaterMarks() throws SQLException;
+
+    /**
+     * Stores the highest sequence number stored from a tablet. A lower number than the one
+     * already stored is ignored.
+     * @param tabletNum - the tablet number
+     * @param highWater - the highest sequence number stored from the tablet
+     * @throws SQLException if the update failed
+     */
+    void storeHighWater(int tabletNum, long highWater) throws SQLException;
+
+    /**
+     * @param teamNum - the team whose prescouting form was requested
+     * @return the header of the team's prescouting form, its records and the active items, or
+     * 			null if the team has no prescouting form. See FileSystemWatcher.getPrescoutingForm.
+     * @throws SQLException if a query failed
+     */
+    ResultSet[] getPrescoutingForm(int teamNum) throws SQLException;
+
+    /**
+     * @param teamNum - the team whose comments were requested
+     * @return every comment made about the team, in a single column
+     * @throws SQLException if the query failed
+     */
+    ResultSet getTeamComments(int teamNum) throws SQLException;
+
+    /**
+     * Reads every comment made about a team one at a time, without holding them all in memory.
+     * @param teamNum - the team whose comments were requested
+     * @param reader - given each comment, in the order they were stored
+     * @throws SQLException if the query failed
+     */
+    void readTeamComments(int teamNum, Consumer<String> reader) throws SQLException;
+
+    /**
+     * @param teamNum - the team whose summary stats were requested
+     * @return the averages of the team's numeric items (item id, mean, standard deviation and
+     * 			sample size), then the proportions of its checkbox items (item id, checks, sample
+     * 			size and success rate). See FileSystemWatcher.getAverageForm.
+     * @throws SQLException if a query failed
+     */
+    ResultSet[] getAverageForm(int teamNum) throws SQLException;
+
+    /**
+     * Rebuilds the team_item_summary table, which storeForm keeps up to date, from every record
+     * stored. Only needed if records were changed or added without going through storeForm.
+     * @throws SQLException if the table could not be rebuilt
+     */
+    void rebuildSummary() throws SQLException;
+
+    /**
+     * @return the summary stats of every team that has match forms, ordered by team number
+     * @throws SQLException if the query failed
+     */
+    ArrayList<TeamSummary> getAllTeamsSummary() throws SQLException;
+
+    /**
+     * @return every match form stored, in match order
+     * @throws SQLException if the query failed
+     */
+    ArrayList<Form> getAllMatchForms() throws SQLException;
+
+    /**
+     * @return every form stored, match and prescouting forms alike, in the order they were stored
+     * @throws SQLException if the query failed
+     */
+    ArrayList<Form> getAllForms() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+}
@@ -0,0 +1,224 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * In-memory summary stats of every team's match forms, kept up to date as forms are ingested.
+ * Each team holds one accumulator per match form item, indexed directly by the item's database
+ * id. Accumulators keep the sample size, the sum and the sum of squares of the item's values,
+ * which is enough to produce the same averages, standard deviations and proportions as the
+ * database, without a round trip.
+ *
+ * Each accumulator also keeps a QuantileSketch of the item's values, for medians, percentiles,
+ * min and max, and a ring buffer of the team's most recent values, for trends. Both take the same
+ * small amount of memory no matter how many matches have been played.
+ */
+public class TeamStats {
+
+    // One past the highest match form item id; accumulators are indexed by item id.
+    static final int ITEM_SLOTS = highestItemID() + 1;
+    // The number of recent values kept per team and item
+    public static final int RECENT_VALUES = 5;
+
+    private HashMap<Integer, ItemStats[]> teams;
+
+    public static final class ItemStats {
+        private int sampleSize;
+        private double sum;
+        private double sumOfSquares;
+        // Created on the first value, since most teams only use some of the slots
+        private QuantileSketch sketch;
+        private double[] recent;
+
+        public void add(double value) {
+            if (sketch == null) {
+                sketch = new QuantileSketch();
+                recent = new double[RECENT_VALUES];
+            } // End if
+            recent[sampleSize % RECENT_VALUES] = value;
+            sampleSize++;
+            sum += value;
+            sumOfSquares += value * value;
+            sketch.add(value);
+        }
+
+        /**
+         * @param q - the rank to look up, between 0 and 1 (0.5 is the median)
+         * @return the estimated value at that rank, or NaN if there are no values
+         */
+        public double getQuantile(double q) {
+            return (sketch == null) ? Double.NaN : sketch.getQuantile(q);
+        }
+
+        public double getMin() {
+            return (sketch == null) ? Double.NaN : sketch.getMin();
+        }
+
+        public double getMax() {
+            return (sketch == null) ? Double.NaN : sketch.getMax();
+        }
+
+        /**
+         * @return up to the last RECENT_VALUES values, oldest first
+         */
+        public double[] getRecent() {
+            int n = Math.min(sampleSize, RECENT_VALUES);
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) values[i] = recent[(sampleSize - n + i) % RECENT_VALUES];
+            return values;
+        }
+
+        public double getRecentMean() {
+            double[] values = getRecent();
+            if (values.length == 0) return 0;
+            double total = 0;
+            for (double value : values) total += value;
+            return total / values.length;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public double getMean() {
+            if (sampleSize == 0) return 0;
+            return sum / sampleSize;
+        }
+
+        // Population standard deviation, the same as MySQL's STDDEV
+        public double getStdDev() {
+            if (sampleSize == 0) return 0;
+            double mean = getMean();
+            return Math.sqrt(Math.max(0, sumOfSquares / sampleSize - mean * mean));
+        }
+    }
+
+    public TeamStats() {
+        teams = new HashMap<>();
+    }
+
+    private static int highestItemID() {
+        int highest = 0;
+        for (Item i : MatchForm.matchItems) highest = Math.max(highest, i.getId());
+        return highest;
+    }
+
+    /**
+     * Adds the numeric records of a match form to its team's accumulators. Prescouting forms,
+     * comments and records that do not hold a number are ignored.
+     * @param form - the form to add
+     * @return true if the form was a match form
+     */
+    public synchronized boolean addForm(Form form) {
+        if (form.getFormType() != Form.FormType.MATCH_FORM) return false;
+        ItemStats[] items = getOrCreate(form.getTeamNum());
+        for (Record record : form.getAllRecords()) {
+            double value = numericValue(record);
+            if (Double.isNaN(value)) continue;
+            items[record.getItemID()].add(value);
+        } // End for
+        return true;
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @param itemID - the database id of a match form item
+     * @return the accumulator of the item for that team, or null if the team has no forms
+     */
+    public synchronized ItemStats get(int teamNum, int itemID) {
+        ItemStats[] items = teams.get(teamNum);
+        if ((items == null) || (itemID < 0) || (itemID >= ITEM_SLOTS)) return null;
+        return items[itemID];
+    }
+
+    public synchronized double getMean(int teamNum, int itemID) {
+        ItemStats stats = get(teamNum, itemID);
+        return (stats == null) ? 0 : stats.getMean();
+    }
+
+    public synchronized ArrayList<Integer> getTeams() {
+        return new ArrayList<>(new TreeSet<>(teams.keySet()));
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @return the team's stats in the same shape as the database summary, or null if the team
+     * 			has no forms
+     */
+    public synchronized TeamSummary toSummary(int teamNum) {
+        ItemStats[] items = teams.get(teamNum);
+        if (items == null) return null;
+        TeamSummary summary = new TeamSummary(teamNum);
+        for (int i = 0; i < items.length; i++)
+            if (items[i].getSampleSize() > 0)
+                summary.addItem(new TeamSummary.ItemSummary(i, items[i].getMean(), items[i].getStdDev(),
+                		items[i].getSampleSize(), items[i].getSum()));
+        return summary;
+    }
+
+    /**
+     * @param teamNum - the team number
+     * @return the distribution of each of the team's numeric items, ready to be output to the
+     * 			console, or null if the team has no forms
+     */
+    public synchronized String visualizeDistribution(int teamNum) {
+        ItemStats[] items = teams.get(teamNum);
+        if (items == null) return null;
+        StringBuilder visualized = new StringBuilder("Team " + teamNum + ":\n");
+        for (int i = 0; i < items.length; i++) {
+            ItemStats item = items[i];
+            if (item.getSampleSize() == 0) continue;
+            visualized.append(MatchForm.getItem(i).getName()).append(": ")
+            		.append(String.format("mean %.2f, median %.2f, p90 %.2f, min %.2f, max %.2f, n %d",
+            		item.getMean(), item.getQuantile(0.5), item.getQuantile(0.9), item.getMin(),
+            		item.getMax(), item.getSampleSize()))
+            		.append("\nLast ").append(RECENT_VALUES).append(": ")
+            		.append(Arrays.toString(item.getRecent()))
+            		.append(String.format(" (mean %.2f)", item.getRecentMean())).append("\n");
+        } // End for
+        return visualized.toString();
+    }
+
+    private ItemStats[] getOrCreate(int teamNum) {
+        ItemStats[] items = teams.get(teamNum);
+        if (items == null) {
+            items = new ItemStats[ITEM_SLOTS];
+            for (int i = 0; i < items.length; i++) items[i] = new ItemStats();
+            teams.put(teamNum, items);
+        } // End if
+        return items;
+    }
+
+    /**
+     * @param record - a match form record
+     * @return the record's value as a number, or NaN if it is not a numeric match form item or is
+     * 			the N/A choice of an options item, which the database leaves out of averages too
+     */
+    static double numericValue(Record record) {
+        Item item = MatchForm.getItem(record.getItemID());
+        if ((item == null) || (item.getDatatype() == Item.Datatype.STRING) || (record.getValue() == null))
+            return Double.NaN;
+        double value;
+        try {
+            value = Double.parseDouble(record.getValue());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        } // End try
+        if ((item.getDatatype() == Item.Datatype.OPTIONS) && (value == JdbcStore.NOT_APPLICABLE))
+            return Double.NaN;
+        return value;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.example.lucas.desktop20;
+
+import java.util.ArrayList;
+
+import com.example.lucas.formcodec20.Item;
+import com.example.lucas.formcodec20.MatchForm;
+
+/**
+ * Summary statistics of a single team across all of its match forms. Each entry holds the
+ * aggregate of one match form item: its mean, standard deviation, sample size and sum. Numeric
+ * items (integers and options) are reported as averages; checkboxes are reported as proportions.
+ * The raw format produced by toRawData is the same one built by visualizeAverageForm, so that
+ * MatchForm.averageFormVisualizer can render either.
+ */
+public class TeamSummary {
+
+    public static final String CSV_HEADER = "TeamNum,ItemID,Item,Mean,StdDev,SampleSize,SuccessRate";
+
+    private int teamNum;
+    ArrayList<ItemSummary> items;
+
+    public static final class ItemSummary {
+        private int itemID;
+        private double mean;
+        private double stdDev;
+        private int sampleSize;
+        private double sum;
+
+        public ItemSummary(int itemID, double mean, double stdDev, int sampleSize, double sum) {
+            this.itemID = itemID;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.sampleSize = sampleSize;
+            this.sum = sum;
+        }
+
+        public int getItemID() {
+            return itemID;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStdDev() {
+            return stdDev;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        // Percentage of the matches in which a checkbox item was checked
+        public int getSuccessRate() {
+            if (sampleSize == 0) return 0;
+            return (int) Math.round(100 * sum / sampleSize);
+        }
+    }
+
+    public TeamSummary(int teamNum) {
+        this.teamNum = teamNum;
+        items = new ArrayList<>();
+    }
+
+    public int getTeamNum() {
+        return teamNum;
+    }
+
+    public ArrayList<ItemSummary> getAllItems() {
+        return items;
+    }
+
+    public boolean addItem(ItemSummary item) {
+        return items.add(item);
+    }
+
+    /**
+     * Rebuilds the summary in the raw format used by MatchForm.averageFormVisualizer: averages
+     * first, then "##", then proportions. Items that are not part of the match form are skipped.
+     * @return the summary in its raw format
+     */
+    public String toRawData() {
+        StringBuilder averages = new StringBuilder();
+        StringBuilder proportions = new StringBuilder();
+        for (ItemSummary item : items) {
+            Item matchItem = MatchForm.getItem(item.getItemID());
+            if (matchItem == null) continue;
+            if (matchItem.getDatatype() == Item.Datatype.BOOLEAN)
+                proportions.append(item.getItemID()).append(',').append((int) item.getSum()).append(',')
+                		.append(item.getSampleSize()).append(',').append(item.getSuccessRate()).append('|');
+            else if (matchItem.getDatatype() != Item.Datatype.STRING)
+                averages.append(item.getItemID()).append(',').append(item.getMean()).append(',')
+                		.append(item.getStdDev()).append(',').append(item.getSampleSize()).append('|');
+        } // End for
+        return averages + "##" + proportions;
+    }
+
+    /**
+     * Renders the summary as CSV rows, one per match form item, without the header line.
+     * @return the CSV rows for this team
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder();
+        for (ItemSummary item : items) {
+            Item matchItem = MatchForm.getItem(item.getItemID());
+            if ((matchItem == null) || (matchItem.getDatatype() == Item.Datatype.STRING)) continue;
+            csv.append(teamNum).append(',').append(item.getItemID()).append(",\"")
+            		.append(matchItem.getName()).append("\",")
+            		.append(String.format("%.3f", item.getMean())).append(',')
+            		.append(String.format("%.3f", item.getStdDev())).append(',')
+            		.append(item.getSampleSize()).append(',');
+            if (matchItem.getDatatype() == Item.Datatype.BOOLEAN) csv.append(item.getSuccessRate());
+            csv.append('\n');
+        } // End for
+        return csv.toString();
+    }
+
+}
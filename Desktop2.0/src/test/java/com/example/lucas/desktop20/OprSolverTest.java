@@ -0,0 +1,118 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Solves the ratings of four teams whose alliances score exactly the sum of their OPRs, so the
+ * least squares solution is known.
+ */
+public class OprSolverTest {
+
+    // Team numbers, their OPRs and the gears each makes every match
+    private static final int[] TEAMS = {101, 102, 103, 104};
+    private static final double[] OPRS = {10, 20, 30, 40};
+    private static final int[] GEARS = {1, 2, 3, 4};
+    // Every alliance of three of the four teams, by index
+    private static final int[][] ALLIANCES = {{0, 1, 2}, {0, 1, 3}, {0, 2, 3}, {1, 2, 3}};
+
+    private static final int GEAR_RATING = gearRating();
+
+    private OprSolver solver;
+
+    @Before
+    public void setUp() {
+        solver = new OprSolver();
+    }
+
+    private static int gearRating() {
+        for (int c = 0; c < OprSolver.COMPONENTS.length; c++)
+            if (OprSolver.COMPONENTS[c] == MatchForm.Items.GEAR_MAKES) return c + 1;
+        throw new IllegalStateException("Gear makes have no component OPR");
+    }
+
+    private static Form form(int team, int matchNum, String score) {
+        Form form = new MatchForm(1, TEAMS[team], matchNum, "Scout");
+        form.addRecord(new Record(Integer.toString(GEARS[team]), MatchForm.Items.GEAR_MAKES.getId()));
+        if (score != null) form.addRecord(new Record(score, MatchForm.Items.ALLIANCE_SCORE.getId()));
+        return form;
+    }
+
+    // Plays each alliance of ALLIANCES in its own match, starting at firstMatch
+    private void playAlliances(int firstMatch) {
+        for (int a = 0; a < ALLIANCES.length; a++) {
+            double score = 0;
+            for (int team : ALLIANCES[a]) score += OPRS[team];
+            for (int t = 0; t < ALLIANCES[a].length; t++) {
+                boolean completed = solver.addForm(form(ALLIANCES[a][t], firstMatch + a, Double.toString(score)));
+                assertEquals(t == ALLIANCES[a].length - 1, completed);
+            }
+        }
+    }
+
+    private void assertRatings() {
+        for (int t = 0; t < TEAMS.length; t++) {
+            assertEquals(OPRS[t], solver.getRating(TEAMS[t], 0), 1e-6);
+            assertEquals(GEARS[t], solver.getRating(TEAMS[t], GEAR_RATING), 1e-6);
+        }
+    }
+
+    @Test
+    public void ratingsSolveTheNormalEquations() {
+        playAlliances(1);
+        assertTrue(solver.solve() > 0);
+        assertRatings();
+        assertEquals(0, solver.getRating(999, 0), 0);
+    }
+
+    @Test
+    public void resolvingStartsFromTheLastSolution() {
+        playAlliances(1);
+        solver.solve();
+        // Nothing changed
+        assertEquals(0, solver.solve());
+        // The same alliances again: the last solution already solves the new equations
+        playAlliances(5);
+        assertEquals(0, solver.solve());
+        assertRatings();
+    }
+
+    @Test
+    public void incompleteAlliancesAreLeftOut() {
+        playAlliances(1);
+        // Two teams of an alliance whose third team was never scouted
+        assertFalse(solver.addForm(form(0, 9, "1000")));
+        assertFalse(solver.addForm(form(1, 9, "1000")));
+        // The same team twice does not complete it either
+        assertFalse(solver.addForm(form(1, 9, "1000")));
+        assertRatings();
+    }
+
+    @Test
+    public void blankAndNonNumericScoresAreMissing() {
+        playAlliances(1);
+        for (String score : new String[] {null, "", "  ", "abc"})
+            for (int team = 0; team < 3; team++) assertFalse(solver.addForm(form(team, 9, score)));
+        assertRatings();
+    }
+
+    @Test
+    public void tiedAlliancesAreDropped() {
+        playAlliances(1);
+        // Both alliances of match 9 scored 500: the first three teams complete an equation, which
+        // the fourth takes back
+        for (int team = 0; team < 3; team++) solver.addForm(form(team, 9, "500"));
+        assertTrue(solver.addForm(form(3, 9, "500")));
+        assertFalse(solver.addForm(form(3, 9, "500")));
+        assertRatings();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Ranks teams by the gears they make, on a pick list two teams long.
+ */
+public class PickListTest {
+
+    private static final int GEAR_MAKES = MatchForm.Items.GEAR_MAKES.getId();
+
+    private TeamStats stats;
+    private PickList pickList;
+    private int matchNum;
+
+    @Before
+    public void setUp() {
+        stats = new TeamStats();
+        pickList = new PickList(stats, 2);
+        pickList.setWeights(GEAR_MAKES + ",1");
+    }
+
+    // Adds a match in which a team made some gears, without updating the pick list
+    private void play(int teamNum, int gears) {
+        Form form = new MatchForm(1, teamNum, ++matchNum, "Scout");
+        form.addRecord(new Record(Integer.toString(gears), GEAR_MAKES));
+        stats.addForm(form);
+    }
+
+    private void playAndUpdate(int teamNum, int gears) {
+        play(teamNum, gears);
+        pickList.update(teamNum);
+    }
+
+    @Test
+    public void teamsAreRankedAsTheirFormsComeIn() {
+        playAndUpdate(1, 10);
+        playAndUpdate(2, 8);
+        playAndUpdate(3, 6);
+        assertEquals(Arrays.asList(1, 2), pickList.getRanking());
+        playAndUpdate(3, 14);
+        assertEquals(Arrays.asList(3, 1), pickList.getRanking());
+        assertEquals(10, pickList.getScore(3), 1e-9);
+    }
+
+    @Test
+    public void teamOffTheListTakesTheSpotOfAListedTeamThatDrops() {
+        playAndUpdate(1, 10);
+        playAndUpdate(2, 8);
+        playAndUpdate(3, 6);
+        // Team 1 drops to 5, below team 3, which was off the list
+        playAndUpdate(1, 0);
+        assertEquals(Arrays.asList(2, 3), pickList.getRanking());
+        assertEquals(5, pickList.getScore(1), 1e-9);
+        // Team 2 drops, but stays on the list
+        playAndUpdate(2, 6);
+        assertEquals(Arrays.asList(2, 3), pickList.getRanking());
+        playAndUpdate(2, 0);
+        assertEquals(Arrays.asList(3, 1), pickList.getRanking());
+    }
+
+    @Test
+    public void rebuildRanksTeamsLoadedWithoutUpdates() {
+        play(1, 4);
+        play(2, 8);
+        play(3, 6);
+        assertEquals(Arrays.asList(), pickList.getRanking());
+        pickList.rebuild();
+        assertEquals(Arrays.asList(2, 3), pickList.getRanking());
+        assertEquals(GEAR_MAKES + ",1", pickList.getWeights());
+    }
+
+    @Test
+    public void newWeightsRankEveryTeamAgain() {
+        playAndUpdate(1, 10);
+        playAndUpdate(2, 8);
+        playAndUpdate(3, 6);
+        pickList.setWeights(GEAR_MAKES + ",-1");
+        assertEquals(Arrays.asList(3, 2), pickList.getRanking());
+        assertEquals(-6, pickList.getScore(3), 1e-9);
+    }
+
+}
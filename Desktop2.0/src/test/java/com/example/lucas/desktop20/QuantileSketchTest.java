@@ -0,0 +1,81 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Adds shuffled values 0 to n - 1 to sketches, so the true rank of every estimate is the estimate
+ * itself. The sketches draw their random numbers from a seed, so the estimates are the same every
+ * run.
+ */
+public class QuantileSketchTest {
+
+    private static final long SEED = 2017;
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+    // The largest rank error allowed, as a fraction of the values added
+    private static final double RANK_ERROR = 0.02;
+
+    private static ArrayList<Integer> shuffled(int count) {
+        ArrayList<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) values.add(i);
+        Collections.shuffle(values, new Random(SEED));
+        return values;
+    }
+
+    private static QuantileSketch sketch() {
+        return new QuantileSketch(QuantileSketch.DEFAULT_CAPACITY, new Random(SEED));
+    }
+
+    private static void assertRankError(QuantileSketch sketch, int count) {
+        assertEquals(count, sketch.getCount());
+        assertEquals(0, sketch.getMin(), 0);
+        assertEquals(count - 1, sketch.getMax(), 0);
+        for (double q : QUANTILES) {
+            double rank = sketch.getQuantile(q) / count;
+            assertTrue(q + ": " + rank, Math.abs(rank - q) <= RANK_ERROR);
+        }
+    }
+
+    @Test
+    public void smallSamplesAreExact() {
+        QuantileSketch sketch = sketch();
+        for (int value : shuffled(QuantileSketch.DEFAULT_CAPACITY - 1)) sketch.add(value);
+        assertEquals(31, sketch.getQuantile(0.5), 0);
+        assertEquals(6, sketch.getQuantile(0.1), 0);
+        assertEquals(0, sketch.getQuantile(0), 0);
+        assertEquals(62, sketch.getQuantile(1), 0);
+    }
+
+    @Test
+    public void emptySketchHasNoQuantiles() {
+        assertTrue(Double.isNaN(sketch().getQuantile(0.5)));
+    }
+
+    @Test
+    public void largeSamplesStayWithinTheRankError() {
+        QuantileSketch sketch = sketch();
+        for (int value : shuffled(100000)) sketch.add(value);
+        assertRankError(sketch, 100000);
+    }
+
+    @Test
+    public void mergedSketchesStayWithinTheRankError() {
+        ArrayList<Integer> values = shuffled(100000);
+        QuantileSketch merged = sketch();
+        QuantileSketch other = sketch();
+        for (int i = 0; i < values.size(); i++) (((i % 3) == 0) ? merged : other).add(values.get(i));
+        merged.merge(other);
+        assertRankError(merged, 100000);
+        // The merged sketch is left as it was
+        assertEquals(66666, other.getCount());
+        merged.merge(sketch());
+        assertEquals(100000, merged.getCount());
+    }
+
+}
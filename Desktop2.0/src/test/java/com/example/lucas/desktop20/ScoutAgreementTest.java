@@ -0,0 +1,88 @@
+package com.example.lucas.desktop20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+
+/**
+ * Compares scouts counting the gears of the same robot in the same matches.
+ */
+public class ScoutAgreementTest {
+
+    private static final int GEAR_MAKES = MatchForm.Items.GEAR_MAKES.getId();
+
+    private ScoutAgreement agreement;
+
+    @Before
+    public void setUp() {
+        agreement = new ScoutAgreement();
+    }
+
+    private static Form form(String scoutName, int matchNum, int gears, String allianceScore) {
+        Form form = new MatchForm(1, 4048, matchNum, scoutName);
+        form.addRecord(new Record(Integer.toString(gears), GEAR_MAKES));
+        form.addRecord(new Record(allianceScore, MatchForm.Items.ALLIANCE_SCORE.getId()));
+        return form;
+    }
+
+    @Test
+    public void scoutsAreBiasedAgainstEachOther() {
+        assertFalse(agreement.addForm(form("A", 1, 5, "100")));
+        // Another match: nothing to compare against
+        assertFalse(agreement.addForm(form("B", 2, 3, "200")));
+        assertTrue(agreement.addForm(form("B", 1, 3, "300")));
+
+        assertEquals(2, agreement.getScout("A").getBias(GEAR_MAKES), 1e-9);
+        assertEquals(-2, agreement.getScout("B").getBias(GEAR_MAKES), 1e-9);
+        assertEquals(2, agreement.getItemDisagreement(GEAR_MAKES), 1e-9);
+        // The alliance scores differ by 200, but are not compared
+        assertEquals(2, agreement.getScout("A").getDeviation(), 1e-9);
+        assertEquals(1, agreement.getScout("A").getComparisons());
+        assertNull(agreement.getScout("C"));
+    }
+
+    @Test
+    public void scoutStrayingFromTheOthersIsAnOutlier() {
+        for (int matchNum = 1; matchNum <= 2; matchNum++) {
+            for (String scoutName : new String[] {"A", "B", "C"}) agreement.addForm(form(scoutName, matchNum, 4, "0"));
+            agreement.addForm(form("D", matchNum, 10, "0"));
+        }
+        assertEquals(Arrays.asList("D"), agreement.getOutliers());
+        assertEquals(6, agreement.getScout("D").getDeviation(), 1e-9);
+        assertEquals(6, agreement.getScout("D").getBias(GEAR_MAKES), 1e-9);
+        // One comparison in three is with D
+        assertEquals(2, agreement.getScout("A").getDeviation(), 1e-9);
+        assertEquals(-2, agreement.getScout("A").getBias(GEAR_MAKES), 1e-9);
+    }
+
+    @Test
+    public void scoutsAgreeingAreNotOutliers() {
+        for (int matchNum = 1; matchNum <= ScoutAgreement.MIN_COMPARISONS; matchNum++)
+            for (String scoutName : new String[] {"A", "B", "C"}) agreement.addForm(form(scoutName, matchNum, 4, "0"));
+        assertTrue(agreement.getOutliers().isEmpty());
+    }
+
+    @Test
+    public void scoutsWithTooFewComparisonsAreNotOutliers() {
+        agreement.addForm(form("A", 1, 4, "0"));
+        agreement.addForm(form("B", 1, 4, "0"));
+        agreement.addForm(form("C", 1, 4, "0"));
+        agreement.addForm(form("D", 1, 10, "0"));
+        assertEquals(3, agreement.getScout("D").getComparisons());
+        agreement.addForm(form("E", 2, 10, "0"));
+        agreement.addForm(form("F", 2, 4, "0"));
+        // E and F stray from each other as far as D strays, with one comparison each
+        assertEquals(Arrays.asList("D"), agreement.getOutliers());
+    }
+
+}
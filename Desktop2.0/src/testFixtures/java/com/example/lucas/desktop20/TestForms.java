@@ -0,0 +1,86 @@
+package com.example.lucas.desktop20;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import com.example.lucas.formcodec20.Form;
+
+/**
+ * Forms for the integration tests and benchmarks, generated the same way every time from a seed.
+ * They come from LoadGenerator, so they hold the values real scouts would enter. Every form is
+ * drawn from the same random numbers, so the forms depend on the order they are asked for in.
+ *
+ * The tests and benchmarks keep their databases and form logs in a TemporaryFolder, which this
+ * source set hands out with JUnit.
+ */
+final class TestForms {
+
+    static final long SEED = 2017;
+
+    private final LoadGenerator generator;
+    private final Random random;
+
+    TestForms() {
+        this(SEED);
+    }
+
+    /**
+     * @param seed - the seed of the random numbers the forms are drawn from
+     */
+    TestForms(long seed) {
+        try {
+            generator = new LoadGenerator(new HashMap<String, String>());
+        } catch (IOException e) {
+            // Only a team list file is read, and none is given
+            throw new IllegalStateException(e);
+        } // End try
+        random = new Random(seed);
+    }
+
+    /**
+     * @param index - the number of forms asked for before this one, by matchForms
+     * @return the form a tablet out of six scouting consecutive matches sends at that index
+     */
+    Form matchForm(int index) {
+        return generator.makeMatchForm(1 + index % 6, index % 6, 1 + index / 6, random);
+    }
+
+    /**
+     * @param count - the number of forms
+     * @return match forms from six tablets scouting consecutive matches
+     */
+    ArrayList<Form> matchForms(int count) {
+        ArrayList<Form> forms = new ArrayList<>();
+        for (int i = 0; i < count; i++) forms.add(matchForm(i));
+        return forms;
+    }
+
+    /**
+     * @param tabletNum - the tablet sending the form
+     * @param matchNum - the match scouted
+     * @return a match form from the first team the tablet scouts in that match
+     */
+    Form matchForm(int tabletNum, int matchNum) {
+        return generator.makeMatchForm(tabletNum, 0, matchNum, random);
+    }
+
+    /**
+     * @return a prescouting form, of the same team every time
+     */
+    Form prescoutingForm() {
+        return generator.makePrescoutingForm(7, 0, random);
+    }
+
+    /**
+     * @param count - the number of forms
+     * @return prescouting forms of consecutive teams
+     */
+    ArrayList<Form> prescoutingForms(int count) {
+        ArrayList<Form> forms = new ArrayList<>();
+        for (int i = 0; i < count; i++) forms.add(generator.makePrescoutingForm(7, i, random));
+        return forms;
+    }
+
+}
@@ -1,4 +1,4 @@
-package com.example.lucas.prescouting20;
+package com.example.lucas.formcodec20;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -14,11 +14,15 @@ public class Form {
 	private String scoutName;
 	// database report id
 	private int reportID;
+	// per-tablet sequence number, or -1 if the form was saved without one
+	private long sequenceNum = -1;
 	ArrayList<Record> records;
 	
 	public static final String FORM_DELIMITER = "||";
 	public static final String ITEM_DELIMITER = "|";
 	public static final String ID_DELIMITER = ",";
+	static final char ITEM_SEPARATOR = '|';
+	static final char ID_SEPARATOR = ',';
 	
 	public enum FormType {
 		PRESCOUTING_FORM, MATCH_FORM
@@ -134,6 +138,14 @@ public class Form {
 	public void setFormID(int reportID) {
 		this.reportID = reportID;
 	}
+
+	public long getSequenceNum() {
+		return sequenceNum;
+	}
+
+	public void setSequenceNum(long sequenceNum) {
+		this.sequenceNum = sequenceNum;
+	}
 	
 	public String getScoutName() {
 		return scoutName;
@@ -191,49 +203,115 @@ public class Form {
 		return bool;
 	}
 	
+	// Reads the header and the records out of the text in a single pass, without regular
+	// expressions or intermediate strings. The form type may be written as its ordinal, as the
+	// tablets write it, or by name.
 	private static void breakDownForm(Form form) {
 		String rawForm = form.getRawForm();
-		if (rawForm != null) {
-			String[] items = rawForm.split("\\" + ITEM_DELIMITER);
-			int type = Integer.parseInt(items[FormOrder.FORM_TYPE]);
-			if (type == FormType.MATCH_FORM.ordinal()) form.setFormType(FormType.MATCH_FORM);
-			else if (type == FormType.PRESCOUTING_FORM.ordinal()) form.setFormType(FormType.PRESCOUTING_FORM);
-			form.setTabletNum(Integer.parseInt(items[FormOrder.TABLET_NUM]));
-			form.setTeamNum(Integer.parseInt(items[FormOrder.TEAM_NUM]));
-			form.setScoutName(items[FormOrder.SCOUT_NAME]);
-			form.setMatchNum(Integer.parseInt(items[FormOrder.MATCH_NUM]));
-			String rawRecords = "";
-			for (int i = 0; i < items.length-(FormOrder.highestIndex()+1); i++) {
-				if (i == 0) rawRecords += items[FormOrder.highestIndex()+i+1];
-				else rawRecords += ITEM_DELIMITER + items[FormOrder.highestIndex()+i+1];
+		if (rawForm == null) return;
+		int start = 0;
+		for (int field = 0; field <= FormOrder.highestIndex(); field++) {
+			int end = rawForm.indexOf(ITEM_SEPARATOR, start);
+			if (end == -1) {
+				if (field < FormOrder.highestIndex())
+					throw new IllegalArgumentException("Form is missing its header: " + rawForm);
+				end = rawForm.length();
+			}
+			switch (field) {
+				case FormOrder.FORM_TYPE:
+					FormType type = parseFormType(rawForm, start, end);
+					if (type != null) form.setFormType(type);
+					break;
+				case FormOrder.TABLET_NUM:
+					form.setTabletNum(parseInt(rawForm, start, end));
+					break;
+				case FormOrder.SCOUT_NAME:
+					form.setScoutName(rawForm.substring(start, end));
+					break;
+				case FormOrder.TEAM_NUM:
+					form.setTeamNum(parseInt(rawForm, start, end));
+					break;
+				case FormOrder.MATCH_NUM:
+					form.setMatchNum(parseInt(rawForm, start, end));
+					break;
 			}
-			form.addRecords(breakDownRecords(rawRecords, form.getFormType()));
+			start = end + 1;
 		}
+		if (start < rawForm.length()) breakDownRecords(rawForm, start, form.records);
 	}
-	
+
 	private static Record[] breakDownRecords(String rawRecords, FormType type) {
 		ArrayList<Record> formRecords = new ArrayList<>();
-		String[] records = rawRecords.split("\\" + ITEM_DELIMITER);
-		for (String record : records) {
-			String[] elements = record.split("\\" + ID_DELIMITER);
-			formRecords.add(new Record(elements[1], Integer.parseInt(elements[0])));
+		breakDownRecords(rawRecords, 0, formRecords);
+		return formRecords.toArray(new Record[formRecords.size()]);
+	}
+
+	// Adds a record for every "id,value" pair from the start of the text on; empty pairs, such as
+	// one left by a trailing delimiter, are skipped
+	private static void breakDownRecords(String rawRecords, int start, ArrayList<Record> formRecords) {
+		while (start < rawRecords.length()) {
+			int end = rawRecords.indexOf(ITEM_SEPARATOR, start);
+			if (end == -1) end = rawRecords.length();
+			if (end > start) {
+				int comma = rawRecords.indexOf(ID_SEPARATOR, start);
+				if ((comma == -1) || (comma > end))
+					throw new IllegalArgumentException("Record has no value: " + rawRecords.substring(start, end));
+				formRecords.add(new Record(rawRecords.substring(comma + 1, end), parseInt(rawRecords, start, comma)));
+			}
+			start = end + 1;
 		}
-		return formRecords.toArray(new Record[0]);
 	}
-	
+
+	private static FormType parseFormType(String text, int start, int end) {
+		if ((end > start) && Character.isDigit(text.charAt(start))) {
+			int ordinal = parseInt(text, start, end);
+			return (ordinal < FormType.values().length) ? FormType.values()[ordinal] : null;
+		}
+		try {
+			return FormType.valueOf(text.substring(start, end));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	// Integer.parseInt on part of a string, without copying it out first
+	static int parseInt(String text, int start, int end) {
+		boolean negative = (end > start) && (text.charAt(start) == '-');
+		int i = negative ? start + 1 : start;
+		if (i == end) throw new NumberFormatException("For input string: \"" + text.substring(start, end) + "\"");
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = text.charAt(i) - '0';
+			if ((digit < 0) || (digit > 9) || (value > Integer.MAX_VALUE))
+				throw new NumberFormatException("For input string: \"" + text.substring(start, end) + "\"");
+			value = value * 10 + digit;
+		}
+		value = negative ? -value : value;
+		if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE))
+			throw new NumberFormatException("For input string: \"" + text.substring(start, end) + "\"");
+		return (int) value;
+	}
+
+	/**
+	 * @return the form in the text format: the form type's ordinal, the tablet number, the scout
+	 * 			name, the team number and the match number, then every record, separated by the
+	 * 			item delimiter. The text is kept, so later calls return it as is.
+	 */
 	@Override
 	public String toString() {
 		if (rawForm != null) return rawForm;
-		else {
-			rawForm = formType.ordinal() + ITEM_DELIMITER;
-			rawForm += tabletNum + ITEM_DELIMITER;
-			rawForm += scoutName + ITEM_DELIMITER;
-			rawForm += teamNum + ITEM_DELIMITER;
-			rawForm += matchNum;
-			for (int i = 0; i < records.size(); i++)
-				rawForm += ITEM_DELIMITER + records.get(i).toString();
-			return rawForm;
+		StringBuilder text = new StringBuilder(32 + 8 * records.size());
+		text.append(formType.ordinal()).append(ITEM_SEPARATOR);
+		text.append(tabletNum).append(ITEM_SEPARATOR);
+		text.append(scoutName).append(ITEM_SEPARATOR);
+		text.append(teamNum).append(ITEM_SEPARATOR);
+		text.append(matchNum);
+		for (int i = 0; i < records.size(); i++) {
+			Record record = records.get(i);
+			text.append(ITEM_SEPARATOR).append(record.getItemID()).append(ID_SEPARATOR).append(record.getValue());
 		}
+		rawForm = text.toString();
+		return rawForm;
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,311 @@
+package com.example.lucas.formcodec20;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * Compact binary encoding of forms, used by the tablets to save and transfer forms and read by
+ * the master computer alongside the legacy text format.
+ *
+ * A binary file starts with MAGIC and the encoding version, followed by the forms back to back.
+ * Every number is a varint (7 bits per byte, low bits first); signed numbers are zigzag encoded
+ * first so small negative numbers stay small. A form is:
+ * - the form type, sequence number (since version 2), tablet number, scout name, team number,
+ * 	 match number and record count,
+ * - one record per item: the difference from the previous record's item id, shifted left to make
+ * 	 room for a 3 bit value tag, then the value if the tag needs one.
+ *
+ * Value tags are chosen from the value itself, so either side can decode a form without the
+ * other's item tables: booleans take no bytes at all, integers and options are varints, and
+ * anything else is a length-prefixed UTF-8 string, which needs no escaping of the delimiters.
+ * The MAGIC byte can never start a text file, since text forms start with a digit.
+ */
+public final class FormCodec {
+
+	public static final byte MAGIC = (byte) 0xB5;
+	public static final byte VERSION = 2;
+	// What a comma in a value is written as in the legacy text format
+	public static final String LEGACY_COMMA = "~";
+
+	static final int TAG_BITS = 3;
+	static final int TAG_NULL = 0;
+	static final int TAG_ZERO = 1;
+	static final int TAG_ONE = 2;
+	static final int TAG_INTEGER = 3;
+	static final int TAG_STRING = 4;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private FormCodec() {
+	}
+
+	/**
+	 * @return the bytes every binary file starts with
+	 */
+	public static byte[] header() {
+		return new byte[] {MAGIC, VERSION};
+	}
+
+	/**
+	 * @param content - the contents of a file
+	 * @return true if the contents are binary encoded forms rather than text forms
+	 */
+	public static boolean isBinary(byte[] content) {
+		return (content.length > 0) && (content[0] == MAGIC);
+	}
+
+	/**
+	 * @param file - a file of forms
+	 * @return true if the file holds binary encoded forms; false if it holds text forms or is empty
+	 * @throws IOException if the file could not be read
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		if (!file.exists()) return false;
+		FileInputStream in = new FileInputStream(file);
+		try {
+			return in.read() == (MAGIC & 0xFF);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Encodes a single form, without the file header. A form without a scout name is written with
+	 * an empty one.
+	 * @param form - the form to encode
+	 * @return the encoded form
+	 */
+	public static byte[] encode(Form form) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+		writeUnsigned(out, form.getFormType().ordinal());
+		writeSigned(out, form.getSequenceNum());
+		writeSigned(out, form.getTabletNum());
+		writeString(out, (form.getScoutName() == null) ? "" : form.getScoutName());
+		writeSigned(out, form.getTeamNum());
+		writeSigned(out, form.getMatchNum());
+		ArrayList<Record> records = form.getAllRecords();
+		writeUnsigned(out, records.size());
+		int previousID = 0;
+		for (Record record : records) {
+			long delta = zigzag(record.getItemID() - previousID);
+			previousID = record.getItemID();
+			String value = record.getValue();
+			if (value == null) writeUnsigned(out, (delta << TAG_BITS) | TAG_NULL);
+			else if (value.equals("0")) writeUnsigned(out, (delta << TAG_BITS) | TAG_ZERO);
+			else if (value.equals("1")) writeUnsigned(out, (delta << TAG_BITS) | TAG_ONE);
+			else if (isInteger(value)) {
+				writeUnsigned(out, (delta << TAG_BITS) | TAG_INTEGER);
+				writeSigned(out, Long.parseLong(value));
+			} else {
+				writeUnsigned(out, (delta << TAG_BITS) | TAG_STRING);
+				writeString(out, value);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Encodes forms as a complete binary file, header included.
+	 * @param forms - the forms to encode
+	 * @return the contents of the file
+	 */
+	public static byte[] encode(Iterable<? extends Form> forms) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] header = header();
+		out.write(header, 0, header.length);
+		for (Form form : forms) {
+			byte[] encoded = encode(form);
+			out.write(encoded, 0, encoded.length);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes a binary file of forms. The bytes are read in place: only the forms, their records
+	 * and their string values are allocated.
+	 * @param content - the contents of the file, header included
+	 * @return the forms in the file, in order
+	 * @throws IllegalArgumentException if the contents are not binary forms, were written by a
+	 * 			newer version, are cut short, or hold a form type this version does not know
+	 */
+	public static ArrayList<Form> decode(byte[] content) {
+		if (!isBinary(content)) throw new IllegalArgumentException("Not a binary form file");
+		if ((content.length < 2) || (content[1] > VERSION))
+			throw new IllegalArgumentException("Unsupported form encoding version");
+		int version = content[1];
+		ArrayList<Form> forms = new ArrayList<>();
+		int[] position = {2};
+		try {
+			while (position[0] < content.length) forms.add(readForm(content, position, version, forms.size()));
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Form " + forms.size() + " is cut short");
+		}
+		return forms;
+	}
+
+	/**
+	 * Decodes a single form written by encode(Form), with the current version.
+	 * @param encoded - the encoded form
+	 * @return the form
+	 * @throws IllegalArgumentException if the bytes are not a whole form, or not of a form type
+	 * 			this version knows
+	 */
+	public static Form decodeForm(byte[] encoded) {
+		int[] position = {0};
+		Form form;
+		try {
+			form = readForm(encoded, position, VERSION, 0);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Form is cut short");
+		}
+		if (position[0] != encoded.length) throw new IllegalArgumentException("Form is followed by other bytes");
+		return form;
+	}
+
+	private static Form readForm(byte[] content, int[] position, int version, int index) {
+		long ordinal = readUnsigned(content, position);
+		if ((ordinal < 0) || (ordinal >= Form.FormType.values().length))
+			throw new IllegalArgumentException("Unknown form type " + ordinal + " in form " + index);
+		Form.FormType type = Form.FormType.values()[(int) ordinal];
+		long sequenceNum = (version >= 2) ? readSigned(content, position) : -1;
+		int tabletNum = (int) readSigned(content, position);
+		String scoutName = readString(content, position);
+		int teamNum = (int) readSigned(content, position);
+		int matchNum = (int) readSigned(content, position);
+		Form form = new Form(type, tabletNum, teamNum, matchNum, scoutName);
+		form.setSequenceNum(sequenceNum);
+		int recordCount = (int) readUnsigned(content, position);
+		int itemID = 0;
+		for (int i = 0; i < recordCount; i++) {
+			long key = readUnsigned(content, position);
+			itemID += (int) unzigzag(key >>> TAG_BITS);
+			String value;
+			switch ((int) (key & ((1 << TAG_BITS) - 1))) {
+				case TAG_NULL:
+					value = null;
+					break;
+				case TAG_ZERO:
+					value = "0";
+					break;
+				case TAG_ONE:
+					value = "1";
+					break;
+				case TAG_INTEGER:
+					value = String.valueOf(readSigned(content, position));
+					break;
+				case TAG_STRING:
+					value = readString(content, position);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown value tag in form " + index);
+			}
+			form.addRecord(new Record(value, itemID));
+		}
+		return form;
+	}
+
+	/**
+	 * Writes a form in the legacy text format, for a tablet still appending to a text file. Readers
+	 * of that format split a record at every ID delimiter, so commas in values are written as
+	 * LEGACY_COMMA; binary forms keep them as they are.
+	 * @param form - the form to write
+	 * @return the form as text, without the form delimiter
+	 */
+	public static String toText(Form form) {
+		Form text = new Form(form.getFormType(), form.getTabletNum(), form.getTeamNum(), form.getMatchNum(),
+				form.getScoutName());
+		for (Record record : form.getAllRecords()) {
+			String value = record.getValue();
+			if (value != null) value = value.replace(Form.ID_DELIMITER, LEGACY_COMMA);
+			text.addRecord(new Record(value, record.getItemID()));
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Parses forms in the legacy text format, where forms are separated (or, since tablets append
+	 * them, terminated) by the form delimiter.
+	 * @param content - the text, on a single line
+	 * @return the forms in the text, in order
+	 */
+	public static ArrayList<Form> fromText(String content) {
+		ArrayList<Form> forms = new ArrayList<>();
+		int start = 0;
+		while (start < content.length()) {
+			int index = content.indexOf(Form.FORM_DELIMITER, start);
+			int end = (index == -1) ? content.length() : index;
+			String rawForm = content.substring(start, end);
+			if (!rawForm.trim().isEmpty()) forms.add(new Form(rawForm));
+			start = end + Form.FORM_DELIMITER.length();
+		}
+		return forms;
+	}
+
+	// True if the value is exactly how Long.toString would print a number
+	static boolean isInteger(String value) {
+		int start = value.startsWith("-") ? 1 : 0;
+		int length = value.length() - start;
+		if ((length == 0) || (length > 18)) return false;
+		if ((value.charAt(start) == '0') && ((length > 1) || (start == 1))) return false;
+		for (int i = start; i < value.length(); i++)
+			if ((value.charAt(i) < '0') || (value.charAt(i) > '9')) return false;
+		return true;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static void writeSigned(ByteArrayOutputStream out, long value) {
+		writeUnsigned(out, zigzag(value));
+	}
+
+	private static void writeString(ByteArrayOutputStream out, String value) {
+		byte[] bytes = value.getBytes(UTF8);
+		writeUnsigned(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private static long readUnsigned(byte[] in, int[] position) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if (shift > 63) throw new IllegalArgumentException("Malformed varint");
+			b = in[position[0]++];
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static long readSigned(byte[] in, int[] position) {
+		return unzigzag(readUnsigned(in, position));
+	}
+
+	private static String readString(byte[] in, int[] position) {
+		int length = (int) readUnsigned(in, position);
+		if ((length < 0) || (position[0] + length > in.length))
+			throw new ArrayIndexOutOfBoundsException();
+		String value = new String(in, position[0], length, UTF8);
+		position[0] += length;
+		return value;
+	}
+
+}
@@ -1,3 +1,5 @@
+package com.example.lucas.formcodec20;
+
 public class MatchForm extends Form {
     
     public static final class Items {
@@ -31,6 +33,7 @@ public class MatchForm extends Form {
         public static final Item FOUL_POINTS = new Item(105, "Foul Points?", Item.Datatype.BOOLEAN);
         public static final Item YELLOW_CARD = new Item(106, "Yellow Card?", Item.Datatype.BOOLEAN);
         public static final Item RED_CARD = new Item(107, "Red Card?", Item.Datatype.BOOLEAN);
+        public static final Item ALLIANCE_SCORE = new Item(123, "Alliance Score", Item.Datatype.INTEGER);
     }
     
     public static final Item[] matchItems = {
@@ -49,6 +52,12 @@ public class MatchForm extends Form {
     MatchForm.Items.YELLOW_CARD, MatchForm.Items.RED_CARD
     };
     
+    // Items a match form carries about the scouted team's alliance rather than the team. They are
+    // kept out of matchItems, and so out of every per-team list, average and weight.
+    public static final Item[] allianceItems = {
+    MatchForm.Items.ALLIANCE_SCORE
+    };
+    
     public static final class AUTO_GEAR_PLACEMENT {
         public static final Option LEFT = new Option("Left", -1, 86);
         public static final Option CENTER = new Option("Center", 0, 86);
@@ -96,6 +105,17 @@ public class MatchForm extends Form {
         public static final Option NA = new Option("N/A", -2, 103);
     }
     
+    /**
+     * Looks up a match form item by its database id.
+     * @param itemID - the database id of the item
+     * @return the match form item, or null if the id does not belong to the match form
+     */
+    public static Item getItem(int itemID) {
+        for (Item i : MatchForm.matchItems)
+            if (i.getId() == itemID) return i;
+        return null;
+    }
+
     public MatchForm(int tabletNum, int teamNum, int matchNum, String scoutName) {
         super(FormType.MATCH_FORM, tabletNum, teamNum, matchNum, scoutName);
     }
@@ -1,3 +1,5 @@
+package com.example.lucas.formcodec20;
+
 public class Option {
 
 	private String name;
@@ -1,3 +1,5 @@
+package com.example.lucas.formcodec20;
+
 import java.util.ArrayList;
 
 public class PrescoutingForm extends Form {
@@ -1,4 +1,4 @@
-package com.example.lucas.prescouting20;
+package com.example.lucas.formcodec20;
 
 public final class Record {
 
@@ -11,10 +11,12 @@ public final class Record {
 		this.itemID = itemID;
 	}
 	
+	// Parses "id,value"; everything after the first comma is the value, commas included
 	public Record(String value) {
-		String[] values = value.split(Form.ID_DELIMITER);
-		this.itemID = Integer.valueOf(values[0]);
-		this.value = values[1];
+		int comma = value.indexOf(Form.ID_SEPARATOR);
+		if (comma == -1) throw new IllegalArgumentException("Record has no value: " + value);
+		this.itemID = Form.parseInt(value, 0, comma);
+		this.value = value.substring(comma + 1);
 	}
 
 	public String getValue() {
@@ -0,0 +1,251 @@
+package com.example.lucas.formcodec20;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The file a tablet sends to the master computer: a batch of binary encoded forms (see
+ * FormCodec), compressed and checksummed so a transfer cut short or corrupted on the way is
+ * rejected before any of its forms reach the database.
+ *
+ * A bundle is:
+ * - a header: MAGIC, the version, the tablet number, the sequence numbers of the first and last
+ * 	 forms, the form count and the length of the body,
+ * - the body: the forms as a FormCodec file, deflated,
+ * - a trailer: the CRC32 of the header and the body.
+ */
+public final class TransferBundle {
+
+	public static final byte MAGIC = (byte) 0xB6;
+	public static final byte VERSION = 1;
+	// The sequence number of a bundle whose forms are not numbered
+	public static final long NO_SEQUENCE = -1;
+	// No tablet holds anywhere near this much, so a bigger body means a corrupted header
+	public static final int MAX_BODY_LENGTH = 64 * 1024 * 1024;
+
+	// MAGIC, version, tablet number, first and last sequence numbers, form count, body length
+	public static final int HEADER_LENGTH = 1 + 1 + 4 + 8 + 8 + 4 + 4;
+
+	private int tabletNum;
+	private long firstSequence;
+	private long lastSequence;
+	private ArrayList<Form> forms;
+
+	private TransferBundle(int tabletNum, long firstSequence, long lastSequence, ArrayList<Form> forms) {
+		this.tabletNum = tabletNum;
+		this.firstSequence = firstSequence;
+		this.lastSequence = lastSequence;
+		this.forms = forms;
+	}
+
+	public int getTabletNum() {
+		return tabletNum;
+	}
+
+	public long getFirstSequence() {
+		return firstSequence;
+	}
+
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	public ArrayList<Form> getForms() {
+		return forms;
+	}
+
+	/**
+	 * @param file - a file received from a tablet
+	 * @return true if the file is a bundle
+	 * @throws IOException if the file could not be read
+	 */
+	public static boolean isBundle(File file) throws IOException {
+		if (!file.exists()) return false;
+		FileInputStream in = new FileInputStream(file);
+		try {
+			return in.read() == (MAGIC & 0xFF);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Builds a bundle.
+	 * @param tabletNum - the tablet sending the forms
+	 * @param firstSequence - the sequence number of the first form, or NO_SEQUENCE
+	 * @param lastSequence - the sequence number of the last form, or NO_SEQUENCE
+	 * @param forms - the forms as a FormCodec file, header included
+	 * @param formCount - the number of forms in the file
+	 * @return the contents of the bundle
+	 */
+	public static byte[] write(int tabletNum, long firstSequence, long lastSequence, byte[] forms,
+			int formCount) {
+		try {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(forms.length / 2 + 64);
+			DeflaterOutputStream deflater = new DeflaterOutputStream(compressed,
+					new Deflater(Deflater.BEST_COMPRESSION));
+			deflater.write(forms);
+			deflater.close();
+			byte[] body = compressed.toByteArray();
+
+			ByteArrayOutputStream bundle = new ByteArrayOutputStream(body.length + 64);
+			DataOutputStream out = new DataOutputStream(bundle);
+			out.writeByte(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(tabletNum);
+			out.writeLong(firstSequence);
+			out.writeLong(lastSequence);
+			out.writeInt(formCount);
+			out.writeInt(body.length);
+			out.write(body);
+			CRC32 crc = new CRC32();
+			crc.update(bundle.toByteArray());
+			out.writeInt((int) crc.getValue());
+			out.flush();
+			return bundle.toByteArray();
+		} catch (IOException e) {
+			// Writing to memory does not fail, but the stream API declares it
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes a bundle straight to a file, one form at a time, so a bundle of any size is built
+	 * without holding its forms in memory. The body is deflated as it is written; the header and
+	 * the checksum are filled in by close().
+	 */
+	public static final class Writer {
+
+		private File file;
+		private int tabletNum;
+		private long firstSequence = NO_SEQUENCE;
+		private long lastSequence = NO_SEQUENCE;
+		private int formCount = 0;
+		private FileOutputStream out;
+		private DeflaterOutputStream deflater;
+
+		/**
+		 * @param file - the file to write; it is replaced
+		 * @param tabletNum - the tablet sending the forms
+		 * @throws IOException if the file could not be written
+		 */
+		public Writer(File file, int tabletNum) throws IOException {
+			this.file = file;
+			this.tabletNum = tabletNum;
+			out = new FileOutputStream(file, false);
+			out.write(new byte[HEADER_LENGTH]);
+			deflater = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_COMPRESSION), 8192);
+			deflater.write(FormCodec.header());
+		}
+
+		/**
+		 * Adds a form to the bundle. Forms with sequence numbers must be added in order.
+		 * @param form - the form to add
+		 * @throws IOException if the file could not be written
+		 */
+		public void add(Form form) throws IOException {
+			deflater.write(FormCodec.encode(form));
+			formCount++;
+			if (form.getSequenceNum() < 0) return;
+			if (firstSequence == NO_SEQUENCE) firstSequence = form.getSequenceNum();
+			lastSequence = form.getSequenceNum();
+		}
+
+		public int getFormCount() {
+			return formCount;
+		}
+
+		/**
+		 * Finishes the body, then writes the header and the checksum, and syncs the file.
+		 * @throws IOException if the file could not be written
+		 */
+		public void close() throws IOException {
+			deflater.finish();
+			out.getFD().sync();
+			out.close();
+			long bodyLength = file.length() - HEADER_LENGTH;
+			if (bodyLength > MAX_BODY_LENGTH) throw new IOException("Bundle is too big");
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				raf.writeByte(MAGIC);
+				raf.writeByte(VERSION);
+				raf.writeInt(tabletNum);
+				raf.writeLong(firstSequence);
+				raf.writeLong(lastSequence);
+				raf.writeInt(formCount);
+				raf.writeInt((int) bodyLength);
+				// The checksum covers the header and the body, read back in one sequential pass
+				raf.seek(0);
+				CRC32 crc = new CRC32();
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = raf.read(buffer)) != -1) crc.update(buffer, 0, read);
+				raf.writeInt((int) crc.getValue());
+				raf.getFD().sync();
+			} finally {
+				raf.close();
+			}
+		}
+
+	}
+
+	/**
+	 * Reads a bundle from a stream, checking it on the way.
+	 * @param in - the stream, positioned at the start of the bundle
+	 * @return the bundle
+	 * @throws IOException if the stream could not be read, or the bundle is cut short, corrupted,
+	 * 			or written by a newer version
+	 */
+	public static TransferBundle read(InputStream in) throws IOException {
+		CRC32 crc = new CRC32();
+		DataInputStream data = new DataInputStream(new CheckedInputStream(in, crc));
+		try {
+			if (data.readByte() != MAGIC) throw new IOException("Not a transfer bundle");
+			if (data.readByte() > VERSION) throw new IOException("Unsupported bundle version");
+			int tabletNum = data.readInt();
+			long firstSequence = data.readLong();
+			long lastSequence = data.readLong();
+			int formCount = data.readInt();
+			int bodyLength = data.readInt();
+			if ((bodyLength < 0) || (bodyLength > MAX_BODY_LENGTH))
+				throw new IOException("Bundle header is corrupted");
+			byte[] body = new byte[bodyLength];
+			data.readFully(body);
+			int checksum = (int) crc.getValue();
+			// The trailer is not part of what it checks
+			if (new DataInputStream(in).readInt() != checksum)
+				throw new IOException("Bundle checksum does not match; the file is corrupted");
+
+			InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(body));
+			ByteArrayOutputStream forms = new ByteArrayOutputStream(bodyLength * 4);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = inflater.read(buffer)) != -1) forms.write(buffer, 0, read);
+			inflater.close();
+			ArrayList<Form> decoded = FormCodec.decode(forms.toByteArray());
+			if (decoded.size() != formCount)
+				throw new IOException("Bundle holds " + decoded.size() + " forms instead of " + formCount);
+			return new TransferBundle(tabletNum, firstSequence, lastSequence, decoded);
+		} catch (EOFException e) {
+			throw new IOException("Bundle is cut short");
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+}
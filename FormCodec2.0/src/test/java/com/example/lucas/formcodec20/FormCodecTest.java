@@ -0,0 +1,185 @@
+package com.example.lucas.formcodec20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Encodes forms and decodes them back, and decodes bytes no encoder would write.
+ */
+public class FormCodecTest {
+
+	// Numbers around every varint length and the ends of the ranges they are read into
+	private static final long[] BOUNDARIES = {0, 1, -1, 63, -64, 64, -65, 8191, -8192, 8192, -8193,
+			Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+
+	private static Form matchForm() {
+		Form form = new Form(Form.FormType.MATCH_FORM, 3, 4048, 12, "Scout 3");
+		form.setSequenceNum(1234567);
+		form.addRecord(new Record("1", 85));
+		form.addRecord(new Record("0", 84));
+		form.addRecord(new Record(null, 86));
+		form.addRecord(new Record("-2", 93));
+		form.addRecord(new Record("17", 99));
+		form.addRecord(new Record("Fast, but|tips over ~ null", 44));
+		form.addRecord(new Record("007", 1));
+		return form;
+	}
+
+	private static void assertSameForm(Form expected, Form actual) {
+		assertEquals(expected.getFormType(), actual.getFormType());
+		assertEquals(expected.getSequenceNum(), actual.getSequenceNum());
+		assertEquals(expected.getTabletNum(), actual.getTabletNum());
+		assertEquals(expected.getScoutName(), actual.getScoutName());
+		assertEquals(expected.getTeamNum(), actual.getTeamNum());
+		assertEquals(expected.getMatchNum(), actual.getMatchNum());
+		assertEquals(expected.getAllRecords().size(), actual.getAllRecords().size());
+		for (int i = 0; i < expected.getAllRecords().size(); i++) {
+			assertEquals(expected.getAllRecords().get(i).getItemID(), actual.getAllRecords().get(i).getItemID());
+			assertEquals(expected.getAllRecords().get(i).getValue(), actual.getAllRecords().get(i).getValue());
+		}
+	}
+
+	private static void assertRejected(byte[] content, String message) {
+		try {
+			FormCodec.decode(content);
+			fail("Decoded " + Arrays.toString(content));
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+
+	// Writes a varint the way the codec does, for bytes the encoder would not write
+	private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	@Test
+	public void formsAreDecodedAsEncoded() {
+		Form prescouting = new Form(Form.FormType.PRESCOUTING_FORM, 7, 254, "Scouts 7");
+		prescouting.addRecord(new Record("Swerve", 10));
+		ArrayList<Form> forms = new ArrayList<>(Arrays.asList(matchForm(), prescouting));
+		byte[] content = FormCodec.encode(forms);
+		assertTrue(FormCodec.isBinary(content));
+		ArrayList<Form> decoded = FormCodec.decode(content);
+		assertEquals(2, decoded.size());
+		assertSameForm(forms.get(0), decoded.get(0));
+		assertSameForm(prescouting, decoded.get(1));
+		assertSameForm(forms.get(0), FormCodec.decodeForm(FormCodec.encode(forms.get(0))));
+	}
+
+	@Test
+	public void numbersAreDecodedAsEncodedAtEveryVarintLength() {
+		for (long number : BOUNDARIES) {
+			Form form = new Form(Form.FormType.MATCH_FORM, (int) number, (int) number, (int) number, "Scout");
+			form.setSequenceNum(number);
+			if (number != Long.MIN_VALUE) form.addRecord(new Record(Long.toString(number), 5));
+			form.addRecord(new Record("1", (int) number));
+			assertSameForm(form, FormCodec.decodeForm(FormCodec.encode(form)));
+		}
+	}
+
+	@Test
+	public void onlyNumbersLongCanPrintAreEncodedAsIntegers() {
+		assertTrue(FormCodec.isInteger("0"));
+		assertTrue(FormCodec.isInteger("-999999999999999999"));
+		assertFalse(FormCodec.isInteger("1000000000000000000"));
+		assertFalse(FormCodec.isInteger("-0"));
+		assertFalse(FormCodec.isInteger("007"));
+		assertFalse(FormCodec.isInteger("-"));
+		assertFalse(FormCodec.isInteger(""));
+		assertFalse(FormCodec.isInteger("+1"));
+	}
+
+	@Test
+	public void formWithoutAScoutNameIsDecodedWithAnEmptyOne() {
+		Form form = new Form(Form.FormType.MATCH_FORM, 3, 4048, 12, null);
+		assertEquals("", FormCodec.decodeForm(FormCodec.encode(form)).getScoutName());
+	}
+
+	@Test
+	public void versionOneFormsHaveNoSequenceNumber() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(FormCodec.MAGIC);
+		out.write(1);
+		writeUnsigned(out, Form.FormType.MATCH_FORM.ordinal());
+		// Tablet 3, scout "A", team 4048, match 2, zigzag encoded
+		writeUnsigned(out, 6);
+		writeUnsigned(out, 1);
+		out.write('A');
+		writeUnsigned(out, 8096);
+		writeUnsigned(out, 4);
+		// One record, item 85 checked
+		writeUnsigned(out, 1);
+		writeUnsigned(out, (170 << FormCodec.TAG_BITS) | FormCodec.TAG_ONE);
+
+		Form form = FormCodec.decode(out.toByteArray()).get(0);
+		assertEquals(-1, form.getSequenceNum());
+		assertEquals(3, form.getTabletNum());
+		assertEquals("A", form.getScoutName());
+		assertEquals(4048, form.getTeamNum());
+		assertEquals(2, form.getMatchNum());
+		assertEquals(85, form.getAllRecords().get(0).getItemID());
+		assertEquals("1", form.getAllRecords().get(0).getValue());
+	}
+
+	@Test
+	public void commasAreEscapedOnlyInText() {
+		Form form = new Form(Form.FormType.MATCH_FORM, 3, 4048, 12, "Scout 3");
+		form.addRecord(new Record("1", 85));
+		form.addRecord(new Record("Fast, but tips, sometimes", 44));
+		form.addRecord(new Record(null, 86));
+		assertEquals("1|3|Scout 3|4048|12|85,1|44,Fast~ but tips~ sometimes|86,null", FormCodec.toText(form));
+		// The form itself is left as it was
+		assertEquals("Fast, but tips, sometimes", form.getAllRecords().get(1).getValue());
+		assertEquals("Fast, but tips, sometimes",
+				FormCodec.decodeForm(FormCodec.encode(form)).getAllRecords().get(1).getValue());
+	}
+
+	@Test
+	public void newerVersionsAndTextAreRejected() {
+		assertRejected(new byte[] {FormCodec.MAGIC, FormCodec.VERSION + 1}, "version");
+		assertRejected("0|3|Scout|4048|12".getBytes(), "Not a binary");
+	}
+
+	@Test
+	public void formsCutShortAreRejected() {
+		byte[] content = FormCodec.encode(Arrays.asList(matchForm()));
+		// Every cut inside the form
+		for (int length = FormCodec.header().length + 1; length < content.length; length++)
+			assertRejected(Arrays.copyOf(content, length), "cut short");
+		byte[] encoded = FormCodec.encode(matchForm());
+		try {
+			FormCodec.decodeForm(Arrays.copyOf(encoded, encoded.length - 1));
+			fail("Decoded a form cut short");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("cut short"));
+		}
+	}
+
+	@Test
+	public void unknownFormTypesAreRejected() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(FormCodec.header(), 0, FormCodec.header().length);
+		writeUnsigned(out, Form.FormType.values().length);
+		assertRejected(out.toByteArray(), "Unknown form type");
+		try {
+			FormCodec.decodeForm(new byte[] {(byte) 0xFF, (byte) 0xFF, 0x7F});
+			fail("Decoded an unknown form type");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("Unknown form type"));
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.example.lucas.formcodec20;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Writes bundles of match forms, then reads them back whole, cut short, and corrupted.
+ */
+public class TransferBundleTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ArrayList<Form> forms(int count) {
+		ArrayList<Form> forms = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Form form = new MatchForm(5, 4048 + i, i + 1, "Scout 5");
+			form.setSequenceNum(100 + i);
+			form.addRecord(new Record(Integer.toString(i), MatchForm.Items.GEAR_MAKES.getId()));
+			form.addRecord(new Record("Comment " + i, 44));
+			forms.add(form);
+		}
+		return forms;
+	}
+
+	private static byte[] bundle(ArrayList<Form> forms, int formCount) {
+		return TransferBundle.write(5, 100, 100 + forms.size() - 1, FormCodec.encode(forms), formCount);
+	}
+
+	private static TransferBundle read(byte[] bundle) throws IOException {
+		return TransferBundle.read(new ByteArrayInputStream(bundle));
+	}
+
+	private static void assertRejected(byte[] bundle, String message) {
+		try {
+			read(bundle);
+			fail("Read a bad bundle");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+
+	private static void assertBundle(TransferBundle bundle, int formCount) {
+		assertEquals(5, bundle.getTabletNum());
+		assertEquals(100, bundle.getFirstSequence());
+		assertEquals(100 + formCount - 1, bundle.getLastSequence());
+		assertEquals(formCount, bundle.getForms().size());
+		for (int i = 0; i < formCount; i++) {
+			Form form = bundle.getForms().get(i);
+			assertEquals(4048 + i, form.getTeamNum());
+			assertEquals(100 + i, form.getSequenceNum());
+			assertEquals("Comment " + i, form.getAllRecords().get(1).getValue());
+		}
+	}
+
+	@Test
+	public void bundlesAreReadAsWritten() throws IOException {
+		assertBundle(read(bundle(forms(20), 20)), 20);
+	}
+
+	@Test
+	public void bundlesWrittenToAFileAreReadAsWritten() throws IOException {
+		File file = folder.newFile("bundle");
+		TransferBundle.Writer writer = new TransferBundle.Writer(file, 5);
+		for (Form form : forms(20)) writer.add(form);
+		writer.close();
+		assertEquals(20, writer.getFormCount());
+		assertTrue(TransferBundle.isBundle(file));
+
+		FileInputStream in = new FileInputStream(file);
+		try {
+			assertBundle(TransferBundle.read(in), 20);
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void corruptedBundlesAreRejected() {
+		byte[] bundle = bundle(forms(20), 20);
+		// Every byte after the magic and the version, but before the checksum
+		for (int i = 2; i < bundle.length - 4; i++) {
+			byte[] corrupted = bundle.clone();
+			corrupted[i] ^= 0x10;
+			try {
+				read(corrupted);
+				fail("Read a bundle corrupted at " + i);
+			} catch (IOException e) {
+				// Either the checksum or the body length in the header catches it
+			}
+		}
+		byte[] body = bundle.clone();
+		body[TransferBundle.HEADER_LENGTH] ^= 0x10;
+		assertRejected(body, "checksum");
+	}
+
+	@Test
+	public void bundlesCutShortAreRejected() {
+		byte[] bundle = bundle(forms(20), 20);
+		for (int length = 0; length < bundle.length; length++)
+			assertRejected(Arrays.copyOf(bundle, length), "cut short");
+	}
+
+	@Test
+	public void bundlesHoldingTheWrongNumberOfFormsAreRejected() {
+		assertRejected(bundle(forms(20), 21), "holds 20 forms instead of 21");
+		assertRejected(bundle(forms(20), 19), "holds 20 forms instead of 19");
+	}
+
+	@Test
+	public void otherFilesAndNewerVersionsAreRejected() throws IOException {
+		byte[] bundle = bundle(forms(1), 1);
+		bundle[0] = FormCodec.MAGIC;
+		assertRejected(bundle, "Not a transfer bundle");
+		bundle[0] = TransferBundle.MAGIC;
+		bundle[1] = TransferBundle.VERSION + 1;
+		assertRejected(bundle, "Unsupported bundle version");
+		assertFalse(TransferBundle.isBundle(new File(folder.getRoot(), "missing")));
+	}
+
+}
@@ -37,7 +37,6 @@ import android.app.Dialog;
 import android.app.DialogFragment;
 import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.pm.PackageManager;
@@ -63,17 +62,24 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.MatchForm;
+import com.example.lucas.formcodec20.Record;
+import com.example.lucas.formcodec20.TransferBundle;
+
 public class MainActivity extends Activity {
 
     // VISUAL COMPONENTS
@@ -185,11 +191,31 @@ public class MainActivity extends Activity {
     }
     private Action actionRequested = Action.NONE;
 
-    private static final String STATE_SAVE_FILE = "stateSave.txt";
+    private static final String STATE_JOURNAL_FILE = "stateJournal.dat";
+    // Keys of the state journal's fields that are not records; records use their item id
+    private static final int STATE_FORMS_PENDING = -1;
+    private static final int STATE_MATCH_NUM = -2;
+    private static final int STATE_TEAM_NUM = -3;
+    private static final int STATE_SCOUT = -4;
+    private static final int STATE_ALLIANCE_SCORE = -5;
     private static final String TEMP_FILE = "tempFile.txt";
     private static final String ARCHIVE_FILE = "archiveFile.txt";
     private static final String CONFIG_FILE = "configFile.txt";
+    // The compressed, checksummed file that is actually sent to the master computer
+    private static final String BUNDLE_FILE = "transferBundle.txt";
     private static int archivedFiles = 0;
+    // All file I/O runs on this single background writer, shared by every instance of the
+    // activity, so the UI never blocks on the disk.
+    private static final PersistenceExecutor persistence = new PersistenceExecutor();
+    // The sequence number of the next form saved. Only used on the background writer; -1 until
+    // the forms already saved have been looked at.
+    private static long nextSequence = -1;
+    // The highest sequence number the master computer has acknowledged, from the config file
+    private static volatile long ackedSequence = TransferBundle.NO_SEQUENCE;
+    // The state is not saved until the last saved state is restored, or it would be overwritten.
+    private boolean stateRestored = false;
+    // The journal of the changes made to the current form
+    private StateJournal journal;
 
     // Alert Dialog items
     private static String MESSAGE = "";
@@ -297,10 +323,13 @@ public class MainActivity extends Activity {
                 names = contents.get(2).split(Form.ID_DELIMITER);
                 teams = contents.get(3).split(Form.ID_DELIMITER);
                 keywords = contents.get(4).split(Form.ID_DELIMITER);
+                // The acknowledgement is only there once the master computer has sent it
+                ackedSequence = (contents.size() > 5) ? Long.parseLong(contents.get(5).trim())
+                        : TransferBundle.NO_SEQUENCE;
             }
         } catch (IOException e) {
             Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-        } catch (IndexOutOfBoundsException | InputMismatchException e) {
+        } catch (IndexOutOfBoundsException | InputMismatchException | NumberFormatException e) {
             message = "CONFIG FILE FORMATTED INCORRECTLY.\n"
                     + "PLEASE FORMAT THE CONFIG FILE CORRECTLY";
             Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
@@ -355,6 +384,12 @@ public class MainActivity extends Activity {
         records[28] = redCard = new Record(null, MatchForm.Items.RED_CARD.getId());
     }
 
+    // Changes a record's value and saves the change to the state journal.
+    private void setRecord(Record record, String value) {
+        record.setValue(value);
+        if (stateRestored) journal.put(record.getItemID(), value);
+    }
+
     private void initLayout() {
         chooseName = (Spinner) findViewById(R.id.chooseName);
         ArrayAdapter<String> pickNameAdapter =
@@ -410,16 +445,16 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radAutoGearLeftSide:
-                        autoGearPlacement.setValue(MatchForm.AUTO_GEAR_PLACEMENT.LEFT.toString());
+                        setRecord(autoGearPlacement, MatchForm.AUTO_GEAR_PLACEMENT.LEFT.toString());
                         break;
                     case R.id.radAutoGearMiddle:
-                        autoGearPlacement.setValue(MatchForm.AUTO_GEAR_PLACEMENT.CENTER.toString());
+                        setRecord(autoGearPlacement, MatchForm.AUTO_GEAR_PLACEMENT.CENTER.toString());
                         break;
                     case R.id.radAutoGearRightSide:
-                        autoGearPlacement.setValue(MatchForm.AUTO_GEAR_PLACEMENT.RIGHT.toString());
+                        setRecord(autoGearPlacement, MatchForm.AUTO_GEAR_PLACEMENT.RIGHT.toString());
                         break;
                     case R.id.radAutoGearNA:
-                        autoGearPlacement.setValue(MatchForm.AUTO_GEAR_PLACEMENT.NA.toString());
+                        setRecord(autoGearPlacement, MatchForm.AUTO_GEAR_PLACEMENT.NA.toString());
                 }
             }
         });
@@ -429,13 +464,13 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radTeleopStrategyGear:
-                        strategy.setValue(MatchForm.STRATEGY.GEAR.toString());
+                        setRecord(strategy, MatchForm.STRATEGY.GEAR.toString());
                         break;
                     case R.id.radTeleopStrategyShoot:
-                        strategy.setValue(MatchForm.STRATEGY.FUEL.toString());
+                        setRecord(strategy, MatchForm.STRATEGY.FUEL.toString());
                         break;
                     case R.id.radTeleopStrategyDefense:
-                        strategy.setValue(MatchForm.STRATEGY.DEFENSE.toString());
+                        setRecord(strategy, MatchForm.STRATEGY.DEFENSE.toString());
                 }
             }
         });
@@ -448,10 +483,10 @@ public class MainActivity extends Activity {
                     grpTeleopShootingOptions2.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopShootingNumber1:
-                            shotsMade.setValue(MatchForm.SHOTS_MADE.FROM_0_TO_30.toString());
+                            setRecord(shotsMade, MatchForm.SHOTS_MADE.FROM_0_TO_30.toString());
                             break;
                         case R.id.radTeleopShootingNumber2:
-                            shotsMade.setValue(MatchForm.SHOTS_MADE.FROM_31_TO_60.toString());
+                            setRecord(shotsMade, MatchForm.SHOTS_MADE.FROM_31_TO_60.toString());
                     }
                     shootingOptionsClicked = false;
                 }
@@ -466,10 +501,10 @@ public class MainActivity extends Activity {
                     grpTeleopShootingOptions1.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopShootingNumber3:
-                            shotsMade.setValue(MatchForm.SHOTS_MADE.FROM_61_TO_90.toString());
+                            setRecord(shotsMade, MatchForm.SHOTS_MADE.FROM_61_TO_90.toString());
                             break;
                         case R.id.radTeleopShootingNumber4:
-                            shotsMade.setValue(MatchForm.SHOTS_MADE.FROM_90.toString());
+                            setRecord(shotsMade, MatchForm.SHOTS_MADE.FROM_90.toString());
                     }
                     shootingOptionsClicked = false;
                 }
@@ -481,13 +516,13 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radTeleopShootingRateFast:
-                        shootingSpeed.setValue(MatchForm.SHOOTING_SPEED.FAST.toString());
+                        setRecord(shootingSpeed, MatchForm.SHOOTING_SPEED.FAST.toString());
                         break;
                     case R.id.radTeleopShootingRateMed:
-                        shootingSpeed.setValue(MatchForm.SHOOTING_SPEED.MEDIUM.toString());
+                        setRecord(shootingSpeed, MatchForm.SHOOTING_SPEED.MEDIUM.toString());
                         break;
                     case R.id.radTeleopShootingRateSlow:
-                        shootingSpeed.setValue(MatchForm.SHOOTING_SPEED.SLOW.toString());
+                        setRecord(shootingSpeed, MatchForm.SHOOTING_SPEED.SLOW.toString());
                 }
             }
         });
@@ -500,10 +535,10 @@ public class MainActivity extends Activity {
                     grpTeleopShootingAccuracy2.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopShootingAcc1:
-                            shooterAccuracy.setValue(MatchForm.SHOOTER_ACCURACY.FROM_0_TO_25.toString());
+                            setRecord(shooterAccuracy, MatchForm.SHOOTER_ACCURACY.FROM_0_TO_25.toString());
                             break;
                         case R.id.radTeleopShootingAcc2:
-                            shooterAccuracy.setValue(MatchForm.SHOOTER_ACCURACY.FROM_26_TO_50.toString());
+                            setRecord(shooterAccuracy, MatchForm.SHOOTER_ACCURACY.FROM_26_TO_50.toString());
                     }
                     shootingAccClicked = false;
                 }
@@ -518,10 +553,10 @@ public class MainActivity extends Activity {
                     grpTeleopShootingAccuracy1.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopShootingAcc3:
-                            shooterAccuracy.setValue(MatchForm.SHOOTER_ACCURACY.FROM_51_TO_75.toString());
+                            setRecord(shooterAccuracy, MatchForm.SHOOTER_ACCURACY.FROM_51_TO_75.toString());
                             break;
                         case R.id.radTeleopShootingAcc4:
-                            shooterAccuracy.setValue(MatchForm.SHOOTER_ACCURACY.FROM_76_TO_100.toString());
+                            setRecord(shooterAccuracy, MatchForm.SHOOTER_ACCURACY.FROM_76_TO_100.toString());
                     }
                     shootingAccClicked = false;
                 }
@@ -533,13 +568,13 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radTeleopRotorPilotBad:
-                        pilotPerformance.setValue(MatchForm.PILOT_PERFORMANCE.BAD.toString());
+                        setRecord(pilotPerformance, MatchForm.PILOT_PERFORMANCE.BAD.toString());
                         break;
                     case R.id.radTeleopRotorPilotGood:
-                        pilotPerformance.setValue(MatchForm.PILOT_PERFORMANCE.GOOD.toString());
+                        setRecord(pilotPerformance, MatchForm.PILOT_PERFORMANCE.GOOD.toString());
                         break;
                     case R.id.radTeleopRotorPilotNA:
-                        pilotPerformance.setValue(MatchForm.PILOT_PERFORMANCE.NA.toString());
+                        setRecord(pilotPerformance, MatchForm.PILOT_PERFORMANCE.NA.toString());
                 }
             }
         });
@@ -550,7 +585,7 @@ public class MainActivity extends Activity {
                 if (!rotorsClicked) {
                     rotorsClicked = true;
                     grpTeleopRotorOptions2.clearCheck();
-                    rotorsSpinning.setValue(((RadioButton) (findViewById(itemID))).getText()
+                    setRecord(rotorsSpinning, ((RadioButton) (findViewById(itemID))).getText()
                             .toString());
                     rotorsClicked = false;
                 }
@@ -563,7 +598,7 @@ public class MainActivity extends Activity {
                 if (!rotorsClicked) {
                     rotorsClicked = true;
                     grpTeleopRotorOptions1.clearCheck();
-                    rotorsSpinning.setValue(((RadioButton) (findViewById(itemID))).getText()
+                    setRecord(rotorsSpinning, ((RadioButton) (findViewById(itemID))).getText()
                             .toString());
                     rotorsClicked = false;
                 }
@@ -575,13 +610,13 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radTeleopClimbingSlow:
-                        climbingSpeed.setValue(MatchForm.CLIMBING_SPEED.SLOW.toString());
+                        setRecord(climbingSpeed, MatchForm.CLIMBING_SPEED.SLOW.toString());
                         break;
                     case R.id.radTeleopClimbingFast:
-                        climbingSpeed.setValue(MatchForm.CLIMBING_SPEED.FAST.toString());
+                        setRecord(climbingSpeed, MatchForm.CLIMBING_SPEED.FAST.toString());
                         break;
                     case R.id.radTeleopClimbingNA:
-                        climbingSpeed.setValue(MatchForm.CLIMBING_SPEED.NA.toString());
+                        setRecord(climbingSpeed, MatchForm.CLIMBING_SPEED.NA.toString());
                 }
             }
         });
@@ -591,19 +626,19 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radEvalDriverRate1:
-                        rateDriving.setValue("1");
+                        setRecord(rateDriving, "1");
                         break;
                     case R.id.radEvalDriverRate2:
-                        rateDriving.setValue("2");
+                        setRecord(rateDriving, "2");
                         break;
                     case R.id.radEvalDriverRate3:
-                        rateDriving.setValue("3");
+                        setRecord(rateDriving, "3");
                         break;
                     case R.id.radEvalDriverRate4:
-                        rateDriving.setValue("4");
+                        setRecord(rateDriving, "4");
                         break;
                     case R.id.radEvalDriverRate5:
-                        rateDriving.setValue("5");
+                        setRecord(rateDriving, "5");
                 }
             }
         });
@@ -614,7 +649,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (isChecked) value = "0";
-                present.setValue(value);
+                setRecord(present, value);
             }
         });
 
@@ -624,7 +659,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoGearSuccess.setValue(value);
+                setRecord(autoGearSuccess, value);
             }
         });
 
@@ -634,7 +669,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoShootsHigh.setValue(value);
+                setRecord(autoShootsHigh, value);
             }
         });
 
@@ -644,7 +679,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoCrossBaseline.setValue(value);
+                setRecord(autoCrossBaseline, value);
             }
         });
 
@@ -654,7 +689,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoShootsLow.setValue(value);
+                setRecord(autoShootsLow, value);
             }
         });
 
@@ -664,7 +699,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoHandleGears.setValue(value);
+                setRecord(autoHandleGears, value);
             }
         });
 
@@ -674,7 +709,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                shootsHigh.setValue(value);
+                setRecord(shootsHigh, value);
             }
         });
 
@@ -684,7 +719,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                shootsLow.setValue(value);
+                setRecord(shootsLow, value);
             }
         });
 
@@ -694,7 +729,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                climbSuccess.setValue(value);
+                setRecord(climbSuccess, value);
             }
         });
 
@@ -704,7 +739,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                staysPutWhenPowerCut.setValue(value);
+                setRecord(staysPutWhenPowerCut, value);
             }
         });
 
@@ -714,7 +749,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                didTheyBreakDown.setValue(value);
+                setRecord(didTheyBreakDown, value);
             }
         });
 
@@ -724,7 +759,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                handleGears.setValue(value);
+                setRecord(handleGears, value);
             }
         });
 
@@ -734,7 +769,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                foulPoints.setValue(value);
+                setRecord(foulPoints, value);
             }
         });
 
@@ -744,7 +779,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                yellowCard.setValue(value);
+                setRecord(yellowCard, value);
             }
         });
 
@@ -754,7 +789,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                redCard.setValue(value);
+                setRecord(redCard, value);
             }
         });
 
@@ -764,7 +799,7 @@ public class MainActivity extends Activity {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                canClimb.setValue(value);
+                setRecord(canClimb, value);
             }
         });
 
@@ -862,12 +897,12 @@ public class MainActivity extends Activity {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (autoShotMakes.getValue() == null) {
                     if (s.length() > 0)
-                        autoShotMakes.setValue(txtAutoShooterMakes.getText().toString());
+                        setRecord(autoShotMakes, txtAutoShooterMakes.getText().toString());
                 } else {
                     if (!autoShotMakes.getValue().equals(txtAutoShooterMakes.getText().toString()))
                         if (s.length() > 0)
-                            autoShotMakes.setValue(txtAutoShooterMakes.getText().toString());
-                        else autoShotMakes.setValue(null);
+                            setRecord(autoShotMakes, txtAutoShooterMakes.getText().toString());
+                        else setRecord(autoShotMakes, null);
                 }
             }
             @Override
@@ -886,12 +921,12 @@ public class MainActivity extends Activity {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (gearAttempts.getValue() == null) {
                     if (s.length() > 0)
-                        gearAttempts.setValue(txtTeleopGearAttempt.getText().toString());
+                        setRecord(gearAttempts, txtTeleopGearAttempt.getText().toString());
                 } else {
                     if (!gearAttempts.getValue().equals(txtTeleopGearAttempt.getText().toString()))
                         if (s.length() > 0)
-                            gearAttempts.setValue(txtTeleopGearAttempt.getText().toString());
-                    else gearAttempts.setValue(null);
+                            setRecord(gearAttempts, txtTeleopGearAttempt.getText().toString());
+                    else setRecord(gearAttempts, null);
                 }
             }
             @Override
@@ -910,12 +945,12 @@ public class MainActivity extends Activity {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (gearMakes.getValue() == null) {
                     if (s.length() > 0)
-                        gearMakes.setValue(txtTeleopGearMake.getText().toString());
+                        setRecord(gearMakes, txtTeleopGearMake.getText().toString());
                 } else {
                     if (!gearMakes.getValue().equals(txtTeleopGearMake.getText().toString()))
                         if (s.length() > 0)
-                            gearMakes.setValue(txtTeleopGearMake.getText().toString());
-                    else gearMakes.setValue(null);
+                            setRecord(gearMakes, txtTeleopGearMake.getText().toString());
+                    else setRecord(gearMakes, null);
                 }
             }
             @Override
@@ -935,12 +970,11 @@ public class MainActivity extends Activity {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (comments.getValue() == null) {
-                    if (s.length() > 0) comments.setValue(s.toString()
-                            .replaceAll(Form.ID_DELIMITER, "~"));
+                    if (s.length() > 0) setRecord(comments, s.toString());
                 } else {
                     if (!comments.getValue().equals(s)) if (s.length() > 0)
-                        comments.setValue(s.toString().replaceAll(Form.ID_DELIMITER, "~"));
-                    else comments.setValue(null);
+                        setRecord(comments, s.toString());
+                    else setRecord(comments, null);
                 }
             }
             @Override
@@ -980,45 +1014,50 @@ public class MainActivity extends Activity {
     }
 
     private void initSaveState() {
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), STATE_SAVE_FILE);
-            if (!file.exists()) {
-                if (!file.createNewFile()) throw new IOException();
-            } else {
-                String string = "";
-                String str;
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                while (!((str = reader.readLine()) == null)) string += str;
-                String[] items = string.split("\\" + Form.ITEM_DELIMITER);
-                formsPending = Integer.parseInt(items[0]);
-                if (formsPending > 0) firstForm = false;
-                lblFormsPending.setText(formsPending + " Form(s) Pending");
-                txtMatchNumber.setText(items[1]);
-                txtTeamNumber.setText(items[2]);
-                chooseName.setSelection(Integer.parseInt(items[3]));
-                txtEvalScoreAlly.setText(items[4]);
-                setState(items, 5);
-                reader.close();
+        journal = new StateJournal(new File(getFilesDir().getAbsolutePath(), STATE_JOURNAL_FILE),
+                persistence, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue! Current Form lost...", Toast.LENGTH_LONG).show();
             }
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" +
-                    "STATE RESTORE FAILED. LAST UNSAVED FORM LOST.", Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        });
+        journal.restore(new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" +
+                        "STATE RESTORE FAILED. LAST UNSAVED FORM LOST.", Toast.LENGTH_LONG).show();
+                else if (journal.contains(STATE_FORMS_PENDING)) {
+                    formsPending = Integer.parseInt(journal.get(STATE_FORMS_PENDING));
+                    if (formsPending > 0) firstForm = false;
+                    lblFormsPending.setText(formsPending + " Form(s) Pending");
+                    txtMatchNumber.setText(journal.get(STATE_MATCH_NUM));
+                    txtTeamNumber.setText(journal.get(STATE_TEAM_NUM));
+                    chooseName.setSelection(Integer.parseInt(journal.get(STATE_SCOUT)));
+                    txtEvalScoreAlly.setText(journal.get(STATE_ALLIANCE_SCORE));
+                    String[] values = new String[records.length];
+                    for (int i = 0; i < records.length; i++) {
+                        String value = journal.get(records[i].getItemID());
+                        values[i] = (value == null) ? "" : value;
+                    }
+                    setState(values, 0);
+                }
+                stateRestored = true;
+            }
+        });
     }
 
-    private void setState(String[] records, int startingIndex) {
+    private void setState(String[] values, int startingIndex) {
         // present
-        if (records[startingIndex].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex].equals("1"))
             chkShow.setChecked(true);
         // canClimb
-        if (records[startingIndex+1].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+1].equals("1"))
             chkTeleopClimbingAttempt.setChecked(true);
         // comment
-        txtCommentsBox.setText(records[startingIndex+2].split(Form.ID_DELIMITER)[1]
-                .replace("null", "").replaceAll("~", ","));
+        txtCommentsBox.setText(values[startingIndex+2]);
         // rateDriving
-        switch (records[startingIndex+3].split(Form.ID_DELIMITER)[1]) {
+        switch (values[startingIndex+3]) {
             case "1":
                 radEvalDriverRate1.setChecked(true);
                 break;
@@ -1036,19 +1075,19 @@ public class MainActivity extends Activity {
                 break;
         }
         // shootsHigh
-        if (records[startingIndex+4].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+4].equals("1"))
             chkTeleopShootingHigh.setChecked(true);
         // shootsLow
-        if (records[startingIndex+5].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+5].equals("1"))
             chkTeleopShootingLow.setChecked(true);
         // autoHandlesGear
-        if (records[startingIndex+6].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+6].equals("1"))
             chkAutoGear.setChecked(true);
         // autoGearSuccess
-        if (records[startingIndex+7].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+7].equals("1"))
             chkAutoGearSuccess.setChecked(true);
         // autoGearPlacement
-        String value = records[startingIndex+8].split(Form.ID_DELIMITER)[1];
+        String value = values[startingIndex+8];
         if (value.equals(MatchForm.AUTO_GEAR_PLACEMENT.LEFT.toString()))
             radAutoGearLeftSide.setChecked(true);
         else if (value.equals(MatchForm.AUTO_GEAR_PLACEMENT.RIGHT.toString()))
@@ -1058,19 +1097,18 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.AUTO_GEAR_PLACEMENT.NA.toString()))
             radAutoGearNA.setChecked(true);
         // autoShootsHigh
-        if (records[startingIndex+9].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+9].equals("1"))
             chkAutoHighGoal.setChecked(true);
         // autoShootsLow
-        if (records[startingIndex+10].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+10].equals("1"))
             chkAutoLowGoal.setChecked(true);
         // comment
-        txtAutoShooterMakes.setText(records[startingIndex+11].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtAutoShooterMakes.setText(values[startingIndex+11]);
         // autoCrossBaseline
-        if (records[startingIndex+12].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+12].equals("1"))
             chkAutoMovingBaseline.setChecked(true);
         // strategy
-        value = records[startingIndex+13].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+13];
         if (value.equals(MatchForm.STRATEGY.GEAR.toString()))
             radTeleopStrategyGear.setChecked(true);
         else if (value.equals(MatchForm.STRATEGY.FUEL.toString()))
@@ -1078,7 +1116,7 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.STRATEGY.DEFENSE.toString()))
             radTeleopStrategyDefense.setChecked(true);
         // shootingSpeed
-        value = records[startingIndex+14].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+14];
         if (value.equals(MatchForm.SHOOTING_SPEED.FAST.toString()))
             radTeleopShootingRateFast.setChecked(true);
         else if (value.equals(MatchForm.SHOOTING_SPEED.SLOW.toString()))
@@ -1086,7 +1124,7 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.SHOOTING_SPEED.NA.toString()))
             radTeleopShootingRateNA.setChecked(true);
         // shotsMade
-        value = records[startingIndex+15].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+15];
         if (value.equals(MatchForm.SHOTS_MADE.FROM_0_TO_30.toString()))
             radTeleopShootingNumber1.setChecked(true);
         else if (value.equals(MatchForm.SHOTS_MADE.FROM_31_TO_60.toString()))
@@ -1096,7 +1134,7 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.SHOTS_MADE.FROM_90.toString()))
             radTeleopShootingNumber4.setChecked(true);
         // shooterAccuracy
-        value = records[startingIndex+16].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+16];
         if (value.equals(MatchForm.SHOOTER_ACCURACY.FROM_0_TO_25.toString()))
             radTeleopShootingAcc1.setChecked(true);
         else if (value.equals(MatchForm.SHOOTER_ACCURACY.FROM_26_TO_50.toString()))
@@ -1106,10 +1144,10 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.SHOOTER_ACCURACY.FROM_76_TO_100.toString()))
             radTeleopShootingAcc4.setChecked(true);
         // handleGears
-        if (records[startingIndex+17].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+17].equals("1"))
             chkTeleopRotorHandleGear.setChecked(true);
         // pilotPerformance
-        value = records[startingIndex+18].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+18];
         if (value.equals(MatchForm.PILOT_PERFORMANCE.GOOD.toString()))
             radTeleopRotorPilotGood.setChecked(true);
         else if (value.equals(MatchForm.PILOT_PERFORMANCE.BAD.toString()))
@@ -1117,13 +1155,11 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.PILOT_PERFORMANCE.NA.toString()))
             radTeleopRotorPilotNA.setChecked(true);
         // gearAttempts
-        txtTeleopGearAttempt.setText(records[startingIndex+19].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtTeleopGearAttempt.setText(values[startingIndex+19]);
         // gearMakes
-        txtTeleopGearMake.setText(records[startingIndex+20].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtTeleopGearMake.setText(values[startingIndex+20]);
         // rotorsSpinning
-        value = records[startingIndex+21].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+21];
         switch (value) {
             case "0":
                 radTeleopRotorNumber0.setChecked(true);
@@ -1142,13 +1178,13 @@ public class MainActivity extends Activity {
                 break;
         }
         // climbSuccess
-        if (records[startingIndex+22].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+22].equals("1"))
             chkTeleopClimbingSucc.setChecked(true);
         // staysPutWhenPowerCut
-        if (records[startingIndex+23].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+23].equals("1"))
             chkTeleopClimbingPower.setChecked(true);
         // climbingSpeed
-        value = records[startingIndex+24].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+24];
         if (value.equals(MatchForm.CLIMBING_SPEED.FAST.toString()))
             radTeleopClimbingFast.setChecked(true);
         else if (value.equals(MatchForm.CLIMBING_SPEED.SLOW.toString()))
@@ -1156,16 +1192,16 @@ public class MainActivity extends Activity {
         else if (value.equals(MatchForm.CLIMBING_SPEED.NA.toString()))
             radTeleopClimbingNA.setChecked(true);
         // didTheyBreakDown
-        if (records[startingIndex+25].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+25].equals("1"))
             chkEvalBreak.setChecked(true);
         // didTheyBreakDown
-        if (records[startingIndex+26].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+26].equals("1"))
             chkEvalFoul.setChecked(true);
         // yellowCard
-        if (records[startingIndex+27].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+27].equals("1"))
             chkEvalCardYellow.setChecked(true);
         // redCard
-        if (records[startingIndex+28].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+28].equals("1"))
             chkEvalCardRed.setChecked(true);
     }
 
@@ -1227,44 +1263,73 @@ public class MainActivity extends Activity {
         MatchForm form = new MatchForm(tabletNum,
                 Integer.parseInt(txtTeamNumber.getText().toString()),
                 Integer.parseInt(txtMatchNumber.getText().toString()), scoutName);
-        for (Record record : records) if (record.getValue() != null) form.addRecord(record);
+        // The records are copied, since they are reused for the next form
+        for (Record record : records)
+            if (record.getValue() != null)
+                form.addRecord(new Record(record.getValue(), record.getItemID()));
+        // The alliance score is used by the master machine to group teams into alliances. A
+        // blank score is left out rather than sent, so it is not read as a score of 0.
+        String allianceScore = txtEvalScoreAlly.getText().toString().trim();
+        if (!allianceScore.isEmpty())
+            form.addRecord(new Record(allianceScore, MatchForm.Items.ALLIANCE_SCORE.getId()));
         return form;
     }
 
-    private boolean saveForm() {
-        String message = "There has been an I/O issue! FORM NOT SAVED.";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
-            if (!file.exists()) {
-                if (!file.createNewFile()) throw new IOException();
-            } else {
-                if (firstForm) {
-                    if (!file.delete()) {
-                        message = "There has been an I/O issue! \n" +
-                                "FAILED TO DELETE OLD TEMP FILE";
-                        throw new IOException();
-                    }
-                    file.createNewFile();
-                    firstForm = false;
+    private void saveForm() {
+        final File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        // The first form after a transfer starts a new temp file.
+        final boolean newFile = firstForm;
+        final Form form = makeForm();
+        firstForm = false;
+        btnFormsPendingSave.setEnabled(false);
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                // Every form gets the next sequence number of this tablet, so the master
+                // computer can tell which forms it already has.
+                if (nextSequence < 0) nextSequence = findNextSequence();
+                nextSequence = Math.max(nextSequence, ackedSequence + 1);
+                form.setSequenceNum(nextSequence);
+                byte[] encoded = FormCodec.encode(form);
+                // The temp file is an append-only log of binary forms, so saving never has to
+                // read or rewrite the forms already pending. A new file starts with the codec
+                // header; a text file left by an older version keeps getting text forms.
+                byte[] bytes = encoded;
+                if (newFile || !file.exists() || (file.length() == 0)) {
+                    bytes = new byte[FormCodec.header().length + encoded.length];
+                    System.arraycopy(FormCodec.header(), 0, bytes, 0, FormCodec.header().length);
+                    System.arraycopy(encoded, 0, bytes, FormCodec.header().length, encoded.length);
+                } else if (!FormCodec.isBinary(file))
+                    bytes = (FormCodec.toText(form) + Form.FORM_DELIMITER).getBytes();
+                FileOutputStream fos = new FileOutputStream(file, !newFile);
+                try {
+                    fos.write(bytes);
+                    fos.getFD().sync();
+                } finally {
+                    fos.close();
                 }
+                nextSequence++;
+                return null;
             }
-            String content = "";
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            if (content.isEmpty()) writer.append(makeForm().toString());
-            else writer.append(content + Form.FORM_DELIMITER + makeForm().toString());
-            writer.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-
-            return false;
-        }
-        return true;
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                btnFormsPendingSave.setEnabled(true);
+                if (success) {
+                    Toast.makeText(getApplicationContext(), "FORM SAVED",
+                            Toast.LENGTH_SHORT).show();
+                    formsPending++;
+                    resetForm();
+                    lblFormsPending.setText(formsPending + " Form(s) Pending");
+                    resetState();
+                } else {
+                    if (newFile) firstForm = true;
+                    showAlertDialog("FORM NOT SAVED: " +
+                            "I/O problem encountered. Try again - if the problem persists, " +
+                            "TALK TO LUCAS!", "Ok", null);
+                }
+            }
+        });
     }
 
     private void resetForm() {
@@ -1352,48 +1417,174 @@ public class MainActivity extends Activity {
     }
 
     private void saveState() {
+        if (!stateRestored) return;
+        // Records are journaled as they change; only the other fields are left to save. Nothing
+        // is written for a field that has not changed.
+        for (Map.Entry<Integer, String> field : stateFields().entrySet())
+            journal.put(field.getKey(), field.getValue());
+    }
+
+    // Starts the journal over once a form is saved, so its records are not restored into the next
+    private void resetState() {
+        if (!stateRestored) return;
+        journal.reset(stateFields());
+    }
+
+    // The fields of the state that are not records, in the order they are saved
+    private LinkedHashMap<Integer, String> stateFields() {
+        LinkedHashMap<Integer, String> fields = new LinkedHashMap<>();
+        fields.put(STATE_MATCH_NUM, txtMatchNumber.getText().toString());
+        fields.put(STATE_TEAM_NUM, txtTeamNumber.getText().toString());
+        fields.put(STATE_SCOUT, String.valueOf(chooseName.getSelectedItemPosition()));
+        fields.put(STATE_ALLIANCE_SCORE, txtEvalScoreAlly.getText().toString());
+        // Saved last: once it is in the journal, so are all the fields above
+        fields.put(STATE_FORMS_PENDING, String.valueOf(formsPending));
+        return fields;
+    }
+
+    /**
+     * Packs forms into the transfer bundle, on the background writer.
+     * @param filename - the temp file or an archive
+     * @param unackedOnly - true to send every form the master computer has not acknowledged, from
+     *                    the archives and the file, instead of the whole file
+     * @param callback - notified on the UI thread; on success, the result is the name of the
+     *                 bundle file to send
+     */
+    public void prepareFormTransfer(final String filename, final boolean unackedOnly,
+                                    final PersistenceExecutor.Callback callback) {
+        final File file = new File(getFilesDir().getAbsolutePath(), filename);
+        final File bundle = new File(getFilesDir().getAbsolutePath(), BUNDLE_FILE);
+        final int tablet = tabletNum;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                if (!file.exists()) throw new IOException(filename + " DOES NOT EXIST.");
+                long acked = ackedSequence;
+                ArrayList<Form> forms = new ArrayList<>();
+                if (unackedOnly) {
+                    // Archives are read from the newest back, until one holds a form the master
+                    // computer already has or a form saved without a sequence number.
+                    ArrayList<File> archives = getArchives();
+                    for (int i = archives.size() - 1; i >= 0; i--) {
+                        ArrayList<Form> archived = readForms(archives.get(i));
+                        boolean done = archived.isEmpty();
+                        for (int f = archived.size() - 1; f >= 0; f--) {
+                            long sequenceNum = archived.get(f).getSequenceNum();
+                            if ((sequenceNum < 0) || (sequenceNum <= acked)) done = true;
+                            else forms.add(0, archived.get(f));
+                        }
+                        if (done) break;
+                    }
+                }
+                for (Form form : readForms(file))
+                    if (!unackedOnly || (form.getSequenceNum() < 0) || (form.getSequenceNum() > acked))
+                        forms.add(form);
+                long first = TransferBundle.NO_SEQUENCE;
+                long last = TransferBundle.NO_SEQUENCE;
+                for (Form form : forms) {
+                    if (form.getSequenceNum() < 0) continue;
+                    if (first == TransferBundle.NO_SEQUENCE) first = form.getSequenceNum();
+                    last = form.getSequenceNum();
+                }
+                AtomicFileWriter.write(bundle, TransferBundle.write(tablet, first, last,
+                        FormCodec.encode(forms), forms.size()));
+                // The Bluetooth share activity must be able to read the bundle.
+                if (!bundle.setReadable(true, false))
+                    throw new IOException("COULD NOT SHARE " + BUNDLE_FILE);
+                return BUNDLE_FILE;
+            }
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue!\nTRANSFER FAILED: " + result,
+                        Toast.LENGTH_LONG).show();
+                callback.onComplete(success, result);
+            }
+        });
+    }
+
+    /**
+     * Merges every archive into one bundle, on the background writer, as a backup of the whole
+     * season. Archives are read one at a time and their forms streamed into the bundle, so memory
+     * use does not grow with the number of archives. A form found in more than one archive (a
+     * transfer made twice without new forms) is only sent once.
+     * @param callback - notified on the UI thread; on success, the result is the name of the
+     *                 bundle file to send
+     */
+    public void prepareArchiveTransfer(final PersistenceExecutor.Callback callback) {
+        final File bundle = new File(getFilesDir().getAbsolutePath(), BUNDLE_FILE);
+        final int tablet = tabletNum;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                File partial = new File(bundle.getPath() + ".part");
+                TransferBundle.Writer writer = new TransferBundle.Writer(partial, tablet);
+                HashSet<Long> sequenceNums = new HashSet<>();
+                HashSet<String> unnumbered = new HashSet<>();
+                try {
+                    for (File archive : getArchives())
+                        for (Form form : readForms(archive)) {
+                            // Forms saved by older versions have no sequence number, so they are
+                            // told apart by their contents.
+                            boolean added = (form.getSequenceNum() < 0)
+                                    ? unnumbered.add(form.toString())
+                                    : sequenceNums.add(form.getSequenceNum());
+                            if (added) writer.add(form);
+                        }
+                } finally {
+                    writer.close();
+                }
+                if (!partial.renameTo(bundle))
+                    throw new IOException("COULD NOT REPLACE " + BUNDLE_FILE);
+                if (!bundle.setReadable(true, false))
+                    throw new IOException("COULD NOT SHARE " + BUNDLE_FILE);
+                return BUNDLE_FILE;
+            }
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue!\nTRANSFER FAILED: " + result,
+                        Toast.LENGTH_LONG).show();
+                callback.onComplete(success, result);
+            }
+        });
+    }
+
+    // Reads the forms in a file, binary or text. Runs on the background writer.
+    private static ArrayList<Form> readForms(File file) throws IOException {
+        byte[] content = AtomicFileWriter.readBytes(file);
+        if (!FormCodec.isBinary(content)) return FormCodec.fromText(new String(content));
         try {
-            File file = new File(getFilesDir().getAbsolutePath(), STATE_SAVE_FILE);
-            if (!file.exists()) if (!file.createNewFile()) throw new IOException();
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            // include forms pending, matchnum, teamnum, name, score
-            String output = String.valueOf(formsPending) + Form.ITEM_DELIMITER +
-                    txtMatchNumber.getText().toString() + Form.ITEM_DELIMITER +
-                    txtTeamNumber.getText().toString() + Form.ITEM_DELIMITER +
-                    chooseName.getSelectedItemPosition() + Form.ITEM_DELIMITER +
-                    txtEvalScoreAlly.getText().toString();
-            for (Record record : records) output += Form.ITEM_DELIMITER + record.toString();
-            writer.write(output);
-            writer.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(),
-                    "There has been an I/O issue! Current Form lost...", Toast.LENGTH_LONG).show();
-            e.printStackTrace();
+            return FormCodec.decode(content);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file.getName() + " IS CORRUPTED: " + e.getMessage());
         }
     }
 
-    public String prepareFormTransfer(String filename) {
-        String content = "";
-        String message = "There has been an I/O issue!\nTRANSFER FAILED";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), filename);
-            if (!file.exists()) {
-                message = "There has been an I/O issue!\n" +
-                        "TRANSFER FAILED: " + filename + " DOES NOT EXIST.";
-                throw new IOException();
-            }
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-            if (!file.delete()) throw new IOException();
-            FileOutputStream fos = openFileOutput(filename, Context.MODE_WORLD_READABLE);
-            fos.write(content.getBytes());
-            fos.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
+    // The archive files, oldest first. Runs on the background writer.
+    private ArrayList<File> getArchives() {
+        ArrayList<File> archives = new ArrayList<>();
+        while (true) {
+            File archive = new File(getFilesDir().getAbsolutePath(), ARCHIVE_FILE.split("\\.")[0]
+                    + archives.size() + ARCHIVE_FILE.split("\\.")[1]);
+            if (!archive.exists()) return archives;
+            archives.add(archive);
         }
-        return content;
+    }
+
+    // One past the highest sequence number of the forms saved so far. The newest forms are in the
+    // temp file or, right after a transfer, in the newest archive. Runs on the background writer.
+    private long findNextSequence() throws IOException {
+        long highest = TransferBundle.NO_SEQUENCE;
+        ArrayList<File> files = getArchives();
+        if (files.size() > 1) files.subList(0, files.size() - 1).clear();
+        File temp = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        if (temp.exists()) files.add(temp);
+        for (File file : files)
+            for (Form form : readForms(file)) highest = Math.max(highest, form.getSequenceNum());
+        return highest + 1;
     }
 
     public void prepareToTransfer(String fileName) {
@@ -1452,36 +1643,27 @@ public class MainActivity extends Activity {
     }
 
     public void archiveCurrentFile() {
-        String message = "There has been an I/O issue!";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
-            if (!file.exists()) {
-                message = "There has been an I/O issue! \n" +
-                        "TEMP FILE NOT FOUND (LAST TRANSFER NOT ARCHIVED)";
-                throw new IOException();
+        final File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        final File archive = new File(getFilesDir().getAbsolutePath(),
+                ARCHIVE_FILE.split("\\.")[0] + archivedFiles + ARCHIVE_FILE.split("\\.")[1]);
+        archivedFiles++;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                if (!file.exists())
+                    throw new IOException("TEMP FILE NOT FOUND (LAST TRANSFER NOT ARCHIVED)");
+                AtomicFileWriter.write(archive, AtomicFileWriter.readBytes(file));
+                return null;
             }
-            String content = "";
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-
-            String fileName = ARCHIVE_FILE.split("\\.")[0] + archivedFiles
-                    + ARCHIVE_FILE.split("\\.")[1];
-            file = new File(getFilesDir().getAbsolutePath(), fileName);
-            if (!file.exists()) if (!file.createNewFile()) {
-                message = "There has been an I/O issue! \n" +
-                        "FAILED TO CREATE ARCHIVE FILE";
-                throw new IOException();
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (success) return;
+                archivedFiles--;
+                Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" + result,
+                        Toast.LENGTH_LONG).show();
             }
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            writer.write(content);
-            writer.close();
-            archivedFiles++;
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        });
     }
 
     private boolean retrieveComputerFile(String fileName) {
@@ -1497,30 +1679,21 @@ public class MainActivity extends Activity {
                 BufferedReader reader = new BufferedReader(new FileReader(file));
                 while (!((str = reader.readLine()) == null)) contents.add(str);
                 reader.close();
-                if (!file.delete()) {
-                    message = "There has been an I/O issue!\n" +
-                            "BLUETOOTH DIR CONFIG FILE DELETE FAILED";
-                    throw new IOException();
+                String content = "";
+                for (int i = 0; i < contents.size(); i++) {
+                    if (i > 0) content += "\n";
+                    content += contents.get(i);
                 }
 
-                file = new File(getFilesDir().getAbsolutePath(), fileName);
-                if (file.exists()) {
-                    if (!file.delete()) {
-                        message = "There has been an I/O issue!\nOLD CONFIG FILE DELETE FAILED";
-                        throw new IOException();
-                    }
-                }
-                if (!file.createNewFile()) {
+                // The new config replaces the old one atomically, and the received file is only
+                // deleted once the new config is safely stored.
+                message = "There has been an I/O issue!\nCONFIG FILE WRITE FAILED";
+                AtomicFileWriter.write(new File(getFilesDir().getAbsolutePath(), fileName), content);
+                if (!file.delete()) {
                     message = "There has been an I/O issue!\n" +
-                            "CONFIG FILE CREATION FAILED";
+                            "BLUETOOTH DIR CONFIG FILE DELETE FAILED";
                     throw new IOException();
                 }
-                BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-                for (int i = 0; i < contents.size(); i++) {
-                    if (i > 0) writer.newLine();
-                    writer.write(contents.get(i));
-                }
-                writer.close();
                 initConfigs();
                 showAlertDialog("SUCCESS!", "OK");
             }
@@ -1574,22 +1747,19 @@ public class MainActivity extends Activity {
     private void executeRequest() {
         switch (actionRequested) {
             case SAVE_FORM:
-                if (saveForm()) {
-                    Toast.makeText(getApplicationContext(), "FORM SAVED",
-                            Toast.LENGTH_SHORT).show();
-                    formsPending++;
-                    resetForm();
-                    lblFormsPending.setText(formsPending + " Form(s) Pending");
-                } else showAlertDialog("FORM NOT SAVED: " +
-                        "I/O problem encountered. Try again - if the problem persists, " +
-                        "TALK TO LUCAS!", "Ok", null);
+                saveForm();
                 break;
             case TRANSFER_FORMS:
                 if (formsPending > 0) {
-                    prepareFormTransfer(TEMP_FILE);
-                    prepareToTransfer(TEMP_FILE);
+                    prepareFormTransfer(TEMP_FILE, true, new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
                     actionRequested = Action.CHECK_TRANSFER;
                     formsPending = 0;
+                    saveState();
                     lblFormsPending.setText(formsPending + " Form(s) Pending");
                     firstForm = true;
                     archiveCurrentFile();
@@ -1599,11 +1769,23 @@ public class MainActivity extends Activity {
                 if (archivedFiles > 0) {
                     String fileName = ARCHIVE_FILE.split("\\.")[0] + (archivedFiles - 1)
                             + ARCHIVE_FILE.split("\\.")[1];
-                    prepareFormTransfer(fileName);
-                    prepareToTransfer(fileName);
+                    prepareFormTransfer(fileName, false, new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
                 } else showAlertDialog("There has not been a transfer yet.", "Ok");
                 break;
             case TRANSFER_ALL_ARCHIVES:
+                if (archivedFiles > 0) {
+                    prepareArchiveTransfer(new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
+                } else showAlertDialog("There has not been a transfer yet.", "Ok");
                 break;
             case RECEIVE_CONFIG:
                 retrieveComputerFile(CONFIG_FILE);
@@ -0,0 +1,103 @@
+package com.example.lucas.prescouting20;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Crash-safe file persistence. Files are never modified in place: new contents are written to a
+ * temporary file next to the target, synced to disk, and then renamed over the target. Renaming
+ * is atomic, so if the app is killed at any point the target holds either its old or its new
+ * contents, never half of each. A temporary file left behind by a kill is simply discarded the
+ * next time the target is read.
+ */
+public final class AtomicFileWriter {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Replaces the contents of a file.
+     * @param file - the file to write
+     * @param content - the new contents of the file
+     * @throws IOException if the contents could not be written; the file is left untouched
+     */
+    public static void write(File file, String content) throws IOException {
+        write(file, content.getBytes());
+    }
+
+    /**
+     * Replaces the contents of a file.
+     * @param file - the file to write
+     * @param content - the new contents of the file
+     * @throws IOException if the contents could not be written; the file is left untouched
+     */
+    public static void write(File file, byte[] content) throws IOException {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        FileOutputStream fos = new FileOutputStream(temp, false);
+        try {
+            fos.write(content);
+            fos.getFD().sync();
+        } finally {
+            fos.close();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Failed to replace " + file.getName());
+        }
+    }
+
+    /**
+     * Reads a whole file, joining its lines the same way the forms have always been read.
+     * @param file - the file to read
+     * @return the contents of the file, without line breaks
+     * @throws IOException if the file could not be read
+     */
+    public static String read(File file) throws IOException {
+        recover(file);
+        StringBuilder content = new StringBuilder();
+        String str;
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            while (!((str = reader.readLine()) == null)) content.append(str);
+        } finally {
+            reader.close();
+        }
+        return content.toString();
+    }
+
+    /**
+     * Reads a whole file as it is, for files that are not text.
+     * @param file - the file to read
+     * @return the contents of the file
+     * @throws IOException if the file could not be read
+     */
+    public static byte[] readBytes(File file) throws IOException {
+        recover(file);
+        byte[] content = new byte[(int) file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(content);
+        } finally {
+            in.close();
+        }
+        return content;
+    }
+
+    /**
+     * Discards the temporary file of an interrupted write, if there is one. The target file itself
+     * is always complete.
+     * @param file - the target file
+     */
+    public static void recover(File file) {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        if (temp.exists()) temp.delete();
+    }
+
+}
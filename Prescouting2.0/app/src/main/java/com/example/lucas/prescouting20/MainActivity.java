@@ -6,7 +6,6 @@ import android.app.Dialog;
 import android.app.DialogFragment;
 import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.pm.PackageManager;
@@ -33,17 +32,24 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import com.example.lucas.formcodec20.Form;
+import com.example.lucas.formcodec20.FormCodec;
+import com.example.lucas.formcodec20.PrescoutingForm;
+import com.example.lucas.formcodec20.Record;
+import com.example.lucas.formcodec20.TransferBundle;
+
 public class MainActivity extends Activity implements KeyEvent.Callback {
 
     // VISUAL COMPONENTS
@@ -125,12 +131,35 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
     }
     private Action actionRequested = Action.NONE;
 
-    private static final String STATE_SAVE_FILE = "stateSave.txt";
+    private static final String STATE_JOURNAL_FILE = "stateJournal.dat";
+    // Keys of the state journal's fields that are not records; records use their item id
+    private static final int STATE_FORMS_PENDING = -1;
+    private static final int STATE_NUM_OF_SCOUTS = -2;
+    private static final int STATE_TEAM_NUM = -3;
+    private static final int STATE_SCOUT_1 = -4;
+    private static final int STATE_SCOUT_2 = -5;
+    private static final int STATE_SCOUT_3 = -6;
+    private static final int STATE_SCOUT_4 = -7;
+    private static final int STATE_SCOUT_5 = -8;
     private static final String TEMP_FILE = "tempFile.txt";
     private static final String ARCHIVE_FILE = "archiveFile.txt";
     private static final String BULK_FILE = "bulkFile.txt";
     private static final String CONFIG_FILE = "configFile.txt";
+    // The compressed, checksummed file that is actually sent to the master computer
+    private static final String BUNDLE_FILE = "transferBundle.txt";
     private static int archivedFiles = 0;
+    // All file I/O runs on this single background writer, shared by every instance of the
+    // activity, so the UI never blocks on the disk.
+    private static final PersistenceExecutor persistence = new PersistenceExecutor();
+    // The sequence number of the next form saved. Only used on the background writer; -1 until
+    // the forms already saved have been looked at.
+    private static long nextSequence = -1;
+    // The highest sequence number the master computer has acknowledged, from the config file
+    private static volatile long ackedSequence = TransferBundle.NO_SEQUENCE;
+    // The state is not saved until the last saved state is restored, or it would be overwritten.
+    private boolean stateRestored = false;
+    // The journal of the changes made to the current form
+    private StateJournal journal;
 
     // Alert Dialog items
     private static String MESSAGE = "";
@@ -231,10 +260,13 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                 names = contents.get(3).split(Form.ID_DELIMITER);
                 teams = contents.get(4).split(Form.ID_DELIMITER);
                 keywords = contents.get(5).split(Form.ID_DELIMITER);
+                // The acknowledgement is only there once the master computer has sent it
+                ackedSequence = (contents.size() > 6) ? Long.parseLong(contents.get(6).trim())
+                        : TransferBundle.NO_SEQUENCE;
             }
         } catch (IOException e) {
             Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-        } catch (IndexOutOfBoundsException | InputMismatchException e) {
+        } catch (IndexOutOfBoundsException | InputMismatchException | NumberFormatException e) {
             message = "CONFIG FILE FORMATTED INCORRECTLY.\n"
                     + "PLEASE FORMAT THE CONFIG FILE CORRECTLY";
             Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
@@ -299,6 +331,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                 new Record(null, PrescoutingForm.Items.AUTO_STRATEGIES.getId());
     }
 
+    // Changes a record's value and saves the change to the state journal.
+    private void setRecord(Record record, String value) {
+        record.setValue(value);
+        if (stateRestored) journal.put(record.getItemID(), value);
+    }
+
     private void initLayout() {
         chooseName1 = (Spinner) findViewById(R.id.chooseName1);
         ArrayAdapter<String> pickNameAdapter =
@@ -387,11 +425,11 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                     grpTeleopDriveTrain2.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopDriveTrainPneumatic:
-                            drivetrainType.setValue(PrescoutingForm.DRIVETRAIN_TYPE.PNEUMATIC
+                            setRecord(drivetrainType, PrescoutingForm.DRIVETRAIN_TYPE.PNEUMATIC
                                     .toString());
                             break;
                         case R.id.radTeleopDriveTrainMecanum:
-                            drivetrainType.setValue(PrescoutingForm.DRIVETRAIN_TYPE.MECANUM
+                            setRecord(drivetrainType, PrescoutingForm.DRIVETRAIN_TYPE.MECANUM
                                     .toString());
                     }
                     drivetrainClicked = false;
@@ -407,11 +445,11 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                     grpTeleopDriveTrain1.clearCheck();
                     switch (itemID) {
                         case R.id.radTeleopDriveTrainSwerve:
-                            drivetrainType.setValue(PrescoutingForm.DRIVETRAIN_TYPE.SWERVE
+                            setRecord(drivetrainType, PrescoutingForm.DRIVETRAIN_TYPE.SWERVE
                                     .toString());
                             break;
                         case R.id.radTeleopDriveTrainTank:
-                            drivetrainType.setValue(PrescoutingForm.DRIVETRAIN_TYPE.TANK
+                            setRecord(drivetrainType, PrescoutingForm.DRIVETRAIN_TYPE.TANK
                                     .toString());
                     }
                     drivetrainClicked = false;
@@ -424,15 +462,15 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(RadioGroup grp, int itemID) {
                 switch (itemID) {
                     case R.id.radEvalLangJava:
-                        codeLanguageUsed.setValue(PrescoutingForm.CODE_LANGUAGE_USED.JAVA
+                        setRecord(codeLanguageUsed, PrescoutingForm.CODE_LANGUAGE_USED.JAVA
                                 .toString());
                         break;
                     case R.id.radEvalLangCPP:
-                        codeLanguageUsed.setValue(PrescoutingForm.CODE_LANGUAGE_USED.C
+                        setRecord(codeLanguageUsed, PrescoutingForm.CODE_LANGUAGE_USED.C
                                 .toString());
                         break;
                     case R.id.radEvalLangLabview:
-                        codeLanguageUsed.setValue(PrescoutingForm.CODE_LANGUAGE_USED.LABVIEW
+                        setRecord(codeLanguageUsed, PrescoutingForm.CODE_LANGUAGE_USED.LABVIEW
                                 .toString());
                 }
             }
@@ -444,7 +482,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                isRobotFinished.setValue(value);
+                setRecord(isRobotFinished, value);
             }
         });
 
@@ -454,7 +492,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                auto.setValue(value);
+                setRecord(auto, value);
             }
         });
 
@@ -464,7 +502,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoHandleGears.setValue(value);
+                setRecord(autoHandleGears, value);
             }
         });
 
@@ -474,7 +512,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoShootsHigh.setValue(value);
+                setRecord(autoShootsHigh, value);
             }
         });
 
@@ -484,7 +522,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoShootsLow.setValue(value);
+                setRecord(autoShootsLow, value);
             }
         });
 
@@ -494,7 +532,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoStartsNextToKey.setValue(value);
+                setRecord(autoStartsNextToKey, value);
             }
         });
 
@@ -504,7 +542,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoStartsInLineLeftGear.setValue(value);
+                setRecord(autoStartsInLineLeftGear, value);
             }
         });
 
@@ -514,7 +552,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoStartsInLineRightGear.setValue(value);
+                setRecord(autoStartsInLineRightGear, value);
             }
         });
 
@@ -524,7 +562,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                autoStartsCenter.setValue(value);
+                setRecord(autoStartsCenter, value);
             }
         });
 
@@ -534,7 +572,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                handleGears.setValue(value);
+                setRecord(handleGears, value);
             }
         });
 
@@ -544,7 +582,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                gearsFromTheGround.setValue(value);
+                setRecord(gearsFromTheGround, value);
             }
         });
 
@@ -554,7 +592,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                fuelFromTheGround.setValue(value);
+                setRecord(fuelFromTheGround, value);
             }
         });
 
@@ -564,7 +602,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                shootsHigh.setValue(value);
+                setRecord(shootsHigh, value);
             }
         });
 
@@ -574,7 +612,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                shootsLow.setValue(value);
+                setRecord(shootsLow, value);
             }
         });
 
@@ -584,7 +622,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                canClimb.setValue(value);
+                setRecord(canClimb, value);
             }
         });
 
@@ -594,7 +632,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
                 String value = "1";
                 if (!isChecked) value = "0";
-                driveTeamStudentOnly.setValue(value);
+                setRecord(driveTeamStudentOnly, value);
             }
         });
 
@@ -741,12 +779,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (autoTimeToShoot.getValue() == null) {
                     if (s.length() > 0)
-                        autoTimeToShoot.setValue(txtAutoShootTime.getText().toString());
+                        setRecord(autoTimeToShoot, txtAutoShootTime.getText().toString());
                 } else {
                     if (!autoTimeToShoot.getValue().equals(txtAutoShootTime.getText().toString()))
                         if (s.length() > 0)
-                            autoTimeToShoot.setValue(txtAutoShootTime.getText().toString());
-                        else autoTimeToShoot.setValue(null);
+                            setRecord(autoTimeToShoot, txtAutoShootTime.getText().toString());
+                        else setRecord(autoTimeToShoot, null);
                 }
             }
             @Override
@@ -765,12 +803,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (maxFuelStorage.getValue() == null) {
                     if (s.length() > 0)
-                        maxFuelStorage.setValue(txtTeleopStore.getText().toString());
+                        setRecord(maxFuelStorage, txtTeleopStore.getText().toString());
                 } else {
                     if (!maxFuelStorage.getValue().equals(txtTeleopStore.getText().toString()))
                         if (s.length() > 0)
-                            maxFuelStorage.setValue(txtTeleopStore.getText().toString());
-                        else maxFuelStorage.setValue(null);
+                            setRecord(maxFuelStorage, txtTeleopStore.getText().toString());
+                        else setRecord(maxFuelStorage, null);
                 }
             }
             @Override
@@ -789,12 +827,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (timeToEmptyStorage.getValue() == null) {
                     if (s.length() > 0)
-                        timeToEmptyStorage.setValue(txtTeleopFullTime.getText().toString());
+                        setRecord(timeToEmptyStorage, txtTeleopFullTime.getText().toString());
                 } else {
                     if (!timeToEmptyStorage.getValue().equals(txtTeleopFullTime.getText().toString()))
                         if (s.length() > 0)
-                            timeToEmptyStorage.setValue(txtTeleopFullTime.getText().toString());
-                        else timeToEmptyStorage.setValue(null);
+                            setRecord(timeToEmptyStorage, txtTeleopFullTime.getText().toString());
+                        else setRecord(timeToEmptyStorage, null);
                 }
             }
             @Override
@@ -813,12 +851,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (timeToClimb.getValue() == null) {
                     if (s.length() > 0)
-                        timeToClimb.setValue(txtTeleopClimbTime.getText().toString());
+                        setRecord(timeToClimb, txtTeleopClimbTime.getText().toString());
                 } else {
                     if (!timeToClimb.getValue().equals(txtTeleopClimbTime.getText().toString()))
                         if (s.length() > 0)
-                            timeToClimb.setValue(txtTeleopClimbTime.getText().toString());
-                        else timeToClimb.setValue(null);
+                            setRecord(timeToClimb, txtTeleopClimbTime.getText().toString());
+                        else setRecord(timeToClimb, null);
                 }
             }
             @Override
@@ -837,12 +875,12 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (friendliness.getValue() == null) {
                     if (s.length() > 0)
-                        friendliness.setValue(txtEvalFriend.getText().toString());
+                        setRecord(friendliness, txtEvalFriend.getText().toString());
                 } else {
                     if (!friendliness.getValue().equals(txtEvalFriend.getText().toString()))
                         if (s.length() > 0)
-                            friendliness.setValue(txtEvalFriend.getText().toString());
-                        else friendliness.setValue(null);
+                            setRecord(friendliness, txtEvalFriend.getText().toString());
+                        else setRecord(friendliness, null);
                 }
             }
             @Override
@@ -860,12 +898,11 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (descriptionOfRobot.getValue() == null) {
-                    if (s.length() > 0) descriptionOfRobot.setValue(s.toString()
-                            .replaceAll(Form.ID_DELIMITER, "~"));
+                    if (s.length() > 0) setRecord(descriptionOfRobot, s.toString());
                 } else {
                     if (!descriptionOfRobot.getValue().equals(s)) if (s.length() > 0)
-                        descriptionOfRobot.setValue(s.toString().replaceAll(Form.ID_DELIMITER, "~"));
-                    else descriptionOfRobot.setValue(null);
+                        setRecord(descriptionOfRobot, s.toString());
+                    else setRecord(descriptionOfRobot, null);
                 }
             }
             @Override
@@ -883,12 +920,11 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (comments.getValue() == null) {
-                    if (s.length() > 0) comments.setValue(s.toString()
-                            .replaceAll(Form.ID_DELIMITER, "~"));
+                    if (s.length() > 0) setRecord(comments, s.toString());
                 } else {
                     if (!comments.getValue().equals(s)) if (s.length() > 0)
-                        comments.setValue(s.toString().replaceAll(Form.ID_DELIMITER, "~"));
-                    else comments.setValue(null);
+                        setRecord(comments, s.toString());
+                    else setRecord(comments, null);
                 }
             }
             @Override
@@ -906,12 +942,11 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 if (autoStrategies.getValue() == null) {
-                    if (s.length() > 0) autoStrategies.setValue(s.toString()
-                            .replaceAll(Form.ID_DELIMITER, "~"));
+                    if (s.length() > 0) setRecord(autoStrategies, s.toString());
                 } else {
                     if (!autoStrategies.getValue().equals(s)) if (s.length() > 0)
-                        autoStrategies.setValue(s.toString().replaceAll(Form.ID_DELIMITER, "~"));
-                    else autoStrategies.setValue(null);
+                        setRecord(autoStrategies, s.toString());
+                    else setRecord(autoStrategies, null);
                 }
             }
             @Override
@@ -951,52 +986,59 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
     }
 
     private void initSaveState() {
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), STATE_SAVE_FILE);
-            if (!file.exists()) {
-                if (!file.createNewFile()) throw new IOException();
-            } else {
-                String string = "";
-                String str;
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                while (!((str = reader.readLine()) == null)) string += str;
-                if (string.isEmpty()) return;
-                String[] items = string.split("\\" + Form.ITEM_DELIMITER);
-                formsPending = Integer.parseInt(items[0]);
-                if (formsPending > 0) firstForm = false;
-                lblFormsPending.setText(formsPending + " Form(s) Pending");
-                txtTeamNumber.setText(items[1]);
-                numOfScouts = Integer.parseInt(items[2]);
-                chooseName1.setSelection(Integer.parseInt(items[3]));
-                if (numOfScouts >= 2) chooseName2.setSelection(Integer.parseInt(items[4]));
-                if (numOfScouts >= 3) chooseName3.setSelection(Integer.parseInt(items[5]));
-                if (numOfScouts >= 4) chooseName4.setSelection(Integer.parseInt(items[6]));
-                if (numOfScouts >= 5) chooseName5.setSelection(Integer.parseInt(items[7]));
-                setState(items, 8);
-                reader.close();
+        journal = new StateJournal(new File(getFilesDir().getAbsolutePath(), STATE_JOURNAL_FILE),
+                persistence, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue! Current Form lost...", Toast.LENGTH_LONG).show();
             }
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" +
-                    "STATE RESTORE FAILED. LAST UNSAVED FORM LOST.", Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        });
+        journal.restore(new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" +
+                        "STATE RESTORE FAILED. LAST UNSAVED FORM LOST.", Toast.LENGTH_LONG).show();
+                else if (journal.contains(STATE_FORMS_PENDING)) {
+                    formsPending = Integer.parseInt(journal.get(STATE_FORMS_PENDING));
+                    if (formsPending > 0) firstForm = false;
+                    lblFormsPending.setText(formsPending + " Form(s) Pending");
+                    txtTeamNumber.setText(journal.get(STATE_TEAM_NUM));
+                    numOfScouts = Integer.parseInt(journal.get(STATE_NUM_OF_SCOUTS));
+                    chooseName1.setSelection(Integer.parseInt(journal.get(STATE_SCOUT_1)));
+                    if (numOfScouts >= 2)
+                        chooseName2.setSelection(Integer.parseInt(journal.get(STATE_SCOUT_2)));
+                    if (numOfScouts >= 3)
+                        chooseName3.setSelection(Integer.parseInt(journal.get(STATE_SCOUT_3)));
+                    if (numOfScouts >= 4)
+                        chooseName4.setSelection(Integer.parseInt(journal.get(STATE_SCOUT_4)));
+                    if (numOfScouts >= 5)
+                        chooseName5.setSelection(Integer.parseInt(journal.get(STATE_SCOUT_5)));
+                    String[] values = new String[records.length];
+                    for (int i = 0; i < records.length; i++) {
+                        String value = journal.get(records[i].getItemID());
+                        values[i] = (value == null) ? "" : value;
+                    }
+                    setState(values, 0);
+                }
+                stateRestored = true;
+            }
+        });
     }
 
-    private void setState(String[] records, int startingIndex) {
+    private void setState(String[] values, int startingIndex) {
         // canClimb
-        if (records[startingIndex].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex].equals("1"))
             chkTeleopClimb.setChecked(true);
         // comments
-        txtEvalComments.setText(records[startingIndex+1].split(Form.ID_DELIMITER)[1]
-                .replace("null", "").replaceAll("~", ","));
+        txtEvalComments.setText(values[startingIndex+1]);
         // driveTeamStudentOnly
-        if (records[startingIndex+2].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+2].equals("1"))
             chkEvalStudent.setChecked(true);
         // friendliness
-        txtEvalFriend.setText(records[startingIndex+3].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtEvalFriend.setText(values[startingIndex+3]);
         // drivetrainType
-        String value = records[startingIndex+4].split(Form.ID_DELIMITER)[1];
+        String value = values[startingIndex+4];
         if (value.equals(PrescoutingForm.DRIVETRAIN_TYPE.PNEUMATIC.toString()))
             radTeleopDriveTrainPneumatic.setChecked(true);
         else if (value.equals(PrescoutingForm.DRIVETRAIN_TYPE.MECANUM.toString()))
@@ -1006,7 +1048,7 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
         else if (value.equals(PrescoutingForm.DRIVETRAIN_TYPE.TANK.toString()))
             radTeleopDriveTrainTank.setChecked(true);
         // codeLanguageUsed
-        value = records[startingIndex+5].split(Form.ID_DELIMITER)[1];
+        value = values[startingIndex+5];
         if (value.equals(PrescoutingForm.CODE_LANGUAGE_USED.JAVA.toString()))
             radEvalLangJava.setChecked(true);
         else if (value.equals(PrescoutingForm.CODE_LANGUAGE_USED.C.toString()))
@@ -1014,65 +1056,59 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
         else if (value.equals(PrescoutingForm.CODE_LANGUAGE_USED.LABVIEW.toString()))
             radEvalLangLabview.setChecked(true);
         // descriptionOfRobot
-        txtEvalDescription.setText(records[startingIndex+6].split(Form.ID_DELIMITER)[1]
-                .replace("null", "").replaceAll("~", ","));
+        txtEvalDescription.setText(values[startingIndex+6]);
         // shootsHigh
-        if (records[startingIndex+7].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+7].equals("1"))
             chkTeleopHandleBallsHigh.setChecked(true);
         // shootsLow
-        if (records[startingIndex+8].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+8].equals("1"))
             chkTeleopHandleBallsLow.setChecked(true);
         // autoHandleGears
-        if (records[startingIndex+9].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+9].equals("1"))
             chkAutoGears.setChecked(true);
         // autoShootsHigh
-        if (records[startingIndex+10].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+10].equals("1"))
             chkAutoShootingHigh.setChecked(true);
         // autoShootsLow
-        if (records[startingIndex+11].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+11].equals("1"))
             chkAutoShootingLow.setChecked(true);
         // handleGear
-        if (records[startingIndex+12].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+12].equals("1"))
             chkTeleopHandleGears.setChecked(true);
         // isRobotFinished
-        if (records[startingIndex+13].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+13].equals("1"))
             chkRobotFinished.setChecked(true);
         // gearsFromTheGround
-        if (records[startingIndex+14].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+14].equals("1"))
             chkTeleopGearsGround.setChecked(true);
         // fuelFromTheGround
-        if (records[startingIndex+15].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+15].equals("1"))
             chkTeleopBallsGround.setChecked(true);
         // maxFuelStorage
-        txtTeleopStore.setText(records[startingIndex+16].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtTeleopStore.setText(values[startingIndex+16]);
         // timeToEmptyStorage
-        txtTeleopFullTime.setText(records[startingIndex+17].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtTeleopFullTime.setText(values[startingIndex+17]);
         // timeToClimb
-        txtTeleopClimbTime.setText(records[startingIndex+18].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtTeleopClimbTime.setText(values[startingIndex+18]);
         // auto
-        if (records[startingIndex+19].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+19].equals("1"))
             chkAuto.setChecked(true);
         // autoStartsNextToKey
-        if (records[startingIndex+20].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+20].equals("1"))
             chkAutoStartingPositionKey.setChecked(true);
         // autoStartsCenter
-        if (records[startingIndex+21].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+21].equals("1"))
             chkAutoStartingPositionCenter.setChecked(true);
         // autoStartsInLineLeftGear
-        if (records[startingIndex+22].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+22].equals("1"))
             chkAutoStartingPositionLeft.setChecked(true);
         // autoStartsInLineRightGear
-        if (records[startingIndex+23].split(Form.ID_DELIMITER)[1].equals("1"))
+        if (values[startingIndex+23].equals("1"))
             chkAutoStartingPositionRight.setChecked(true);
         // autoTimeToShoot
-        txtAutoShootTime.setText(records[startingIndex+24].split(Form.ID_DELIMITER)[1]
-                .replace("null", ""));
+        txtAutoShootTime.setText(values[startingIndex+24]);
         // autoStrategies
-        txtAutoStrategies.setText(records[startingIndex+25].split(Form.ID_DELIMITER)[1]
-                .replace("null", "").replaceAll("~", ","));
+        txtAutoStrategies.setText(values[startingIndex+25]);
     }
 
     private boolean readyToSave() {
@@ -1178,40 +1214,61 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
         return true;
     }
 
-    private boolean saveForm() {
-        String message = "There has been an I/O issue! FORM NOT SAVED.";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
-            if (!file.exists()) {
-                if (!file.createNewFile()) throw new IOException();
-            } else {
-                if (firstForm) {
-                    if (!file.delete()) {
-                        message = "There has been an I/O issue! \n" +
-                                "FAILED TO DELETE OLD TEMP FILE";
-                        throw new IOException();
-                    }
-                    file.createNewFile();
-                    firstForm = false;
+    private void saveForm() {
+        final File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        // The first form after a transfer starts a new temp file.
+        final boolean newFile = firstForm;
+        final Form form = makeForm();
+        firstForm = false;
+        btnFormsPendingSave.setEnabled(false);
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                // Every form gets the next sequence number of this tablet, so the master
+                // computer can tell which forms it already has.
+                if (nextSequence < 0) nextSequence = findNextSequence();
+                nextSequence = Math.max(nextSequence, ackedSequence + 1);
+                form.setSequenceNum(nextSequence);
+                byte[] encoded = FormCodec.encode(form);
+                // The temp file is an append-only log of binary forms, so saving never has to
+                // read or rewrite the forms already pending. A new file starts with the codec
+                // header; a text file left by an older version keeps getting text forms.
+                byte[] bytes = encoded;
+                if (newFile || !file.exists() || (file.length() == 0)) {
+                    bytes = new byte[FormCodec.header().length + encoded.length];
+                    System.arraycopy(FormCodec.header(), 0, bytes, 0, FormCodec.header().length);
+                    System.arraycopy(encoded, 0, bytes, FormCodec.header().length, encoded.length);
+                } else if (!FormCodec.isBinary(file))
+                    bytes = (FormCodec.toText(form) + Form.FORM_DELIMITER).getBytes();
+                FileOutputStream fos = new FileOutputStream(file, !newFile);
+                try {
+                    fos.write(bytes);
+                    fos.getFD().sync();
+                } finally {
+                    fos.close();
                 }
+                nextSequence++;
+                return null;
             }
-            String content = "";
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            if (content.isEmpty()) writer.append(makeForm().toString());
-            else writer.append(content + Form.FORM_DELIMITER + makeForm().toString());
-            writer.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-
-            return false;
-        }
-        return true;
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                btnFormsPendingSave.setEnabled(true);
+                if (success) {
+                    Toast.makeText(getApplicationContext(), "FORM SAVED",
+                            Toast.LENGTH_SHORT).show();
+                    formsPending++;
+                    resetForm();
+                    lblFormsPending.setText(formsPending + " Form(s) Pending");
+                    resetState();
+                } else {
+                    if (newFile) firstForm = true;
+                    showAlertDialog("FORM NOT SAVED: " +
+                            "I/O problem encountered. Try again - if the problem persists, " +
+                            "TALK TO LUCAS!", "Ok", null);
+                }
+            }
+        });
     }
 
     private Form makeForm() {
@@ -1223,32 +1280,156 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
         if (numOfScouts == 5) scouts += Form.ID_DELIMITER + scoutName5;
         PrescoutingForm form = new PrescoutingForm(tabletNum,
                 Integer.parseInt(txtTeamNumber.getText().toString()), scouts);
-        for (Record record : records) if (record.getValue() != null) form.addRecord(record);
+        // The records are copied, since they are reused for the next form
+        for (Record record : records)
+            if (record.getValue() != null)
+                form.addRecord(new Record(record.getValue(), record.getItemID()));
         return form;
     }
 
-    public String prepareFormTransfer(String filename) {
-        String content = "";
-        String message = "There has been an I/O issue!\nTRANSFER FAILED";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), filename);
-            if (!file.exists()) {
-                message = "There has been an I/O issue!\n" +
-                        "TRANSFER FAILED: " + filename + " DOES NOT EXIST.";
-                throw new IOException();
+    /**
+     * Packs forms into the transfer bundle, on the background writer.
+     * @param filename - the temp file or an archive
+     * @param unackedOnly - true to send every form the master computer has not acknowledged, from
+     *                    the archives and the file, instead of the whole file
+     * @param callback - notified on the UI thread; on success, the result is the name of the
+     *                 bundle file to send
+     */
+    public void prepareFormTransfer(final String filename, final boolean unackedOnly,
+                                    final PersistenceExecutor.Callback callback) {
+        final File file = new File(getFilesDir().getAbsolutePath(), filename);
+        final File bundle = new File(getFilesDir().getAbsolutePath(), BUNDLE_FILE);
+        final int tablet = tabletNum;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                if (!file.exists()) throw new IOException(filename + " DOES NOT EXIST.");
+                long acked = ackedSequence;
+                ArrayList<Form> forms = new ArrayList<>();
+                if (unackedOnly) {
+                    // Archives are read from the newest back, until one holds a form the master
+                    // computer already has or a form saved without a sequence number.
+                    ArrayList<File> archives = getArchives();
+                    for (int i = archives.size() - 1; i >= 0; i--) {
+                        ArrayList<Form> archived = readForms(archives.get(i));
+                        boolean done = archived.isEmpty();
+                        for (int f = archived.size() - 1; f >= 0; f--) {
+                            long sequenceNum = archived.get(f).getSequenceNum();
+                            if ((sequenceNum < 0) || (sequenceNum <= acked)) done = true;
+                            else forms.add(0, archived.get(f));
+                        }
+                        if (done) break;
+                    }
+                }
+                for (Form form : readForms(file))
+                    if (!unackedOnly || (form.getSequenceNum() < 0) || (form.getSequenceNum() > acked))
+                        forms.add(form);
+                long first = TransferBundle.NO_SEQUENCE;
+                long last = TransferBundle.NO_SEQUENCE;
+                for (Form form : forms) {
+                    if (form.getSequenceNum() < 0) continue;
+                    if (first == TransferBundle.NO_SEQUENCE) first = form.getSequenceNum();
+                    last = form.getSequenceNum();
+                }
+                AtomicFileWriter.write(bundle, TransferBundle.write(tablet, first, last,
+                        FormCodec.encode(forms), forms.size()));
+                // The Bluetooth share activity must be able to read the bundle.
+                if (!bundle.setReadable(true, false))
+                    throw new IOException("COULD NOT SHARE " + BUNDLE_FILE);
+                return BUNDLE_FILE;
+            }
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue!\nTRANSFER FAILED: " + result,
+                        Toast.LENGTH_LONG).show();
+                callback.onComplete(success, result);
             }
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-            if (!file.delete()) throw new IOException();
-            FileOutputStream fos = openFileOutput(filename, Context.MODE_WORLD_READABLE);
-            fos.write(content.getBytes());
-            fos.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
+        });
+    }
+
+    /**
+     * Merges every archive into one bundle, on the background writer, as a backup of the whole
+     * season. Archives are read one at a time and their forms streamed into the bundle, so memory
+     * use does not grow with the number of archives. A form found in more than one archive (a
+     * transfer made twice without new forms) is only sent once.
+     * @param callback - notified on the UI thread; on success, the result is the name of the
+     *                 bundle file to send
+     */
+    public void prepareArchiveTransfer(final PersistenceExecutor.Callback callback) {
+        final File bundle = new File(getFilesDir().getAbsolutePath(), BUNDLE_FILE);
+        final int tablet = tabletNum;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                File partial = new File(bundle.getPath() + ".part");
+                TransferBundle.Writer writer = new TransferBundle.Writer(partial, tablet);
+                HashSet<Long> sequenceNums = new HashSet<>();
+                HashSet<String> unnumbered = new HashSet<>();
+                try {
+                    for (File archive : getArchives())
+                        for (Form form : readForms(archive)) {
+                            // Forms saved by older versions have no sequence number, so they are
+                            // told apart by their contents.
+                            boolean added = (form.getSequenceNum() < 0)
+                                    ? unnumbered.add(form.toString())
+                                    : sequenceNums.add(form.getSequenceNum());
+                            if (added) writer.add(form);
+                        }
+                } finally {
+                    writer.close();
+                }
+                if (!partial.renameTo(bundle))
+                    throw new IOException("COULD NOT REPLACE " + BUNDLE_FILE);
+                if (!bundle.setReadable(true, false))
+                    throw new IOException("COULD NOT SHARE " + BUNDLE_FILE);
+                return BUNDLE_FILE;
+            }
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) Toast.makeText(getApplicationContext(),
+                        "There has been an I/O issue!\nTRANSFER FAILED: " + result,
+                        Toast.LENGTH_LONG).show();
+                callback.onComplete(success, result);
+            }
+        });
+    }
+
+    // Reads the forms in a file, binary or text. Runs on the background writer.
+    private static ArrayList<Form> readForms(File file) throws IOException {
+        byte[] content = AtomicFileWriter.readBytes(file);
+        if (!FormCodec.isBinary(content)) return FormCodec.fromText(new String(content));
+        try {
+            return FormCodec.decode(content);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file.getName() + " IS CORRUPTED: " + e.getMessage());
         }
-        return content;
+    }
+
+    // The archive files, oldest first. Runs on the background writer.
+    private ArrayList<File> getArchives() {
+        ArrayList<File> archives = new ArrayList<>();
+        while (true) {
+            File archive = new File(getFilesDir().getAbsolutePath(), ARCHIVE_FILE.split("\\.")[0]
+                    + archives.size() + ARCHIVE_FILE.split("\\.")[1]);
+            if (!archive.exists()) return archives;
+            archives.add(archive);
+        }
+    }
+
+    // One past the highest sequence number of the forms saved so far. The newest forms are in the
+    // temp file or, right after a transfer, in the newest archive. Runs on the background writer.
+    private long findNextSequence() throws IOException {
+        long highest = TransferBundle.NO_SEQUENCE;
+        ArrayList<File> files = getArchives();
+        if (files.size() > 1) files.subList(0, files.size() - 1).clear();
+        File temp = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        if (temp.exists()) files.add(temp);
+        for (File file : files)
+            for (Form form : readForms(file)) highest = Math.max(highest, form.getSequenceNum());
+        return highest + 1;
     }
 
     public void prepareToTransfer(String fileName) {
@@ -1364,60 +1545,56 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
     }
 
     private void saveState() {
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), STATE_SAVE_FILE);
-            if (!file.exists()) if (!file.createNewFile()) throw new IOException();
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            // include forms pending, matchnum, teamnum, name, score
-            String output = String.valueOf(formsPending) + Form.ITEM_DELIMITER +
-                    numOfScouts + Form.ITEM_DELIMITER +
-                    txtTeamNumber.getText().toString() + Form.ITEM_DELIMITER +
-                    chooseName1.getSelectedItemPosition() + Form.ITEM_DELIMITER +
-                    chooseName2.getSelectedItemPosition() + Form.ITEM_DELIMITER +
-                    chooseName3.getSelectedItemPosition() + Form.ITEM_DELIMITER +
-                    chooseName4.getSelectedItemPosition() + Form.ITEM_DELIMITER +
-                    chooseName5.getSelectedItemPosition();
-            for (Record record : records) output += Form.ITEM_DELIMITER + record.toString();
-            writer.write(output);
-            writer.close();
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(),
-                    "There has been an I/O issue! Current Form lost...", Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        if (!stateRestored) return;
+        // Records are journaled as they change; only the other fields are left to save. Nothing
+        // is written for a field that has not changed.
+        for (Map.Entry<Integer, String> field : stateFields().entrySet())
+            journal.put(field.getKey(), field.getValue());
+    }
+
+    // Starts the journal over once a form is saved, so its records are not restored into the next
+    private void resetState() {
+        if (!stateRestored) return;
+        journal.reset(stateFields());
+    }
+
+    // The fields of the state that are not records, in the order they are saved
+    private LinkedHashMap<Integer, String> stateFields() {
+        LinkedHashMap<Integer, String> fields = new LinkedHashMap<>();
+        fields.put(STATE_NUM_OF_SCOUTS, String.valueOf(numOfScouts));
+        fields.put(STATE_TEAM_NUM, txtTeamNumber.getText().toString());
+        fields.put(STATE_SCOUT_1, String.valueOf(chooseName1.getSelectedItemPosition()));
+        fields.put(STATE_SCOUT_2, String.valueOf(chooseName2.getSelectedItemPosition()));
+        fields.put(STATE_SCOUT_3, String.valueOf(chooseName3.getSelectedItemPosition()));
+        fields.put(STATE_SCOUT_4, String.valueOf(chooseName4.getSelectedItemPosition()));
+        fields.put(STATE_SCOUT_5, String.valueOf(chooseName5.getSelectedItemPosition()));
+        // Saved last: once it is in the journal, so are all the fields above
+        fields.put(STATE_FORMS_PENDING, String.valueOf(formsPending));
+        return fields;
     }
 
     public void archiveCurrentFile() {
-        String message = "There has been an I/O issue!";
-        try {
-            File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
-            if (!file.exists()) {
-                message = "There has been an I/O issue! \n" +
-                        "TEMP FILE NOT FOUND (LAST TRANSFER NOT ARCHIVED)";
-                throw new IOException();
+        final File file = new File(getFilesDir().getAbsolutePath(), TEMP_FILE);
+        final File archive = new File(getFilesDir().getAbsolutePath(),
+                ARCHIVE_FILE.split("\\.")[0] + archivedFiles + ARCHIVE_FILE.split("\\.")[1]);
+        archivedFiles++;
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                if (!file.exists())
+                    throw new IOException("TEMP FILE NOT FOUND (LAST TRANSFER NOT ARCHIVED)");
+                AtomicFileWriter.write(archive, AtomicFileWriter.readBytes(file));
+                return null;
             }
-            String content = "";
-            String str;
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            while (!((str = reader.readLine())== null)) content += str;
-            reader.close();
-
-            String fileName = ARCHIVE_FILE.split("\\.")[0] + archivedFiles
-                    + ARCHIVE_FILE.split("\\.")[1];
-            file = new File(getFilesDir().getAbsolutePath(), fileName);
-            if (!file.exists()) if (!file.createNewFile()) {
-                message = "There has been an I/O issue! \n" +
-                        "FAILED TO CREATE ARCHIVE FILE";
-                throw new IOException();
+        }, new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (success) return;
+                archivedFiles--;
+                Toast.makeText(getApplicationContext(), "There has been an I/O issue! \n" + result,
+                        Toast.LENGTH_LONG).show();
             }
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            writer.write(content);
-            writer.close();
-            archivedFiles++;
-        } catch (IOException e) {
-            Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+        });
     }
 
     private boolean checkConfigFile() {
@@ -1438,30 +1615,21 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                 BufferedReader reader = new BufferedReader(new FileReader(file));
                 while (!((str = reader.readLine()) == null)) contents.add(str);
                 reader.close();
-                if (!file.delete()) {
-                    message = "There has been an I/O issue!\n" +
-                            "BLUETOOTH DIR CONFIG FILE DELETE FAILED";
-                    throw new IOException();
+                String content = "";
+                for (int i = 0; i < contents.size(); i++) {
+                    if (i > 0) content += "\n";
+                    content += contents.get(i);
                 }
 
-                file = new File(getFilesDir().getAbsolutePath(), fileName);
-                if (file.exists()) {
-                    if (!file.delete()) {
-                        message = "There has been an I/O issue!\nOLD CONFIG FILE DELETE FAILED";
-                        throw new IOException();
-                    }
-                }
-                if (!file.createNewFile()) {
+                // The new config replaces the old one atomically, and the received file is only
+                // deleted once the new config is safely stored.
+                message = "There has been an I/O issue!\nCONFIG FILE WRITE FAILED";
+                AtomicFileWriter.write(new File(getFilesDir().getAbsolutePath(), fileName), content);
+                if (!file.delete()) {
                     message = "There has been an I/O issue!\n" +
-                            "CONFIG FILE CREATION FAILED";
+                            "BLUETOOTH DIR CONFIG FILE DELETE FAILED";
                     throw new IOException();
                 }
-                BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-                for (int i = 0; i < contents.size(); i++) {
-                    if (i > 0) writer.newLine();
-                    writer.write(contents.get(i));
-                }
-                writer.close();
                 initConfigs();
                 showAlertDialog("SUCCESS!", "OK");
             }
@@ -1515,22 +1683,19 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
     private void executeRequest() {
         switch (actionRequested) {
             case SAVE_FORM:
-                if (saveForm()) {
-                    Toast.makeText(getApplicationContext(), "FORM SAVED",
-                            Toast.LENGTH_SHORT).show();
-                    formsPending++;
-                    resetForm();
-                    lblFormsPending.setText(formsPending + " Form(s) Pending");
-                } else showAlertDialog("FORM NOT SAVED: " +
-                        "I/O problem encountered. Try again - if the problem persists, " +
-                        "TALK TO LUCAS!", "Ok", null);
+                saveForm();
                 break;
             case TRANSFER_FORMS:
                 if (formsPending > 0) {
-                    prepareFormTransfer(TEMP_FILE);
-                    prepareToTransfer(TEMP_FILE);
+                    prepareFormTransfer(TEMP_FILE, true, new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
                     actionRequested = Action.CHECK_TRANSFER;
                     formsPending = 0;
+                    saveState();
                     lblFormsPending.setText(formsPending + " Form(s) Pending");
                     firstForm = true;
                     archiveCurrentFile();
@@ -1540,11 +1705,23 @@ public class MainActivity extends Activity implements KeyEvent.Callback {
                 if (archivedFiles > 0) {
                     String fileName = ARCHIVE_FILE.split("\\.")[0] + (archivedFiles - 1)
                             + ARCHIVE_FILE.split("\\.")[1];
-                    prepareFormTransfer(fileName);
-                    prepareToTransfer(fileName);
+                    prepareFormTransfer(fileName, false, new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
                 } else showAlertDialog("There has not been a transfer yet.", "Ok");
                 break;
             case TRANSFER_ALL_ARCHIVES:
+                if (archivedFiles > 0) {
+                    prepareArchiveTransfer(new PersistenceExecutor.Callback() {
+                        @Override
+                        public void onComplete(boolean success, String result) {
+                            if (success) prepareToTransfer(result);
+                        }
+                    });
+                } else showAlertDialog("There has not been a transfer yet.", "Ok");
                 break;
             case RECEIVE_CONFIG:
                 retrieveComputerFile(CONFIG_FILE);
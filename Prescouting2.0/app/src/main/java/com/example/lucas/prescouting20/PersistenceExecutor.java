@@ -0,0 +1,71 @@
+package com.example.lucas.prescouting20;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs all of the app's file I/O on a single background thread, so the form UI never waits on
+ * the disk. Commands run one at a time, in the order they were submitted, so a transfer always
+ * sees every form saved before it. Once a command is done, its callback runs on the UI thread.
+ */
+public class PersistenceExecutor {
+
+    /**
+     * A unit of file I/O, run on the background thread.
+     */
+    public interface Command {
+        /**
+         * @return a result to hand to the callback, or null
+         * @throws IOException if the command failed
+         */
+        String run() throws IOException;
+    }
+
+    /**
+     * Receives the outcome of a command on the UI thread.
+     */
+    public interface Callback {
+        /**
+         * @param success - true if the command completed
+         * @param result - the command's result if it succeeded, or the error message otherwise
+         */
+        void onComplete(boolean success, String result);
+    }
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Queues a command behind every command submitted before it.
+     * @param command - the I/O to run
+     * @param callback - notified on the UI thread once the command is done; may be null
+     */
+    public void submit(final Command command, final Callback callback) {
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    complete(callback, true, command.run());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    complete(callback, false, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void complete(final Callback callback, final boolean success, final String result) {
+        if (callback == null) return;
+        uiHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onComplete(success, result);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.example.lucas.prescouting20;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the state of the form being filled in as a journal of field changes. Every change is
+ * appended to the end of the journal as one small binary entry:
+ * - the field's key (a short: a database item id, or a negative key for the other form fields),
+ * - whether the field has a value (a byte: NO_VALUE or VALUE),
+ * - the value, if there is one (its length in bytes as an int, then UTF-8), so a value of any
+ *   length can be saved. Journals left by older versions hold UTF_VALUE entries instead (modified
+ *   UTF-8, at most 65535 bytes), which are still read.
+ *
+ * Saving a change only writes that change, no matter how big the form is. Restoring is a single
+ * sequential read of the journal in which later entries win. Once the journal holds
+ * COMPACT_AFTER entries it is replaced, atomically, by one entry per field; the same happens when
+ * it is reset for a new form.
+ *
+ * All of the journal's I/O runs on the PersistenceExecutor, in order with the app's other I/O.
+ * Its methods must be called from the UI thread.
+ */
+public class StateJournal {
+
+    // The number of entries the journal can hold before it is compacted
+    static final int COMPACT_AFTER = 256;
+
+    // What follows an entry's key
+    static final byte NO_VALUE = 0;
+    static final byte UTF_VALUE = 1;
+    static final byte VALUE = 2;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final PersistenceExecutor persistence;
+    private final PersistenceExecutor.Callback onFailure;
+    // The latest value of every field, as it is in the journal once the queued I/O is done
+    private HashMap<Integer, String> values;
+    private int entries;
+
+    /**
+     * @param file - the journal file
+     * @param persistence - the executor that runs the journal's I/O
+     * @param onFailure - notified on the UI thread if a change could not be saved; may be null
+     */
+    public StateJournal(File file, PersistenceExecutor persistence,
+                        PersistenceExecutor.Callback onFailure) {
+        this.file = file;
+        this.persistence = persistence;
+        this.onFailure = onFailure;
+        values = new HashMap<>();
+        entries = 0;
+    }
+
+    /**
+     * Reads the journal back. An entry cut short by the app being killed is dropped from the file.
+     * @param callback - notified on the UI thread once the journal is read; get() then returns
+     *                 the restored values
+     */
+    public void restore(PersistenceExecutor.Callback callback) {
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                HashMap<Integer, String> restored = new HashMap<>();
+                int restoredEntries = 0;
+                AtomicFileWriter.recover(file);
+                if (file.exists()) {
+                    // The journal is compacted long before it gets big, so it is read in one go
+                    byte[] journal = new byte[(int) file.length()];
+                    DataInputStream in = new DataInputStream(new FileInputStream(file));
+                    try {
+                        in.readFully(journal);
+                    } finally {
+                        in.close();
+                    }
+                    ByteArrayInputStream bytes = new ByteArrayInputStream(journal);
+                    DataInputStream entry = new DataInputStream(bytes);
+                    int valid = 0;
+                    try {
+                        while (bytes.available() > 0) {
+                            int key = entry.readShort();
+                            restored.put(key, readValue(entry));
+                            restoredEntries++;
+                            valid = journal.length - bytes.available();
+                        }
+                    } catch (EOFException | UTFDataFormatException e) {
+                        // An entry that was never finished: drop it, so new entries follow the
+                        // last complete one
+                        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                        try {
+                            raf.setLength(valid);
+                        } finally {
+                            raf.close();
+                        }
+                    }
+                }
+                values = restored;
+                entries = restoredEntries;
+                return null;
+            }
+        }, callback);
+    }
+
+    /**
+     * @param key - the field's key
+     * @return the field's latest value, or null if it has none
+     */
+    public String get(int key) {
+        return values.get(key);
+    }
+
+    public boolean contains(int key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Saves a change to a field. Nothing is written if the field already has that value.
+     * @param key - the field's key
+     * @param value - the field's new value; may be null
+     */
+    public void put(int key, String value) {
+        if (values.containsKey(key) && equal(values.get(key), value)) return;
+        values.put(key, value);
+        entries++;
+        try {
+            if (entries >= COMPACT_AFTER) {
+                writeSnapshot();
+            } else {
+                HashMap<Integer, String> change = new HashMap<>();
+                change.put(key, value);
+                final byte[] entry = encode(change);
+                persistence.submit(new PersistenceExecutor.Command() {
+                    @Override
+                    public String run() throws IOException {
+                        FileOutputStream fos = new FileOutputStream(file, true);
+                        try {
+                            fos.write(entry);
+                            fos.getFD().sync();
+                        } finally {
+                            fos.close();
+                        }
+                        return null;
+                    }
+                }, failureCallback());
+            }
+        } catch (IOException e) {
+            // Writing to memory does not fail, but the stream API declares it
+            if (onFailure != null) onFailure.onComplete(false, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the journal over, for a new form. Every field is forgotten, except the given ones,
+     * and the journal is replaced, atomically, by one entry per given field: the old form's
+     * records cannot come back on a restore, even if the app is killed right after.
+     * @param fields - the fields the new form starts with
+     */
+    public void reset(Map<Integer, String> fields) {
+        values = new HashMap<>(fields);
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            // Writing to memory does not fail, but the stream API declares it
+            if (onFailure != null) onFailure.onComplete(false, e.getMessage());
+        }
+    }
+
+    // Replaces the journal, atomically, by one entry per field
+    private void writeSnapshot() throws IOException {
+        final byte[] snapshot = encode(values);
+        entries = values.size();
+        persistence.submit(new PersistenceExecutor.Command() {
+            @Override
+            public String run() throws IOException {
+                AtomicFileWriter.write(file, snapshot);
+                return null;
+            }
+        }, failureCallback());
+    }
+
+    private PersistenceExecutor.Callback failureCallback() {
+        if (onFailure == null) return null;
+        return new PersistenceExecutor.Callback() {
+            @Override
+            public void onComplete(boolean success, String result) {
+                if (!success) onFailure.onComplete(false, result);
+            }
+        };
+    }
+
+    private static byte[] encode(Map<Integer, String> fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Map.Entry<Integer, String> field : fields.entrySet()) {
+            out.writeShort(field.getKey());
+            if (field.getValue() == null) {
+                out.writeByte(NO_VALUE);
+            } else {
+                byte[] value = field.getValue().getBytes(UTF8);
+                out.writeByte(VALUE);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Reads what follows an entry's key. Anything that is not a whole value is taken as an entry
+    // that was never finished.
+    private static String readValue(DataInputStream entry) throws IOException {
+        switch (entry.readByte()) {
+            case NO_VALUE:
+                return null;
+            case UTF_VALUE:
+                return entry.readUTF();
+            case VALUE:
+                int length = entry.readInt();
+                if ((length < 0) || (length > entry.available())) throw new EOFException();
+                byte[] value = new byte[length];
+                entry.readFully(value);
+                return new String(value, UTF8);
+            default:
+                throw new EOFException();
+        }
+    }
+
+    private static boolean equal(String a, String b) {
+        return (a == null) ? (b == null) : a.equals(b);
+    }
+
+}
@@ -79,6 +79,7 @@ DROP TABLE IF EXISTS `scouting`.`RECORD` ;
 CREATE TABLE IF NOT EXISTS `scouting`.`RECORD` (
   `ID` INT NOT NULL AUTO_INCREMENT,
   `Value` VARCHAR(500) NULL,
+  `NumValue` DOUBLE NULL,
    `ITEM_ID` INT(11) NOT NULL,
    `REPORT_ID` INT(11) NOT NULL,
  PRIMARY KEY (`ID`, `ITEM_ID`, `REPORT_ID`),
@@ -99,10 +100,80 @@ CREATE UNIQUE INDEX `ID_UNIQUE` ON `scouting`.`RECORD` (`ID` ASC)  ;
 CREATE INDEX `fk_RECORD_ITEM1_idx` ON `scouting`.`RECORD` (`ITEM_ID` ASC)  ;
 CREATE INDEX `fk_RECORD_REPORT1_idx` ON `scouting`.`RECORD` (`REPORT_ID` ASC)  ;
 
+-- Every team lookup finds reports by team and form type, then their records by report and item.
+-- A schema created before these were added gets them from MySqlStore.migrate() when the desktop
+-- app starts.
+CREATE INDEX `report_team_idx` ON `scouting`.`REPORT` (`TeamNum` ASC, `FormType` ASC, `ID` ASC);
+CREATE INDEX `record_report_item_idx` ON `scouting`.`RECORD` (`REPORT_ID` ASC, `ITEM_ID` ASC, `Value`(255) ASC);
+CREATE INDEX `record_item_report_idx` ON `scouting`.`RECORD` (`ITEM_ID` ASC, `REPORT_ID` ASC);
+
+-- -----------------------------------------------------
+-- Table `scouting`.`TEAM_ITEM_SUMMARY`
+-- The running totals of every numeric item of every team's match forms: the number of values,
+-- their sum, the sum of their squares and the number that are not 0. The desktop app adds each
+-- match form to it as it stores the form, and serves Ctrl-M and Ctrl-A from it. Running the app
+-- with the argument rebuildSummary rebuilds it from RECORD.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `scouting`.`TEAM_ITEM_SUMMARY` (
+  `TeamNum` INT(11) NOT NULL,
+  `ITEM_ID` INT(11) NOT NULL,
+  `N` INT(11) NOT NULL,
+  `Sum` DOUBLE NOT NULL,
+  `SumSq` DOUBLE NOT NULL,
+  `Successes` INT(11) NOT NULL,
+  PRIMARY KEY (`TeamNum`, `ITEM_ID`))
+ENGINE = InnoDB;
+
+-- -----------------------------------------------------
+-- Procedures procAverages and procProportions
+-- A team's integer and options items, and its checkbox items with the percentage of matches in
+-- which they were checked. They read NumValue, the value of a record as a number, which the
+-- desktop app fills in for integer, boolean and options items as it stores a form.
+-- -----------------------------------------------------
+DROP PROCEDURE IF EXISTS `scouting`.`procAverages`;
+DROP PROCEDURE IF EXISTS `scouting`.`procProportions`;
+
+DELIMITER $$
+CREATE PROCEDURE `scouting`.`procAverages`(IN teamNum INT)
+BEGIN
+SELECT r.ITEM_ID, AVG(r.NumValue), STDDEV_POP(r.NumValue), COUNT(r.NumValue)
+FROM scouting.RECORD r
+JOIN scouting.REPORT rpt ON rpt.ID = r.REPORT_ID
+JOIN scouting.ITEM i ON i.ID = r.ITEM_ID
+WHERE rpt.TeamNum = teamNum AND rpt.FormType = 1 AND i.DATATYPE_ID IN (1, 4) AND r.NumValue IS NOT NULL
+GROUP BY r.ITEM_ID ORDER BY r.ITEM_ID;
+END$$
+
+CREATE PROCEDURE `scouting`.`procProportions`(IN teamNum INT)
+BEGIN
+SELECT r.ITEM_ID, CAST(SUM(r.NumValue) AS SIGNED), COUNT(r.NumValue),
+CAST(ROUND(100 * AVG(r.NumValue)) AS SIGNED)
+FROM scouting.RECORD r
+JOIN scouting.REPORT rpt ON rpt.ID = r.REPORT_ID
+JOIN scouting.ITEM i ON i.ID = r.ITEM_ID
+WHERE rpt.TeamNum = teamNum AND rpt.FormType = 1 AND i.DATATYPE_ID = 2 AND r.NumValue IS NOT NULL
+GROUP BY r.ITEM_ID ORDER BY r.ITEM_ID;
+END$$
+DELIMITER ;
+
 SET SQL_MODE=@OLD_SQL_MODE;
 SET FOREIGN_KEY_CHECKS=@OLD_FOREIGN_KEY_CHECKS;
 SET UNIQUE_CHECKS=@OLD_UNIQUE_CHECKS;
 
 insert datatype(Type) values ('integer');
 insert datatype(Type) values ('boolean');
-insert datatype(Type) values ('string');
\ No newline at end of file
+insert datatype(Type) values ('string');
+
+-- Alliance score reported by match scouts, used to group teams into alliances
+insert item(ID, Name, DATATYPE_ID) values (123, 'Alliance Score', 1);
+
+-- -----------------------------------------------------
+-- Table `scouting`.`TABLET_SYNC`
+-- The highest form sequence number stored from each tablet. Forms a tablet sends again are
+-- skipped, and the tablet is sent this number back so it only sends newer forms.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `scouting`.`TABLET_SYNC` (
+  `TabletNum` INT(11) NOT NULL,
+  `HighWater` BIGINT NOT NULL,
+  PRIMARY KEY (`TabletNum`))
+ENGINE = InnoDB;
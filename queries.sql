@@ -108,7 +108,7 @@ CREATE DEFINER=`root`@`localhost` PROCEDURE `procGetAverage`(
 	IN itemName VARCHAR(50)
 )
 BEGIN
-SELECT rpt.teamnum, avg(r.value) as results FROM scouting.record r
+SELECT rpt.teamnum, avg(r.NumValue) as results FROM scouting.record r
 join scouting.item i on i.ID = r.ITEM_ID and i.Name = itemName
 join scouting.report rpt on rpt.id = r.report_id and rpt.teamnum > 0
 group by rpt.teamnum